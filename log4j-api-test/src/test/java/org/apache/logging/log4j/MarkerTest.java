@@ -107,4 +107,44 @@ public class MarkerTest {
         assertTrue(test1.isInstanceOf(parent), "TEST1 is not an instance of PARENT");
         assertTrue(test1.isInstanceOf(existing), "TEST1 is not an instance of EXISTING");
     }
+
+    @Test
+    public void testDeepHierarchy() {
+        final Marker root = MarkerManager.getMarker("ROOT");
+        Marker leaf = root;
+        for (int i = 0; i < 200; i++) {
+            final Marker sibling = MarkerManager.getMarker("SIBLING" + i);
+            leaf = MarkerManager.getMarker("CHILD" + i).setParents(sibling, leaf);
+        }
+        assertTrue(leaf.isInstanceOf(root), "leaf is not an instance of ROOT");
+        assertTrue(leaf.isInstanceOf("ROOT"), "leaf is not an instance of ROOT");
+        assertTrue(leaf.isInstanceOf("SIBLING0"), "leaf is not an instance of SIBLING0");
+        assertFalse(root.isInstanceOf(leaf), "ROOT is an instance of leaf");
+        assertFalse(leaf.isInstanceOf(MarkerManager.getMarker("UNRELATED")), "leaf is an instance of UNRELATED");
+    }
+
+    @Test
+    public void testAncestorChanges() {
+        final Marker child = MarkerManager.getMarker("CHILD");
+        final Marker parent = MarkerManager.getMarker("PARENT");
+        final Marker grandParent = MarkerManager.getMarker("GRANDPARENT");
+        child.setParents(parent);
+        parent.setParents(grandParent);
+        assertTrue(child.isInstanceOf(grandParent), "CHILD is not an instance of GRANDPARENT");
+        parent.setParents();
+        assertFalse(child.isInstanceOf(grandParent), "CHILD is an instance of GRANDPARENT after setParents");
+        parent.addParents(grandParent);
+        assertTrue(child.isInstanceOf("GRANDPARENT"), "CHILD is not an instance of GRANDPARENT after addParents");
+        parent.remove(grandParent);
+        assertFalse(child.isInstanceOf("GRANDPARENT"), "CHILD is an instance of GRANDPARENT after remove");
+    }
+
+    @Test
+    public void testCyclicHierarchy() {
+        final Marker first = MarkerManager.getMarker("FIRST");
+        final Marker second = MarkerManager.getMarker("SECOND").setParents(first);
+        first.setParents(second);
+        assertTrue(first.isInstanceOf(second), "FIRST is not an instance of SECOND");
+        assertFalse(first.isInstanceOf(MarkerManager.getMarker("THIRD")), "FIRST is an instance of THIRD");
+    }
 }
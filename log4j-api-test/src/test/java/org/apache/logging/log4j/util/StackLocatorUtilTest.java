@@ -114,4 +114,38 @@ public class StackLocatorUtilTest {
         assertEquals(this.getClass(), clazz, "Incorrect class");
     }
 
+    @Test
+    public void testCalcLocationOfSameCallSite() {
+        final StackTraceElement[] elements = new StackTraceElement[2];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = Locator.locate();
+        }
+        final StackTraceElement other = Locator.locate();
+        assertEquals(elements[0], elements[1]);
+        assertEquals("testCalcLocationOfSameCallSite", elements[0].getMethodName());
+        assertEquals(elements[0].getLineNumber() + 2, other.getLineNumber());
+    }
+
+    @Test
+    public void testCalcLocationInOverloadedMethods() {
+        final StackTraceElement first = locateOverloaded();
+        final StackTraceElement second = locateOverloaded(0);
+        assertEquals("locateOverloaded", first.getMethodName());
+        assertEquals("locateOverloaded", second.getMethodName());
+        assertEquals(first.getLineNumber() + 4, second.getLineNumber());
+    }
+
+    private static StackTraceElement locateOverloaded() {
+        return Locator.locate();
+    }
+
+    private static StackTraceElement locateOverloaded(final int unused) {
+        return Locator.locate();
+    }
+
+    private static final class Locator {
+        static StackTraceElement locate() {
+            return StackLocatorUtil.calcLocation(Locator.class.getName());
+        }
+    }
 }
@@ -16,9 +16,14 @@
  */
 package org.apache.logging.log4j;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import org.apache.logging.log4j.util.PerformanceSensitive;
 import org.apache.logging.log4j.util.StringBuilderFormattable;
@@ -52,6 +57,18 @@ public final class MarkerManager {
         return MARKERS.containsKey(key);
     }
 
+    /**
+     * Returns a counter that changes whenever the parents of a Marker created by this Manager change. Results derived
+     * from the Marker hierarchy, such as cached filter decisions, are valid only as long as the counter does not
+     * change.
+     *
+     * @return the generation of the Marker hierarchy.
+     * @since 3.0.0
+     */
+    public static int getHierarchyGeneration() {
+        return Log4jMarker.GENERATION.get();
+    }
+
     /**
      * Retrieves a Marker or create a Marker that has no parent.
      *
@@ -83,10 +100,46 @@ public final class MarkerManager {
 
         private static final long serialVersionUID = 100L;
 
+        /**
+         * Incremented whenever the parents of any marker change, which invalidates the ancestor sets of all markers.
+         */
+        private static final AtomicInteger GENERATION = new AtomicInteger();
+
+        private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+        private static final AtomicIntegerFieldUpdater<Log4jMarker> ID_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(Log4jMarker.class, "id");
+
+        /**
+         * The ancestors of a marker as a set of marker ids, valid for one generation of the marker hierarchy.
+         */
+        private static final class Ancestors {
+
+            private final int generation;
+
+            /**
+             * The ids of the ancestors as a bit set, or {@code null} if an ancestor is not a Log4jMarker and the
+             * hierarchy must be walked.
+             */
+            private final long[] ids;
+
+            Ancestors(final int generation, final long[] ids) {
+                this.generation = generation;
+                this.ids = ids;
+            }
+        }
+
         private final String name;
 
         private volatile Marker[] parents;
 
+        /**
+         * The id of this marker in the ancestor sets of other markers, assigned when it first becomes an ancestor.
+         */
+        private transient volatile int id;
+
+        private transient volatile Ancestors ancestors;
+
         /**
          * Required by JAXB and Jackson for XML and JSON IO.
          */
@@ -145,6 +198,7 @@ public final class MarkerManager {
                 }
             }
             this.parents = markers;
+            GENERATION.incrementAndGet();
             return this;
         }
 
@@ -159,6 +213,7 @@ public final class MarkerManager {
             if (localParentsLength == 1) {
                 if (localParents[0].equals(parent)) {
                     parents = null;
+                    GENERATION.incrementAndGet();
                     return true;
                 }
                 return false;
@@ -177,6 +232,7 @@ public final class MarkerManager {
                 }
             }
             parents = markers;
+            GENERATION.incrementAndGet();
             return true;
         }
 
@@ -189,6 +245,7 @@ public final class MarkerManager {
                 System.arraycopy(markers, 0, array, 0, markers.length);
                 this.parents = array;
             }
+            GENERATION.incrementAndGet();
             return this;
         }
 
@@ -215,28 +272,7 @@ public final class MarkerManager {
         @PerformanceSensitive({"allocation", "unrolled"})
         public boolean isInstanceOf(final Marker marker) {
             requireNonNull(marker, "A marker parameter is required");
-            if (this == marker) {
-                return true;
-            }
-            final Marker[] localParents = parents;
-            if (localParents != null) {
-                // With only one or two parents the for loop is slower.
-                final int localParentsLength = localParents.length;
-                if (localParentsLength == 1) {
-                    return checkParent(localParents[0], marker);
-                }
-                if (localParentsLength == 2) {
-                    return checkParent(localParents[0], marker) || checkParent(localParents[1], marker);
-                }
-                // noinspection ForLoopReplaceableByForEach
-                for (int i = 0; i < localParentsLength; i++) {
-                    final Marker localParent = localParents[i];
-                    if (checkParent(localParent, marker)) {
-                        return true;
-                    }
-                }
-            }
-            return false;
+            return this == marker || isDescendantOf(marker);
         }
 
         @Override
@@ -248,28 +284,95 @@ public final class MarkerManager {
             }
             // Use a real marker for child comparisons. It is faster than comparing the names.
             final Marker marker = MARKERS.get(markerName);
-            if (marker == null) {
+            return marker != null && isDescendantOf(marker);
+        }
+
+        /**
+         * Returns whether the marker is an ancestor of this marker. When the whole hierarchy is made of Log4jMarkers
+         * this is a lookup in the ancestor set, which is computed once for each change of the hierarchy.
+         */
+        @PerformanceSensitive({"allocation", "unrolled"})
+        private boolean isDescendantOf(final Marker marker) {
+            final Marker[] localParents = parents;
+            if (localParents == null) {
                 return false;
             }
+            if (marker instanceof Log4jMarker) {
+                final long[] ancestorIds = getAncestorIds();
+                if (ancestorIds != null) {
+                    // Markers without an id have never been an ancestor of any marker.
+                    final int markerId = ((Log4jMarker) marker).id;
+                    final int index = markerId >>> 6;
+                    return markerId != 0 && index < ancestorIds.length && (ancestorIds[index] & (1L << markerId)) != 0;
+                }
+            }
+            // With only one or two parents the for loop is slower.
+            final int localParentsLength = localParents.length;
+            if (localParentsLength == 1) {
+                return checkParent(localParents[0], marker);
+            }
+            if (localParentsLength == 2) {
+                return checkParent(localParents[0], marker) || checkParent(localParents[1], marker);
+            }
+            // noinspection ForLoopReplaceableByForEach
+            for (int i = 0; i < localParentsLength; i++) {
+                final Marker localParent = localParents[i];
+                if (checkParent(localParent, marker)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private long[] getAncestorIds() {
+            // Read the generation before the parents, so that a concurrent change invalidates what is computed here.
+            final int generation = GENERATION.get();
+            Ancestors current = ancestors;
+            if (current == null || current.generation != generation) {
+                current = new Ancestors(generation, computeAncestorIds());
+                ancestors = current;
+            }
+            return current.ids;
+        }
+
+        private long[] computeAncestorIds() {
+            long[] ids = new long[1];
+            final Deque<Marker> pending = new ArrayDeque<>();
             final Marker[] localParents = parents;
             if (localParents != null) {
-                final int localParentsLength = localParents.length;
-                if (localParentsLength == 1) {
-                    return checkParent(localParents[0], marker);
+                Collections.addAll(pending, localParents);
+            }
+            Marker next;
+            while ((next = pending.poll()) != null) {
+                if (!(next instanceof Log4jMarker)) {
+                    return null;
                 }
-                if (localParentsLength == 2) {
-                    return checkParent(localParents[0], marker) || checkParent(localParents[1], marker);
+                final Log4jMarker ancestor = (Log4jMarker) next;
+                final int ancestorId = ancestor.getId();
+                final int index = ancestorId >>> 6;
+                if (index >= ids.length) {
+                    ids = Arrays.copyOf(ids, Math.max(index + 1, ids.length * 2));
                 }
-                // noinspection ForLoopReplaceableByForEach
-                for (int i = 0; i < localParentsLength; i++) {
-                    final Marker localParent = localParents[i];
-                    if (checkParent(localParent, marker)) {
-                        return true;
+                final long bit = 1L << ancestorId;
+                if ((ids[index] & bit) == 0) {
+                    ids[index] |= bit;
+                    final Marker[] ancestorParents = ancestor.parents;
+                    if (ancestorParents != null) {
+                        Collections.addAll(pending, ancestorParents);
                     }
                 }
             }
+            return ids;
+        }
 
-            return false;
+        private int getId() {
+            final int current = id;
+            if (current != 0) {
+                return current;
+            }
+            // Not synchronized, since addParents holds the lock of a marker while walking the hierarchy.
+            ID_UPDATER.compareAndSet(this, 0, NEXT_ID.incrementAndGet());
+            return id;
         }
 
         @PerformanceSensitive({"allocation", "unrolled"})
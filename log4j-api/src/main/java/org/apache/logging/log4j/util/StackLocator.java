@@ -112,6 +112,16 @@ public final class StackLocator {
 
     }
 
+    /**
+     * Locates the caller of the logger with the given fully qualified class name.
+     * <p>
+     * This walks the stack on every call. Callers that log repeatedly from the same place can avoid the walk by
+     * passing a precomputed location to {@link org.apache.logging.log4j.LogBuilder#withLocation(StackTraceElement)}.
+     * </p>
+     *
+     * @param fqcnOfLogger The fully qualified class name of the logger.
+     * @return The location of the caller or null.
+     */
     public StackTraceElement calcLocation(final String fqcnOfLogger) {
         return STACK_WALKER.walk(
                 s -> s.dropWhile(f -> !f.getClassName().equals(fqcnOfLogger)) // drop the top frames until we reach the logger
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@LoggerContextSource("log4j-global-filter.xml")
+public class LoggerGlobalFilterTest {
+
+    private static final Marker IMPORTANT = MarkerManager.getMarker("IMPORTANT");
+
+    @Test
+    public void testMayAccept(final Configuration configuration) {
+        final Filter filter = configuration.getFilter();
+        assertTrue(filter.mayAccept(Level.DEBUG));
+        assertTrue(filter.mayAccept(Level.INFO));
+        assertFalse(filter.mayAccept(Level.TRACE));
+        assertFalse(filter.mayAccept(Level.ALL));
+    }
+
+    @Test
+    public void testGlobalFilterAcceptsDisabledLevel(final LoggerContext context, @Named("List") final ListAppender app) {
+        final Logger logger = context.getLogger(LoggerGlobalFilterTest.class.getName());
+        assertTrue(logger.isDebugEnabled(IMPORTANT));
+        assertFalse(logger.isDebugEnabled());
+        assertFalse(logger.isTraceEnabled(IMPORTANT));
+        logger.debug(IMPORTANT, "accepted by the marker");
+        logger.debug("below the logger level");
+        logger.trace(IMPORTANT, "denied by the level range");
+        logger.trace(IMPORTANT, "denied by the level range {}", "with a parameter");
+        logger.info("at the logger level");
+        assertEquals(2, app.getMessages().size(), app.getMessages().toString());
+        assertEquals("DEBUG accepted by the marker", app.getMessages().get(0));
+        assertEquals("INFO at the logger level", app.getMessages().get(1));
+        app.clear();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.apache.logging.log4j.test.junit.UsingThreadContextMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@LoggerContextSource("log4j-escalation.xml")
+@UsingThreadContextMap
+public class EscalationAppenderTest {
+
+    private final ListAppender app;
+    private final ListAppender escalatedApp;
+    private final EscalationAppender escalation;
+    private final Logger logger;
+    private final Logger escalatingLogger;
+
+    public EscalationAppenderTest(final LoggerContext context, @Named("List") final ListAppender app,
+            @Named("EscalatedList") final ListAppender escalatedApp,
+            @Named("Escalation") final EscalationAppender escalation) {
+        this.app = app;
+        this.escalatedApp = escalatedApp;
+        this.escalation = escalation;
+        logger = context.getLogger("EscalationAppenderTest");
+        escalatingLogger = context.getLogger("Escalating");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        app.clear();
+        escalatedApp.clear();
+    }
+
+    private static List<String> messages(final ListAppender appender) {
+        return appender.getEvents().stream().map(event -> event.getMessage().getFormattedMessage())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testBuffersUntilTrigger() {
+        logger.debug("debug 1");
+        logger.info("info");
+        logger.warn("warn");
+        assertEquals(List.of("info", "warn"), messages(app));
+        logger.error("error");
+        assertEquals(List.of("info", "warn", "debug 1", "error"), messages(app));
+        logger.error("error again");
+        assertEquals(5, app.getEvents().size());
+    }
+
+    @Test
+    public void testKeepsLastEventsPerKey() {
+        ThreadContext.put("requestId", "a");
+        for (int i = 0; i < 5; i++) {
+            logger.debug("a {}", i);
+        }
+        ThreadContext.put("requestId", "b");
+        logger.debug("b 0");
+        logger.error("b failed");
+        assertEquals(List.of("b 0", "b failed"), messages(app));
+        app.clear();
+
+        ThreadContext.put("requestId", "a");
+        logger.error("a failed");
+        assertEquals(List.of("a 2", "a 3", "a 4", "a failed"), messages(app));
+        assertTrue(escalation.getBufferCount() >= 2);
+    }
+
+    @Test
+    public void testBufferedEventsAreImmutable() {
+        final StringBuilder parameter = new StringBuilder("before");
+        logger.debug("value {}", parameter);
+        parameter.setLength(0);
+        parameter.append("after");
+        logger.error("error");
+        final List<LogEvent> events = app.getEvents();
+        assertEquals("value before", events.get(0).getMessage().getFormattedMessage());
+    }
+
+    @Test
+    public void testEscalationWindow() {
+        escalatingLogger.debug("before");
+        assertTrue(escalatedApp.getEvents().isEmpty());
+        escalatingLogger.error("error");
+        escalatingLogger.debug("after");
+        escalatingLogger.trace("not enabled");
+        assertEquals(List.of("before", "error", "after"), messages(escalatedApp));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.appender.RollingColumnarFileAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.ColumnarBlocks;
+import org.apache.logging.log4j.core.layout.ColumnarLayout;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollingColumnarFileAppenderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testChunksSurviveRollover() throws Exception {
+        final Configuration config = new DefaultConfiguration();
+        final String fileName = tempDir.resolve("columnar.l4jc").toString();
+        final RollingColumnarFileAppender appender = RollingColumnarFileAppender.newBuilder()
+                .setName("Columnar")
+                .setConfiguration(config)
+                .setFileName(fileName)
+                .setFilePattern(tempDir.resolve("columnar-%i.l4jc").toString())
+                .setPolicy(new SizeBasedTriggeringPolicy(2048))
+                .setStrategy(DefaultRolloverStrategy.newBuilder().setMax("100").setConfig(config).build())
+                .setLayout(ColumnarLayout.newBuilder().setChunkSize(32).setConfiguration(config).build())
+                .build();
+        assertNotNull(appender);
+        appender.start();
+        final int count = 1000;
+        for (int i = 0; i < count; i++) {
+            appender.append(Log4jLogEvent.newBuilder()
+                    .setTimeMillis(1_600_000_000_000L + i)
+                    .setLevel(Level.INFO)
+                    .setLoggerName("test")
+                    .setMessage(new SimpleMessage("message " + i))
+                    .build());
+        }
+        assertTrue(appender.stop(10, TimeUnit.SECONDS));
+
+        final File[] files = tempDir.toFile().listFiles();
+        assertNotNull(files);
+        assertTrue(files.length > 1, "Expected rolled over files");
+        final List<Map<String, Object>> rows = new ArrayList<>();
+        for (final File file : files) {
+            rows.addAll(ColumnarBlocks.decode(Files.readAllBytes(file.toPath())));
+        }
+        assertEquals(count, rows.size());
+        rows.sort((a, b) -> Long.compare((Long) a.get("timestamp"), (Long) b.get("timestamp")));
+        for (int i = 0; i < count; i++) {
+            assertEquals("message " + i, rows.get(i).get("message"));
+        }
+    }
+
+    @Test
+    public void testRejectsOtherLayouts() {
+        final Configuration config = new DefaultConfiguration();
+        assertNull(RollingColumnarFileAppender.newBuilder()
+                .setName("Columnar")
+                .setConfiguration(config)
+                .setFileName(tempDir.resolve("columnar.l4jc").toString())
+                .setFilePattern(tempDir.resolve("columnar-%i.l4jc").toString())
+                .setPolicy(new SizeBasedTriggeringPolicy(2048))
+                .setLayout(PatternLayout.createDefaultLayout())
+                .build());
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.filter.AbstractFilter;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.ContextFreeFilter;
+import org.apache.logging.log4j.core.filter.LevelRangeFilter;
+import org.apache.logging.log4j.core.filter.MarkerFilter;
+import org.apache.logging.log4j.core.filter.ThresholdFilter;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link FilterDecisionCache}.
+ */
+public class FilterDecisionCacheTest {
+
+    private static class CountingFilter extends AbstractFilter implements ContextFreeFilter {
+
+        private int calls;
+
+        @Override
+        public Result filter(final LogEvent event) {
+            calls++;
+            return event.getLevel().isMoreSpecificThan(Level.WARN) ? Result.ACCEPT : Result.DENY;
+        }
+    }
+
+    private static LogEvent event(final Level level, final Marker marker) {
+        return Log4jLogEvent.newBuilder().setLevel(level).setMarker(marker).setMessage(new SimpleMessage("test"))
+                .build();
+    }
+
+    @Test
+    public void testCachesByLevelAndMarker() {
+        final FilterDecisionCache cache = new FilterDecisionCache();
+        final CountingFilter filter = new CountingFilter();
+        final Marker marker = MarkerManager.getMarker("FilterDecisionCacheTest");
+        for (int i = 0; i < 3; i++) {
+            assertSame(Result.ACCEPT, cache.filter(filter, event(Level.ERROR, null), 0));
+            assertSame(Result.DENY, cache.filter(filter, event(Level.INFO, null), 0));
+            assertSame(Result.ACCEPT, cache.filter(filter, event(Level.ERROR, marker), 0));
+        }
+        assertEquals(3, filter.calls);
+    }
+
+    @Test
+    public void testMarkerGenerationInvalidatesMarkerResults() {
+        final FilterDecisionCache cache = new FilterDecisionCache();
+        final CountingFilter filter = new CountingFilter();
+        final Marker marker = MarkerManager.getMarker("FilterDecisionCacheTest.CHILD");
+        cache.filter(filter, event(Level.ERROR, marker), 0);
+        cache.filter(filter, event(Level.ERROR, marker), 0);
+        assertEquals(1, filter.calls);
+        marker.setParents(MarkerManager.getMarker("FilterDecisionCacheTest.PARENT"));
+        cache.filter(filter, event(Level.ERROR, marker), 0);
+        assertEquals(2, filter.calls);
+        marker.setParents();
+    }
+
+    @Test
+    @LoggerContextSource("log4j-filter-cache.xml")
+    public void testUpdateLoggersDiscardsResults(final LoggerContext context) {
+        final LoggerConfig loggerConfig = context.getConfiguration()
+                .getLoggerConfig(FilterDecisionCacheTest.class.getName());
+        final CountingFilter filter = new CountingFilter();
+        loggerConfig.removeFilter(loggerConfig.getFilter());
+        loggerConfig.addFilter(filter);
+        assertFalse(loggerConfig.isFiltered(event(Level.ERROR, null)));
+        assertFalse(loggerConfig.isFiltered(event(Level.ERROR, null)));
+        assertEquals(1, filter.calls);
+        context.updateLoggers();
+        assertFalse(loggerConfig.isFiltered(event(Level.ERROR, null)));
+        assertEquals(2, filter.calls);
+    }
+
+    @Test
+    public void testCustomLevelsAreNotCached() {
+        final FilterDecisionCache cache = new FilterDecisionCache();
+        final CountingFilter filter = new CountingFilter();
+        final Level custom = Level.forName("FILTER_CACHE_TEST", 350);
+        cache.filter(filter, event(custom, null), 0);
+        cache.filter(filter, event(custom, null), 0);
+        assertEquals(2, filter.calls);
+    }
+
+    @Test
+    public void testEpochAndFilterChangesInvalidate() {
+        final FilterDecisionCache cache = new FilterDecisionCache();
+        final CountingFilter filter = new CountingFilter();
+        cache.filter(filter, event(Level.ERROR, null), 0);
+        cache.filter(filter, event(Level.ERROR, null), 1);
+        assertEquals(2, filter.calls);
+        final CountingFilter other = new CountingFilter();
+        cache.filter(other, event(Level.ERROR, null), 1);
+        assertEquals(1, other.calls);
+    }
+
+    @Test
+    public void testFiltersThatAreNotContextFreeAreAlwaysCalled() {
+        final FilterDecisionCache cache = new FilterDecisionCache();
+        final int[] calls = new int[1];
+        final Filter filter = new AbstractFilter() {
+            @Override
+            public Result filter(final LogEvent event) {
+                calls[0]++;
+                return Result.NEUTRAL;
+            }
+        };
+        cache.filter(filter, event(Level.ERROR, null), 0);
+        cache.filter(filter, event(Level.ERROR, null), 0);
+        assertEquals(2, calls[0]);
+    }
+
+    @Test
+    public void testIsContextFree() {
+        final Filter threshold = ThresholdFilter.createFilter(Level.INFO, null, null);
+        final Filter range = LevelRangeFilter.createFilter(Level.ERROR, Level.INFO, null, null);
+        final Filter content = new AbstractFilter() {
+        };
+        assertTrue(FilterDecisionCache.isContextFree(threshold));
+        assertTrue(FilterDecisionCache.isContextFree(CompositeFilter.createFilters(new Filter[] {threshold, range})));
+        assertFalse(FilterDecisionCache.isContextFree(CompositeFilter.createFilters(new Filter[] {threshold, content})));
+    }
+
+    @Test
+    public void testMarkerLimit() {
+        final FilterDecisionCache cache = new FilterDecisionCache();
+        final CountingFilter filter = new CountingFilter();
+        for (int i = 0; i <= FilterDecisionCache.MAX_MARKERS; i++) {
+            cache.filter(filter, event(Level.ERROR, MarkerManager.getMarker("FilterDecisionCacheTest" + i)), 0);
+        }
+        final Marker last = MarkerManager.getMarker("FilterDecisionCacheTest" + FilterDecisionCache.MAX_MARKERS);
+        final int calls = filter.calls;
+        cache.filter(filter, event(Level.ERROR, last), 0);
+        assertEquals(calls + 1, filter.calls);
+    }
+
+    @Test
+    @LoggerContextSource("log4j-filter-cache.xml")
+    public void testMarkerParentsChange(final LoggerContext context,
+            @Named("List") final ListAppender app) {
+        final Logger logger = context.getLogger(FilterDecisionCacheTest.class);
+        final Marker audit = MarkerManager.getMarker("AUDIT");
+        final Marker login = MarkerManager.getMarker("FilterDecisionCacheTest.LOGIN");
+        login.setParents();
+        logger.info(audit, "audit");
+        logger.info(login, "login");
+        assertEquals(1, app.getEvents().size());
+
+        login.setParents(audit);
+        logger.info(login, "login");
+        assertEquals(2, app.getEvents().size());
+
+        login.setParents();
+        logger.info(login, "login");
+        assertEquals(2, app.getEvents().size());
+    }
+}
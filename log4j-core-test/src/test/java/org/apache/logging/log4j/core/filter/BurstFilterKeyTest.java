@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.jmx.BurstFilterAdmin;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the keyed windows of {@link BurstFilter}. The rate is low enough that no window refills during a test.
+ */
+public class BurstFilterKeyTest {
+
+    private static BurstFilter createFilter(final String key, final int maxKeys) {
+        return BurstFilter.newBuilder()
+                .setLevel(Level.INFO)
+                .setRate(0.01f)
+                .setMaxBurst(3)
+                .setKey(key)
+                .setMaxKeys(maxKeys)
+                .setName("burst")
+                .build();
+    }
+
+    private static Result filter(final BurstFilter filter) {
+        return filter.filter(null, Level.INFO, null, (Object) null, null);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadContext.clearMap();
+    }
+
+    @Test
+    public void testUnkeyedWindowIsShared() {
+        final BurstFilter filter = createFilter(null, 10);
+        for (int i = 0; i < 3; i++) {
+            assertSame(Result.NEUTRAL, filter(filter));
+        }
+        assertSame(Result.DENY, filter(filter));
+        assertSame(Result.NEUTRAL, filter.filter(null, Level.WARN, null, (Object) null, null));
+        assertEquals(0, filter.getAvailable());
+        assertEquals(1, filter.getDroppedCount());
+        filter.clear();
+        assertEquals(3, filter.getAvailable());
+    }
+
+    @Test
+    public void testConcurrentEventsDoNotExceedMaxBurst() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 1000; round++) {
+                final BurstFilter filter = BurstFilter.newBuilder()
+                        .setLevel(Level.INFO)
+                        .setRate(0.01f)
+                        .setMaxBurst(1)
+                        .build();
+                final CyclicBarrier barrier = new CyclicBarrier(2);
+                final Callable<Result> task = () -> {
+                    barrier.await(10, TimeUnit.SECONDS);
+                    return filter(filter);
+                };
+                final Future<Result> first = executor.submit(task);
+                final Future<Result> second = executor.submit(task);
+                final int passed = (first.get() == Result.NEUTRAL ? 1 : 0) + (second.get() == Result.NEUTRAL ? 1 : 0);
+                assertEquals(1, passed, "round " + round);
+                assertEquals(1, filter.getDroppedCount(), "round " + round);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testContextKeyLimitsEachTenantSeparately() {
+        final BurstFilter filter = createFilter("ctx:tenantId", 10);
+        ThreadContext.put("tenantId", "noisy");
+        for (int i = 0; i < 10; i++) {
+            filter(filter);
+        }
+        assertSame(Result.DENY, filter(filter));
+        ThreadContext.put("tenantId", "quiet");
+        for (int i = 0; i < 3; i++) {
+            assertSame(Result.NEUTRAL, filter(filter));
+        }
+        assertSame(Result.DENY, filter(filter));
+        assertEquals(8, filter.getDroppedCount("noisy"));
+        assertEquals(1, filter.getDroppedCount("quiet"));
+        assertEquals(9, filter.getDroppedCount());
+        assertEquals(2, filter.getKeyCount());
+        // Events without the key fall back to the shared window.
+        ThreadContext.remove("tenantId");
+        assertSame(Result.NEUTRAL, filter(filter));
+        assertEquals(2, filter.getAvailable());
+    }
+
+    @Test
+    public void testLogEventKeys() {
+        final BurstFilter loggerFilter = createFilter("logger", 10);
+        final BurstFilter markerFilter = createFilter("marker", 10);
+        for (int i = 0; i < 4; i++) {
+            final LogEvent first = Log4jLogEvent.newBuilder().setLoggerName("first").setLevel(Level.DEBUG)
+                    .setMarker(MarkerManager.getMarker("A")).setMessage(new SimpleMessage("m")).build();
+            final LogEvent second = Log4jLogEvent.newBuilder().setLoggerName("second").setLevel(Level.DEBUG)
+                    .setMarker(MarkerManager.getMarker("B")).setMessage(new SimpleMessage("m")).build();
+            final Result expected = i < 3 ? Result.NEUTRAL : Result.DENY;
+            assertSame(expected, loggerFilter.filter(first));
+            assertSame(expected, loggerFilter.filter(second));
+            assertSame(expected, markerFilter.filter(first));
+            assertSame(expected, markerFilter.filter(second));
+        }
+        assertEquals(0, loggerFilter.getAvailable("first"));
+        assertEquals(1, markerFilter.getDroppedCount("B"));
+        assertEquals(3, loggerFilter.getAvailable());
+    }
+
+    @Test
+    public void testKeyTableIsBounded() {
+        final BurstFilter filter = createFilter("ctx:tenantId", 4);
+        for (int i = 0; i < 100; i++) {
+            ThreadContext.put("tenantId", "tenant" + i);
+            assertSame(Result.NEUTRAL, filter(filter));
+            assertTrue(filter.getKeyCount() <= 4, "Too many keys: " + filter.getKeyCount());
+        }
+    }
+
+    @Test
+    public void testAdmin() {
+        final BurstFilter filter = createFilter("ctx:tenantId", 10);
+        ThreadContext.put("tenantId", "noisy");
+        for (int i = 0; i < 5; i++) {
+            filter(filter);
+        }
+        final BurstFilterAdmin admin = new BurstFilterAdmin("ctx", filter);
+        assertEquals("org.apache.logging.log4j2:type=ctx,component=BurstFilters,name=burst",
+                admin.getObjectName().toString());
+        assertEquals("INFO", admin.getLevel());
+        assertEquals(2, admin.getDroppedCount());
+        assertEquals(2, admin.getDroppedCount("noisy"));
+        assertEquals(1, admin.getKeyCount());
+    }
+}
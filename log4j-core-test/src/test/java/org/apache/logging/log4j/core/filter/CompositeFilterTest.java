@@ -18,10 +18,17 @@
 package org.apache.logging.log4j.core.filter;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.junit.jupiter.api.Test;
 
 public class CompositeFilterTest {
@@ -46,4 +53,50 @@ public class CompositeFilterTest {
         final CompositeFilter concat2 = singleA.addFilter(singleB.addFilter(singleC));
         assertArrayEquals(expected, concat2.getFiltersArray());
     }
+
+    @Test
+    public void testCompiledChainKeepsFilterOrder() {
+        final Level custom = Level.forName("COMPOSITE_FILTER_CUSTOM", Level.WARN.intLevel());
+        final Filter[] filters = {
+                ThresholdFilter.createFilter(Level.TRACE, Result.NEUTRAL, Result.DENY),
+                MarkerFilter.createFilter("COMPOSITE_FILTER_ACCEPT", Result.ACCEPT, Result.NEUTRAL),
+                LevelMatchFilter.newBuilder().setLevel(Level.ERROR).setOnMatch(Result.DENY).build(),
+                ThresholdFilter.createFilter(Level.WARN, Result.NEUTRAL, Result.DENY),
+                MarkerFilter.createFilter("COMPOSITE_FILTER_DENY", Result.DENY, Result.NEUTRAL),
+                LevelRangeFilter.createFilter(Level.FATAL, Level.WARN, Result.ACCEPT, Result.NEUTRAL)
+        };
+        final CompositeFilter composite = CompositeFilter.createFilters(filters);
+        final Marker[] markers = {
+                null,
+                MarkerManager.getMarker("COMPOSITE_FILTER_ACCEPT"),
+                MarkerManager.getMarker("COMPOSITE_FILTER_DENY"),
+                MarkerManager.getMarker("COMPOSITE_FILTER_OTHER")
+        };
+        final Level[] levels = {
+                Level.OFF, Level.FATAL, Level.ERROR, Level.WARN, Level.INFO, Level.DEBUG, Level.TRACE, Level.ALL, custom
+        };
+        for (final Level level : levels) {
+            for (final Marker marker : markers) {
+                final LogEvent event = Log4jLogEvent.newBuilder()
+                        .setLevel(level)
+                        .setMarker(marker)
+                        .setMessage(new SimpleMessage("message"))
+                        .build();
+                final String description = level + " " + marker;
+                assertEquals(sequentialResult(filters, event), composite.filter(event), description);
+                assertEquals(sequentialResult(filters, event),
+                        composite.filter(null, level, marker, "message", "p0"), description);
+            }
+        }
+    }
+
+    private static Result sequentialResult(final Filter[] filters, final LogEvent event) {
+        for (final Filter filter : filters) {
+            final Result result = filter.filter(event);
+            if (result != Result.NEUTRAL) {
+                return result;
+            }
+        }
+        return Result.NEUTRAL;
+    }
 }
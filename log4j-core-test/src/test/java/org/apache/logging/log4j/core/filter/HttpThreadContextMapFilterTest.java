@@ -67,6 +67,7 @@ public class HttpThreadContextMapFilterTest implements MutableThreadContextMapFi
     static LoggerContext loggerContext = null;
     static final File targetFile = new File("target/test-classes/testConfig.json");
     static final Path target = targetFile.toPath();
+    static volatile boolean entityTagReceived;
     CountDownLatch updated = new CountDownLatch(1);
 
 
@@ -145,6 +146,7 @@ public class HttpThreadContextMapFilterTest implements MutableThreadContextMapFi
         if (!updated.await(5, TimeUnit.SECONDS)) {
             fail("File update for delete was not detected");
         }
+        assertTrue(entityTagReceived, "Conditional request did not send the entity tag");
     }
 
     public static class TestServlet extends DefaultServlet {
@@ -170,17 +172,30 @@ public class HttpThreadContextMapFilterTest implements MutableThreadContextMapFi
             }
             if (request.getServletPath().equals("/testConfig.json")) {
                 File file = new File("target/test-classes/testConfig.json");
+                String noneMatch = request.getHeader(HttpHeader.IF_NONE_MATCH.toString());
+                if (noneMatch != null) {
+                    entityTagReceived = true;
+                }
                 if (!file.exists()) {
                     response.sendError(404, "File not found");
                     return;
                 }
-                long modifiedSince = request.getDateHeader(HttpHeader.IF_MODIFIED_SINCE.toString());
                 long lastModified = (file.lastModified() / 1000) * 1000;
-                if (modifiedSince > 0 && lastModified <= modifiedSince) {
-                    response.setStatus(304);
-                    return;
+                String entityTag = "\"" + lastModified + "\"";
+                if (noneMatch != null) {
+                    if (noneMatch.equals(entityTag)) {
+                        response.setStatus(304);
+                        return;
+                    }
+                } else {
+                    long modifiedSince = request.getDateHeader(HttpHeader.IF_MODIFIED_SINCE.toString());
+                    if (modifiedSince > 0 && lastModified <= modifiedSince) {
+                        response.setStatus(304);
+                        return;
+                    }
                 }
                 response.setDateHeader(HttpHeader.LAST_MODIFIED.toString(), lastModified);
+                response.setHeader(HttpHeader.ETAG.toString(), entityTag);
                 response.setContentLengthLong(file.length());
                 Files.copy(file.toPath(), response.getOutputStream());
                 response.getOutputStream().flush();
@@ -44,6 +44,7 @@ import static org.junit.jupiter.api.Assertions.*;
 public class MutableThreadContextMapFilterTest implements MutableThreadContextMapFilter.FilterConfigUpdateListener {
 
     static final String CONFIG = "log4j2-mutableFilter.xml";
+    static final String WATCH_CONFIG = "log4j2-mutableFilter-watch.xml";
     static LoggerContext loggerContext = null;
     static File targetFile = new File("target/test-classes/testConfig.json");
     static Path target = targetFile.toPath();
@@ -101,6 +102,40 @@ public class MutableThreadContextMapFilterTest implements MutableThreadContextMa
         Assertions.assertEquals(1, ((ListAppender) app).getEvents().size());
     }
 
+    @Test
+    public void watchManagerTriggersUpdate() throws Exception {
+        System.setProperty("configLocation", "target/test-classes/testConfig.json");
+        ThreadContext.put("loginId", "rgoers");
+        Files.copy(new File("target/test-classes/emptyConfig.json").toPath(), target,
+                StandardCopyOption.REPLACE_EXISTING);
+        long fileTime = targetFile.lastModified() - 2000;
+        assertTrue(targetFile.setLastModified(fileTime));
+        loggerContext = Configurator.initialize(null, WATCH_CONFIG);
+        assertNotNull(loggerContext);
+        ListAppender app = loggerContext.getConfiguration().getAppender("List");
+        assertNotNull(app);
+        MutableThreadContextMapFilter filter = (MutableThreadContextMapFilter) loggerContext.getConfiguration().getFilter();
+        assertNotNull(filter);
+        filter.registerListener(this);
+        Logger logger = loggerContext.getLogger("Test");
+        logger.debug("This is a test");
+        assertEquals(0, app.getEvents().size());
+
+        Files.copy(new File("target/test-classes/filterConfig.json").toPath(), target,
+                StandardCopyOption.REPLACE_EXISTING);
+        assertTrue(targetFile.setLastModified(fileTime + 1000));
+        // Without a poll interval the filter only changes when the WatchManager checks its sources.
+        loggerContext.getConfiguration().getWatchManager().checkFiles();
+        assertEquals(0, updated.getCount(), "Update was not applied");
+        logger.debug("This is a test");
+        assertEquals(1, app.getEvents().size());
+
+        // An unchanged source does not rebuild the filter or notify listeners.
+        updated = new CountDownLatch(1);
+        loggerContext.getConfiguration().getWatchManager().checkFiles();
+        assertEquals(1, updated.getCount());
+    }
+
     @Override
     public void onEvent() {
         updated.countDown();
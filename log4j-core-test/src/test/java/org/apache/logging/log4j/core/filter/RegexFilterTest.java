@@ -22,6 +22,8 @@ import org.apache.logging.log4j.core.Filter.Result;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.junit.jupiter.api.BeforeAll;
@@ -101,4 +103,23 @@ public class RegexFilterTest {
         final Result fmtResult = fmtFilter.filter(null, null, null, msg, params);
         assertThat(fmtResult, equalTo(Result.ACCEPT));
     }
+
+    @Test
+    public void testReusableMessage() throws Exception {
+        final RegexFilter filter = RegexFilter.createFilter("params foo \\d+", null, false, Result.ACCEPT, Result.DENY);
+        final Message first = ReusableMessageFactory.INSTANCE.newMessage("params {} {}", "foo", 42);
+        assertTrue(first instanceof ReusableParameterizedMessage);
+        assertSame(Result.ACCEPT, filter.filter(null, null, null, first, null));
+        ReusableMessageFactory.release(first);
+        final Message second = ReusableMessageFactory.INSTANCE.newMessage("params {} {}", "bar", 42);
+        assertSame(Result.DENY, filter.filter(null, null, null, second, null));
+        // the message is not consumed by the filter
+        assertEquals("params bar 42", second.getFormattedMessage());
+        ReusableMessageFactory.release(second);
+        // the parameterized call leaves the thread's reusable message free for the logger
+        assertSame(Result.ACCEPT, filter.filter(null, null, null, "params {} {}", "foo", 7));
+        final Message next = ReusableMessageFactory.INSTANCE.newMessage("{}", "x");
+        assertTrue(next instanceof ReusableParameterizedMessage);
+        ReusableMessageFactory.release(next);
+    }
 }
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.test.junit.UsingThreadContextMap;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@UsingThreadContextMap
+public class SamplingFilterTest {
+
+    private static Result filter(final SamplingFilter filter, final Level level) {
+        return filter.filter(null, level, null, (Object) null, null);
+    }
+
+    @Test
+    public void testSameKeyGetsSameDecision() {
+        final SamplingFilter filter = SamplingFilter.newBuilder().setKey("traceId").setRate(0.5f).get();
+        int kept = 0;
+        for (int i = 0; i < 1000; i++) {
+            ThreadContext.put("traceId", "trace-" + i);
+            final Result first = filter(filter, Level.DEBUG);
+            for (int j = 0; j < 5; j++) {
+                assertSame(first, filter(filter, Level.DEBUG));
+            }
+            final StringMap contextData = new SortedArrayStringMap();
+            contextData.putValue("traceId", "trace-" + i);
+            final LogEvent event = Log4jLogEvent.newBuilder().setLevel(Level.TRACE).setContextData(contextData)
+                    .setMessage(new SimpleMessage("Test")).build();
+            assertSame(first, filter.filter(event));
+            if (first == Result.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertTrue(kept > 400 && kept < 600, "Kept " + kept + " of 1000 traces");
+    }
+
+    @Test
+    public void testMoreSpecificLevelsAreNotSampled() {
+        final SamplingFilter filter = SamplingFilter.newBuilder().setKey("traceId").setRate(0).get();
+        ThreadContext.put("traceId", "trace");
+        assertSame(Result.DENY, filter(filter, Level.DEBUG));
+        assertSame(Result.DENY, filter(filter, Level.TRACE));
+        assertSame(Result.NEUTRAL, filter(filter, Level.INFO));
+        assertSame(Result.NEUTRAL, filter(filter, Level.forName("SAMPLING_NOTICE", 350)));
+        assertSame(Result.DENY, filter(filter, Level.forName("SAMPLING_VERBOSE", 550)));
+    }
+
+    @Test
+    public void testLevelOverridesAreNested() {
+        final SamplingFilter filter = SamplingFilter.newBuilder()
+                .setKey("traceId")
+                .setRate(0.2f)
+                .setPairs(new KeyValuePair[] { new KeyValuePair("TRACE", "0.05") })
+                .get();
+        assertEquals(0.05, filter.getRate(Level.TRACE), 1e-6);
+        assertEquals(0.2, filter.getRate(Level.DEBUG), 1e-6);
+        assertEquals(1, filter.getRate(Level.INFO));
+        for (int i = 0; i < 1000; i++) {
+            ThreadContext.put("traceId", Integer.toString(i));
+            if (filter(filter, Level.TRACE) == Result.NEUTRAL) {
+                assertSame(Result.NEUTRAL, filter(filter, Level.DEBUG), "Trace kept but not debug for " + i);
+            }
+        }
+    }
+
+    @Test
+    public void testWithoutKey() {
+        final SamplingFilter filter = SamplingFilter.newBuilder().setKey("traceId").setRate(0.5f).get();
+        int kept = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (filter(filter, Level.DEBUG) == Result.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertTrue(kept > 400 && kept < 600, "Kept " + kept + " of 1000 events");
+    }
+
+    @Test
+    public void testMayAccept() {
+        final SamplingFilter filter = SamplingFilter.newBuilder()
+                .setRate(0)
+                .setOnMatch(Result.ACCEPT)
+                .setOnMismatch(Result.NEUTRAL)
+                .get();
+        assertFalse(filter.mayAccept(Level.DEBUG));
+        assertTrue(filter.mayAccept(Level.INFO));
+        assertFalse(SamplingFilter.newBuilder().setRate(1).get().mayAccept(Level.DEBUG));
+    }
+
+    @Test
+    @LoggerContextSource("log4j2-samplingfilter.xml")
+    public void testConfig(final LoggerContext context, @Named("List") final ListAppender app) {
+        final Logger logger = context.getLogger(SamplingFilterTest.class.getName());
+        for (int i = 0; i < 1000; i++) {
+            ThreadContext.put("traceId", "request-" + i);
+            logger.debug("one");
+            logger.info("two");
+            logger.debug("three {}", i);
+            logger.trace("four");
+        }
+        final Map<String, Integer> countsByTrace = new HashMap<>();
+        int trace = 0;
+        for (final String message : app.getMessages()) {
+            final String traceId = message.substring(0, message.indexOf(' '));
+            countsByTrace.merge(traceId, 1, Integer::sum);
+            if (message.endsWith("four")) {
+                trace++;
+            }
+        }
+        assertEquals(1000, countsByTrace.size());
+        int sampled = 0;
+        for (final int count : countsByTrace.values()) {
+            assertTrue(count == 1 || count == 3 || count == 4, "Partially sampled trace");
+            if (count > 1) {
+                sampled++;
+            }
+        }
+        assertTrue(sampled > 60 && sampled < 140, "Sampled " + sampled + " of 1000 traces");
+        assertTrue(trace < 30, "Kept " + trace + " trace events");
+    }
+}
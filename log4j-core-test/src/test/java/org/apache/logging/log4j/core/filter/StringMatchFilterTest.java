@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.message.StringFormatterMessageFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringMatchFilterTest {
+
+    private static LoggerContext context;
+
+    @BeforeAll
+    public static void beforeAll() {
+        context = new LoggerContext("StringMatchFilterTest");
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        context.stop();
+    }
+
+    private static StringMatchFilter createFilter(final String text) {
+        return StringMatchFilter.newBuilder()
+                .setMatchString(text)
+                .setOnMatch(Result.ACCEPT)
+                .setOnMismatch(Result.DENY)
+                .build();
+    }
+
+    @Test
+    public void testParameterizedCalls() {
+        final Logger logger = context.getLogger("test");
+        final StringMatchFilter filter = createFilter("user=alice");
+        assertSame(Result.ACCEPT, filter.filter(logger, Level.INFO, null, "login user=alice from {}", "host"));
+        assertSame(Result.ACCEPT, filter.filter(logger, Level.INFO, null, "login user={} from {}", "alice", "host"));
+        assertSame(Result.ACCEPT, filter.filter(logger, Level.INFO, null, "login user{}", "=alice"));
+        assertSame(Result.DENY, filter.filter(logger, Level.INFO, null, "login user={}", "bob"));
+        assertSame(Result.ACCEPT, filter.filter(logger, Level.INFO, null, "login {} {} {} {} {} {} {} {} {} {}",
+                1, 2, 3, 4, 5, 6, 7, 8, 9, "user=alice"));
+        assertSame(Result.ACCEPT, filter.filter(logger, Level.INFO, null, "{}", new Object[] {"user=alice"}));
+        assertSame(Result.DENY, filter.filter(logger, Level.INFO, null, (Object) "user=bob", null));
+    }
+
+    @Test
+    public void testPlaceholdersInText() {
+        final Logger logger = context.getLogger("test");
+        // the text is only found in the pattern, but the placeholder is replaced by the parameter
+        final StringMatchFilter filter = createFilter("id={}");
+        assertSame(Result.DENY, filter.filter(logger, Level.INFO, null, "id={}", "42"));
+        assertSame(Result.ACCEPT, filter.filter(logger, Level.INFO, null, "id={}", "{}"));
+    }
+
+    @Test
+    public void testOtherMessageFactory() {
+        final Logger logger = context.getLogger("formatted", new StringFormatterMessageFactory());
+        final StringMatchFilter filter = createFilter("count=3");
+        assertSame(Result.ACCEPT, filter.filter(logger, Level.INFO, null, "count=%d", 3));
+        // "{}" is not a placeholder for this factory
+        assertSame(Result.DENY, filter.filter(logger, Level.INFO, null, "count={}", 3));
+    }
+
+    @Test
+    public void testMessages() {
+        final StringMatchFilter filter = createFilter("user=alice");
+        final Message reusable = ReusableMessageFactory.INSTANCE.newMessage("user={}", "alice");
+        assertSame(Result.ACCEPT, filter.filter(null, Level.INFO, null, reusable, null));
+        ReusableMessageFactory.release(reusable);
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLevel(Level.INFO)
+                .setMessage(new ParameterizedMessage("user={}", "bob"))
+                .build();
+        assertSame(Result.DENY, filter.filter(event));
+    }
+}
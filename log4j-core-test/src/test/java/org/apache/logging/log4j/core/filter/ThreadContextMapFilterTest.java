@@ -63,4 +63,28 @@ public class ThreadContextMapFilterTest {
         assertSame(Filter.Result.NEUTRAL, filter.filter(null, Level.DEBUG, null, (Object) null, (Throwable) null));
         ThreadContext.clearMap();
     }
+
+    @Test
+    public void testFilterManyValues() {
+        final KeyValuePair[] pairs = new KeyValuePair[501];
+        for (int i = 0; i < 500; i++) {
+            pairs[i] = new KeyValuePair("tenant", "tenant-" + i);
+        }
+        pairs[500] = new KeyValuePair("organization", "Apache");
+        final ThreadContextMapFilter filter = ThreadContextMapFilter.createFilter(pairs, "and", null, null);
+        assertNotNull(filter);
+        filter.start();
+        try {
+            ThreadContext.put("organization", "Apache");
+            ThreadContext.put("tenant", "tenant-499");
+            assertSame(Filter.Result.NEUTRAL, filter.filter(null, Level.DEBUG, null, (Object) null, (Throwable) null));
+            ThreadContext.put("tenant", "tenant-500");
+            assertSame(Filter.Result.DENY, filter.filter(null, Level.DEBUG, null, (Object) null, (Throwable) null));
+            ThreadContext.put("tenant", "tenant-0");
+            ThreadContext.put("organization", "ASF");
+            assertSame(Filter.Result.DENY, filter.filter(null, Level.DEBUG, null, (Object) null, (Throwable) null));
+        } finally {
+            ThreadContext.clearMap();
+        }
+    }
 }
@@ -449,4 +449,25 @@ public final class ThrowableFormatOptionsTest {
         test(new String[] { "10,filters(package1,package2)" }, 10, Strings.LINE_SEPARATOR,
                 Arrays.asList("package1", "package2"));
     }
+
+    /**
+     * Test {@code %xEx{full}{dedup(60000)} }
+     */
+    @Test
+    public void testDeduplicationWindow() {
+        final ThrowableFormatOptions options = test(new String[] { "full", "dedup(60000)" },
+                Integer.MAX_VALUE, Strings.LINE_SEPARATOR, null);
+        assertEquals(60000, options.getDeduplicationWindowMillis());
+        assertEquals(0, ThrowableFormatOptions.newInstance(new String[] { "full" }).getDeduplicationWindowMillis());
+    }
+
+    /**
+     * Test {@code %xEx{full}{dedup(a minute)} }
+     */
+    @Test
+    public void testInvalidDeduplicationWindow() {
+        final ThrowableFormatOptions options = test(new String[] { "full", "dedup(a minute)" },
+                Integer.MAX_VALUE, Strings.LINE_SEPARATOR, null);
+        assertEquals(0, options.getDeduplicationWindowMillis());
+    }
 }
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes the blocks written by {@link ColumnarLayout} into one map per row, keyed by column name.
+ */
+public final class ColumnarBlocks {
+
+    private ColumnarBlocks() {
+    }
+
+    public static List<Map<String, Object>> decode(final byte[] bytes) throws IOException, DataFormatException {
+        final List<Map<String, Object>> rows = new ArrayList<>();
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        while (in.available() > 0) {
+            decodeBlock(in, rows);
+        }
+        return rows;
+    }
+
+    private static void decodeBlock(final DataInputStream in, final List<Map<String, Object>> rows)
+            throws IOException, DataFormatException {
+        final byte[] magic = new byte[ColumnarChunk.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(ColumnarChunk.MAGIC, magic)) {
+            throw new IOException("Bad magic " + Arrays.toString(magic));
+        }
+        if (in.readByte() != ColumnarChunk.VERSION) {
+            throw new IOException("Unsupported version");
+        }
+        final byte compression = in.readByte();
+        final int rowCount = in.readInt();
+        final int payloadLength = in.readInt();
+        final byte[] stored = new byte[in.readInt()];
+        in.readFully(stored);
+        byte[] payload = stored;
+        if (compression == ColumnarChunk.COMPRESSION_DEFLATE) {
+            payload = new byte[payloadLength];
+            final Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(stored);
+                if (inflater.inflate(payload) != payloadLength || !inflater.finished()) {
+                    throw new IOException("Truncated payload");
+                }
+            } finally {
+                inflater.end();
+            }
+        }
+
+        final List<Map<String, Object>> blockRows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            blockRows.add(new LinkedHashMap<>());
+        }
+        final Input input = new Input(payload);
+        final int columnCount = input.readVarint();
+        for (int c = 0; c < columnCount; c++) {
+            final String name = input.readString();
+            final byte type = input.readByte();
+            switch (type) {
+                case ColumnarChunk.TYPE_TIMESTAMP: {
+                    long previous = 0;
+                    for (final Map<String, Object> row : blockRows) {
+                        final long encoded = input.readVarlong();
+                        previous += (encoded >>> 1) ^ -(encoded & 1);
+                        row.put(name, previous);
+                    }
+                    break;
+                }
+                case ColumnarChunk.TYPE_DICTIONARY: {
+                    final List<String> dictionary = readDictionary(input);
+                    for (final Map<String, Object> row : blockRows) {
+                        row.put(name, dictionary.get(input.readVarint()));
+                    }
+                    break;
+                }
+                case ColumnarChunk.TYPE_STRING:
+                    for (final Map<String, Object> row : blockRows) {
+                        row.put(name, input.readString());
+                    }
+                    break;
+                case ColumnarChunk.TYPE_MAP: {
+                    final List<String> keys = readDictionary(input);
+                    for (final Map<String, Object> row : blockRows) {
+                        final int entries = input.readVarint();
+                        final Map<String, String> map = new HashMap<>();
+                        for (int e = 0; e < entries; e++) {
+                            map.put(keys.get(input.readVarint()), input.readString());
+                        }
+                        row.put(name, map);
+                    }
+                    break;
+                }
+                default:
+                    throw new IOException("Unknown column type " + type);
+            }
+        }
+        if (input.position != payload.length) {
+            throw new IOException("Trailing payload bytes");
+        }
+        rows.addAll(blockRows);
+    }
+
+    private static List<String> readDictionary(final Input input) throws EOFException {
+        final int size = input.readVarint();
+        final List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(input.readString());
+        }
+        return values;
+    }
+
+    private static final class Input {
+
+        private final byte[] bytes;
+        private int position;
+
+        Input(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte readByte() throws EOFException {
+            if (position >= bytes.length) {
+                throw new EOFException();
+            }
+            return bytes[position++];
+        }
+
+        int readVarint() throws EOFException {
+            return (int) readVarlong();
+        }
+
+        long readVarlong() throws EOFException {
+            long result = 0;
+            for (int shift = 0; ; shift += 7) {
+                final byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+        }
+
+        String readString() throws EOFException {
+            final int length = readVarint();
+            if (length == 0) {
+                return null;
+            }
+            final String value = new String(bytes, position, length - 1, StandardCharsets.UTF_8);
+            position += length - 1;
+            return value;
+        }
+    }
+}
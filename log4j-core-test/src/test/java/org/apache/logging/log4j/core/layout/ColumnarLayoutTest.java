@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarLayoutTest {
+
+    private static LogEvent createEvent(final long timeMillis, final Level level, final String loggerName,
+            final String message, final Throwable thrown, final String... context) {
+        final SortedArrayStringMap contextData = new SortedArrayStringMap();
+        for (int i = 0; i < context.length; i += 2) {
+            contextData.putValue(context[i], context[i + 1]);
+        }
+        return Log4jLogEvent.newBuilder()
+                .setTimeMillis(timeMillis)
+                .setLevel(level)
+                .setLoggerName(loggerName)
+                .setThreadName("main")
+                .setMessage(new SimpleMessage(message))
+                .setThrown(thrown)
+                .setContextData(contextData)
+                .build();
+    }
+
+    @Test
+    public void testSingleEventBlock() throws Exception {
+        final ColumnarLayout layout = ColumnarLayout.newBuilder().build();
+        final Exception exception = new IllegalStateException("failed");
+        final byte[] block = layout.toByteArray(
+                createEvent(1_600_000_000_123L, Level.WARN, "org.example.Foo", "hello", exception, "user", "alice"));
+
+        final List<Map<String, Object>> rows = ColumnarBlocks.decode(block);
+        assertEquals(1, rows.size());
+        final Map<String, Object> row = rows.get(0);
+        assertEquals(Arrays.asList("timestamp", "level", "logger", "thread", "message", "thrown", "context"),
+                Arrays.asList(row.keySet().toArray()));
+        assertEquals(1_600_000_000_123L, row.get("timestamp"));
+        assertEquals("WARN", row.get("level"));
+        assertEquals("org.example.Foo", row.get("logger"));
+        assertEquals("main", row.get("thread"));
+        assertEquals("hello", row.get("message"));
+        assertTrue(((String) row.get("thrown")).startsWith("java.lang.IllegalStateException: failed"));
+        assertTrue(((String) row.get("thrown")).contains("at " + ColumnarLayoutTest.class.getName()));
+        assertEquals(Collections.singletonMap("user", "alice"), row.get("context"));
+    }
+
+    @Test
+    public void testRepeatedSingleEventBlocks() throws Exception {
+        final ColumnarLayout layout = ColumnarLayout.newBuilder().build();
+        final byte[] first = layout.toByteArray(createEvent(1000, Level.INFO, "a", "first", null, "user", "alice"));
+        final byte[] second = layout.toByteArray(createEvent(2000, Level.WARN, "b", "second", null));
+
+        final List<Map<String, Object>> firstRows = ColumnarBlocks.decode(first);
+        final List<Map<String, Object>> secondRows = ColumnarBlocks.decode(second);
+        assertEquals(1, firstRows.size());
+        assertEquals(1, secondRows.size());
+        assertEquals("first", firstRows.get(0).get("message"));
+        assertEquals(Collections.singletonMap("user", "alice"), firstRows.get(0).get("context"));
+        // nothing of the first event is carried over to the second block
+        assertEquals(2000L, secondRows.get(0).get("timestamp"));
+        assertEquals("WARN", secondRows.get(0).get("level"));
+        assertEquals("b", secondRows.get(0).get("logger"));
+        assertEquals("second", secondRows.get(0).get("message"));
+        assertEquals(Collections.emptyMap(), secondRows.get(0).get("context"));
+    }
+
+    @Test
+    public void testChunkRoundTrip() throws Exception {
+        for (final ColumnarLayout.Compression compression : ColumnarLayout.Compression.values()) {
+            final ColumnarLayout layout = ColumnarLayout.newBuilder()
+                    .setChunkSize(100)
+                    .setCompression(compression)
+                    .setIncludeStacktrace(false)
+                    .build();
+            final SpyByteBufferDestination destination = new SpyByteBufferDestination(256, 64 * 1024);
+            try (final ColumnarChunk chunk = layout.newChunk()) {
+                assertEquals(100, chunk.getCapacity());
+                for (int i = 0; i < 250; i++) {
+                    // timestamps are not monotonic to exercise negative deltas
+                    final long time = 1_600_000_000_000L + (i % 7 == 0 ? -i : i);
+                    chunk.add(createEvent(time, i % 3 == 0 ? Level.ERROR : Level.INFO, "logger" + (i % 5),
+                            "message é " + i, i == 42 ? new RuntimeException("boom") : null,
+                            "tenant", "t" + (i % 4), "request", String.valueOf(i)));
+                    if (chunk.isFull()) {
+                        chunk.writeTo(destination);
+                        assertTrue(chunk.isEmpty());
+                    }
+                }
+                chunk.writeTo(destination);
+            }
+            destination.drain(destination.getByteBuffer());
+            final byte[] bytes = Arrays.copyOf(destination.drained.array(), destination.drained.position());
+
+            final List<Map<String, Object>> rows = ColumnarBlocks.decode(bytes);
+            assertEquals(250, rows.size(), compression.name());
+            for (int i = 0; i < 250; i++) {
+                final Map<String, Object> row = rows.get(i);
+                assertEquals(1_600_000_000_000L + (i % 7 == 0 ? -i : i), row.get("timestamp"));
+                assertEquals(i % 3 == 0 ? "ERROR" : "INFO", row.get("level"));
+                assertEquals("logger" + (i % 5), row.get("logger"));
+                assertEquals("message é " + i, row.get("message"));
+                assertEquals(i == 42 ? "java.lang.RuntimeException: boom" : null, row.get("thrown"));
+                final Map<String, String> context = new HashMap<>();
+                context.put("tenant", "t" + (i % 4));
+                context.put("request", String.valueOf(i));
+                assertEquals(context, row.get("context"));
+            }
+        }
+    }
+
+    @Test
+    public void testFullChunkRejectsEvents() {
+        try (final ColumnarChunk chunk = ColumnarLayout.newBuilder().setChunkSize(1).build().newChunk()) {
+            chunk.add(createEvent(0, Level.INFO, "a", "b", null));
+            assertThrows(IllegalStateException.class, () -> chunk.add(createEvent(0, Level.INFO, "a", "b", null)));
+        }
+    }
+}
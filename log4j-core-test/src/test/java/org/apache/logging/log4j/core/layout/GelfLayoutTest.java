@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.core.layout;
 
 import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.ThreadContext;
@@ -25,6 +26,7 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.layout.GelfLayout.CompressionType;
 import org.apache.logging.log4j.core.lookup.JavaLookup;
 import org.apache.logging.log4j.core.test.BasicConfigurationFactory;
@@ -32,6 +34,7 @@ import org.apache.logging.log4j.core.test.appender.EncodingListAppender;
 import org.apache.logging.log4j.core.test.appender.ListAppender;
 import org.apache.logging.log4j.core.util.KeyValuePair;
 import org.apache.logging.log4j.core.util.NetUtils;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.test.junit.UsingAnyThreadContext;
 import org.apache.logging.log4j.util.LazyValue;
 import org.junit.jupiter.api.AfterAll;
@@ -39,14 +42,17 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.InflaterInputStream;
 
 import static net.javacrumbs.jsonunit.JsonAssert.assertJsonEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @UsingAnyThreadContext
 public class GelfLayoutTest {
@@ -270,6 +276,76 @@ public class GelfLayoutTest {
         testCompressedLayout(CompressionType.OFF, true, true, HOSTNAME, false, true);
     }
 
+    private void testLargeCompressedEncoding(final CompressionType compressionType) throws IOException {
+        final GelfLayout layout = GelfLayout.newBuilder()
+            .setConfiguration(ctx.getConfiguration())
+            .setHost(HOSTNAME)
+            .setCompressionType(compressionType)
+            .setCompressionThreshold(1024)
+            .build();
+        final StringBuilder message = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            message.append("line ").append(i).append(" \u00e9\u00e8\ud83d\ude00 ");
+        }
+        final LogEvent event = Log4jLogEvent.newBuilder()
+            .setLoggerName(getClass().getName())
+            .setLevel(Level.INFO)
+            .setMessage(new SimpleMessage(message.toString()))
+            .setTimeMillis(1458741206653L)
+            .build();
+        final String expected = layout.toSerializable(event);
+
+        // Use a tiny buffer to exercise draining while deflating.
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final ByteBufferDestination destination = new ByteBufferDestination() {
+            private final ByteBuffer buffer = ByteBuffer.allocate(64);
+
+            @Override
+            public ByteBuffer getByteBuffer() {
+                return buffer;
+            }
+
+            @Override
+            public ByteBuffer drain(final ByteBuffer buf) {
+                buf.flip();
+                output.write(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+                buf.clear();
+                return buf;
+            }
+
+            @Override
+            public void writeBytes(final ByteBuffer data) {
+                ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+            }
+
+            @Override
+            public void writeBytes(final byte[] data, final int offset, final int length) {
+                ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+            }
+        };
+        layout.encode(event, destination);
+        destination.drain(destination.getByteBuffer());
+
+        for (final byte[] compressed : new byte[][] {output.toByteArray(), layout.toByteArray(event)}) {
+            final ByteArrayInputStream bais = new ByteArrayInputStream(compressed);
+            final InputStream inflaterStream = compressionType == CompressionType.GZIP
+                ? new GZIPInputStream(bais)
+                : new InflaterInputStream(bais);
+            final String uncompressed = new String(IOUtils.toByteArray(inflaterStream), layout.getCharset());
+            assertEquals(expected, uncompressed);
+        }
+    }
+
+    @Test
+    public void testLargeGzipCompressedEncoding() throws Exception {
+        testLargeCompressedEncoding(CompressionType.GZIP);
+    }
+
+    @Test
+    public void testLargeZlibCompressedEncoding() throws Exception {
+        testLargeCompressedEncoding(CompressionType.ZLIB);
+    }
+
     @Test
     public void testFormatTimestamp() {
         assertEquals("0", GelfLayout.formatTimestamp(0L).toString());
@@ -303,4 +379,30 @@ public class GelfLayoutTest {
     public void testRequiresLocationPatternContainsLocation() {
         testRequiresLocation("%C %m %t", true);
     }
+
+    @Test
+    public void testStackTraceDeduplication() throws Exception {
+        final GelfLayout layout = GelfLayout.newBuilder()
+                .setConfiguration(ctx.getConfiguration())
+                .setHost(HOSTNAME)
+                .setStackTraceDeduplicationWindowMillis(60000)
+                .build();
+        final ObjectMapper mapper = new ObjectMapper();
+        final String[] fullMessages = new String[2];
+        for (int i = 0; i < fullMessages.length; i++) {
+            // same call site, hence same stack frames
+            final LogEvent event = Log4jLogEvent.newBuilder()
+                    .setLoggerName(getClass().getName())
+                    .setLevel(Level.ERROR)
+                    .setMessage(new SimpleMessage(LINE3))
+                    .setThrown(new IllegalStateException("failed"))
+                    .setTimeMillis(1_600_000_000_000L + i)
+                    .build();
+            fullMessages[i] = mapper.readTree(layout.toSerializable(event)).get("full_message").asText();
+        }
+        final String header = fullMessages[0].substring(0, fullMessages[0].indexOf('\n'));
+        assertTrue(header.matches("trace_id=[0-9a-f]{16}"), header);
+        assertTrue(fullMessages[0].contains("java.lang.IllegalStateException: failed"), fullMessages[0]);
+        assertEquals(header + " repeat=1", fullMessages[1]);
+    }
 }
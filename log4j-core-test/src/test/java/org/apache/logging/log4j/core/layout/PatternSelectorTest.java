@@ -17,11 +17,13 @@
 package org.apache.logging.log4j.core.layout;
 
 import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.pattern.PatternFormatter;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.junit.jupiter.api.Test;
 
@@ -59,7 +61,7 @@ public class PatternSelectorTest {
                 .setIncludeLocation(true)
                 .setMessage(new SimpleMessage("entry")).build();
         final String result1 = new FauxLogger().formatEvent(event1, layout);
-        final String expectSuffix1 = String.format("====== PatternSelectorTest.testMarkerPatternSelector:61 entry ======%n");
+        final String expectSuffix1 = String.format("====== PatternSelectorTest.testMarkerPatternSelector:63 entry ======%n");
         assertTrue(result1.endsWith(expectSuffix1), "Unexpected result: " + result1);
         final LogEvent event2 = Log4jLogEvent.newBuilder() //
                 .setLoggerName(this.getClass().getName()).setLoggerFqcn("org.apache.logging.log4j.core.Logger") //
@@ -83,7 +85,7 @@ public class PatternSelectorTest {
                 .setIncludeLocation(true)
                 .setMessage(new SimpleMessage("entry")).build();
         final String result1 = new FauxLogger().formatEvent(event1, layout);
-        final String expectSuffix1 = String.format("====== PatternSelectorTest.testLevelPatternSelector:85 entry ======%n");
+        final String expectSuffix1 = String.format("====== PatternSelectorTest.testLevelPatternSelector:87 entry ======%n");
         assertTrue(result1.endsWith(expectSuffix1), "Unexpected result: " + result1);
         final LogEvent event2 = Log4jLogEvent.newBuilder() //
                 .setLoggerName(this.getClass().getName()).setLoggerFqcn("org.apache.logging.log4j.core.Logger") //
@@ -93,4 +95,58 @@ public class PatternSelectorTest {
         final String expectSuffix2 = String.format("Hello, world 1!%n");
         assertTrue(result2.endsWith(expectSuffix2), "Unexpected result: " + result2);
     }
+
+    @Test
+    public void testLevelPatternSelectorDispatch() {
+        final Level custom = Level.forName("PATTERN_SELECTOR_CUSTOM", Level.INFO.intLevel());
+        final PatternMatch[] patterns = {
+                new PatternMatch("info", "INFO %m"),
+                new PatternMatch("pattern_selector_custom", "CUSTOM %m")
+        };
+        final PatternSelector selector = LevelPatternSelector.newBuilder()
+                .setProperties(patterns)
+                .setDefaultPattern("DEFAULT %m")
+                .setConfiguration(ctx.getConfiguration())
+                .build();
+        final PatternFormatter[] info = selector.getFormatters(eventAt(Level.INFO, null));
+        final PatternFormatter[] customFormatters = selector.getFormatters(eventAt(custom, null));
+        final PatternFormatter[] warn = selector.getFormatters(eventAt(Level.WARN, null));
+        assertEquals("INFO ", format(info));
+        assertEquals("CUSTOM ", format(customFormatters));
+        assertEquals("DEFAULT ", format(warn));
+    }
+
+    @Test
+    public void testMarkerPatternSelectorDispatch() {
+        final Marker parent = MarkerManager.getMarker("PATTERN_SELECTOR_PARENT");
+        final Marker child = MarkerManager.getMarker("PATTERN_SELECTOR_CHILD").setParents(parent);
+        final Marker other = MarkerManager.getMarker("PATTERN_SELECTOR_OTHER");
+        final PatternSelector selector = MarkerPatternSelector.newBuilder()
+                .setProperties(new PatternMatch[] {new PatternMatch(parent.getName(), "PARENT %m")})
+                .setDefaultPattern("DEFAULT %m")
+                .setConfiguration(ctx.getConfiguration())
+                .build();
+        assertEquals("PARENT ", format(selector.getFormatters(eventAt(Level.INFO, parent))));
+        assertEquals("PARENT ", format(selector.getFormatters(eventAt(Level.INFO, child))));
+        assertEquals("DEFAULT ", format(selector.getFormatters(eventAt(Level.INFO, other))));
+        assertEquals("DEFAULT ", format(selector.getFormatters(eventAt(Level.INFO, null))));
+    }
+
+    private LogEvent eventAt(final Level level, final Marker marker) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName(getClass().getName())
+                .setLevel(level)
+                .setMarker(marker)
+                .setMessage(new SimpleMessage(""))
+                .build();
+    }
+
+    private static String format(final PatternFormatter[] formatters) {
+        final StringBuilder sb = new StringBuilder();
+        final LogEvent event = Log4jLogEvent.newBuilder().setMessage(new SimpleMessage("")).build();
+        for (final PatternFormatter formatter : formatters) {
+            formatter.format(event, sb);
+        }
+        return sb.toString();
+    }
 }
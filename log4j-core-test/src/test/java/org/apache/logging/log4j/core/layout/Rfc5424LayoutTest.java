@@ -20,24 +20,29 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.net.Facility;
 import org.apache.logging.log4j.core.test.BasicConfigurationFactory;
 import org.apache.logging.log4j.core.test.appender.ListAppender;
 import org.apache.logging.log4j.core.util.KeyValuePair;
 import org.apache.logging.log4j.core.util.ProcessIdUtil;
+import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.apache.logging.log4j.message.StructuredDataCollectionMessage;
 import org.apache.logging.log4j.message.StructuredDataMessage;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.test.junit.UsingAnyThreadContext;
 import org.apache.logging.log4j.util.LazyValue;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
 import org.apache.logging.log4j.util.Strings;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -517,4 +522,35 @@ public class Rfc5424LayoutTest {
             appender.stop();
         }
     }
+
+    @Test
+    public void testEncodeMatchesToSerializable() {
+        final AbstractStringLayout layout = Rfc5424Layout.createLayout(Facility.LOCAL0, "Event", 3692, true, "RequestContext",
+            null, null, true, "#012", "ATM", null, null, null, null, null, true, null, null);
+        final StructuredDataMessage msg = new StructuredDataMessage("Transfer@18060", "Transfer\nComplete", "Audit");
+        msg.put("Memo", "a \"quoted\" ] \\ value\r\nnext");
+        final SortedArrayStringMap contextData = new SortedArrayStringMap();
+        contextData.putValue("loginId", "JohnDoe");
+
+        final LogEvent[] events = {
+            Log4jLogEvent.newBuilder().setLevel(Level.INFO).setMessage(msg).build(),
+            Log4jLogEvent.newBuilder().setLevel(Level.INFO).setMessage(new ParameterizedMessage("Hello\n{}", "World"))
+                    .setContextData(contextData).build()
+        };
+        final String[] expected = {
+            "[Transfer@18060 Memo=\"a \\\"quoted\\\" \\] \\\\ value#012next\"] Transfer#012Complete\n",
+            "[RequestContext@3692 loginId=\"JohnDoe\"] Hello#012World\n"
+        };
+        for (int i = 0; i < events.length; i++) {
+            final String text = layout.toSerializable(events[i]);
+            assertTrue(text.endsWith(expected[i]), "Expected to end with: " + expected[i] + " Actual " + text);
+
+            final SpyByteBufferDestination destination = new SpyByteBufferDestination(256, 256);
+            layout.encode(events[i], destination);
+            destination.drain(destination.getByteBuffer());
+            final String encoded = new String(destination.drained.array(), 0, destination.drained.position(),
+                    StandardCharsets.UTF_8);
+            assertEquals(text, encoded);
+        }
+    }
 }
@@ -20,12 +20,15 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.net.Facility;
 import org.apache.logging.log4j.core.test.BasicConfigurationFactory;
 import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.message.StructuredDataMessage;
 import org.apache.logging.log4j.test.junit.UsingAnyThreadContext;
 import org.apache.logging.log4j.util.LazyValue;
@@ -33,9 +36,12 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @UsingAnyThreadContext
@@ -115,4 +121,32 @@ public class SyslogLayoutTest {
         assertTrue(list.get(2).endsWith(line3), "Expected line 3 to end with: " + line3 + " Actual " + list.get(2));
         assertTrue(list.get(3).endsWith(line4), "Expected line 4 to end with: " + line4 + " Actual " + list.get(3));
     }
+
+    @Test
+    public void testDateOfEachMonth() {
+        final SyslogLayout layout = SyslogLayout.newBuilder().setFacility(Facility.LOCAL0).build();
+        final SimpleDateFormat format = new SimpleDateFormat("MMM dd HH:mm:ss", Locale.ENGLISH);
+        final Calendar calendar = Calendar.getInstance();
+        for (int month = Calendar.JANUARY; month <= Calendar.DECEMBER; month++) {
+            for (final int day : new int[] { 1, 5, 9, 10, 28 }) {
+                calendar.clear();
+                calendar.set(2021, month, day, day % 2 == 0 ? 23 : 7, 59, 8);
+                final long timeMillis = calendar.getTimeInMillis();
+                final LogEvent event = Log4jLogEvent.newBuilder()
+                        .setTimeMillis(timeMillis)
+                        .setLevel(Level.INFO)
+                        .setMessage(new SimpleMessage("message"))
+                        .build();
+                final String text = layout.toSerializable(event);
+
+                //  RFC 3164 says leading space, not leading zero on days 1-9
+                final StringBuilder expected = new StringBuilder(format.format(calendar.getTime()));
+                if (expected.charAt(4) == '0') {
+                    expected.setCharAt(4, ' ');
+                }
+                final int start = text.indexOf('>') + 1;
+                assertEquals(expected.toString(), text.substring(start, start + expected.length()), text);
+            }
+        }
+    }
 }
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledReplacementTest {
+
+    private static final String[] TEXTS = {
+            "",
+            "nothing to see here",
+            "password=hunter2 secret=42 pass=x",
+            "abcabcab",
+            "passwordpassword",
+            "a.b.c a+b (x) [y] {z} \\",
+            "été été 😀 password",
+    };
+
+    @ParameterizedTest
+    @CsvSource({
+            "password, ***",
+            "password|pass, ***",
+            "pass|password, ***",
+            "secret|password|pass, <masked>",
+            "ab|abc|b, X",
+            "a\\.b, X",
+            "\\(x\\)|\\[y\\]|\\{z\\}, X",
+            "été, summer",
+    })
+    public void testLiteralAlternativesMatchRegexSemantics(final String regex, final String substitution) {
+        final CompiledReplacement replacement = CompiledReplacement.compile(Pattern.compile(regex), substitution);
+        assertTrue(replacement.isLiteral(), regex);
+        assertReplacesLikeRegex(replacement, regex, substitution);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "password=\\S+, password=***",
+            "(pass)word, $1***",
+            "\\d+, #",
+            "^pass, X",
+            "b$, X",
+            "a|, X",
+    })
+    public void testRegexesMatchRegexSemantics(final String regex, final String substitution) {
+        final CompiledReplacement replacement = CompiledReplacement.compile(Pattern.compile(regex), substitution);
+        assertFalse(replacement.isLiteral(), regex);
+        assertReplacesLikeRegex(replacement, regex, substitution);
+    }
+
+    @Test
+    public void testLiteralSubstitutionRequired() {
+        assertFalse(CompiledReplacement.compile(Pattern.compile("password"), "$0").isLiteral());
+        assertFalse(CompiledReplacement.compile(Pattern.compile("password", Pattern.CASE_INSENSITIVE), "x")
+                .isLiteral());
+    }
+
+    @Test
+    public void testParseLiteralAlternatives() {
+        assertEquals(Arrays.asList("a.b", "c|d", "e"), CompiledReplacement.parseLiteralAlternatives("a\\.b|c\\|d|e"));
+        assertNull(CompiledReplacement.parseLiteralAlternatives("a|"));
+        assertNull(CompiledReplacement.parseLiteralAlternatives("|a"));
+        assertNull(CompiledReplacement.parseLiteralAlternatives("a\\d"));
+        assertNull(CompiledReplacement.parseLiteralAlternatives("a*"));
+        assertNull(CompiledReplacement.parseLiteralAlternatives("\\Qa\\E"));
+    }
+
+    private static void assertReplacesLikeRegex(final CompiledReplacement replacement, final String regex,
+            final String substitution) {
+        for (final String text : TEXTS) {
+            final String expected = Pattern.compile(regex).matcher(text).replaceAll(substitution);
+            assertEquals(expected, replacement.replace(text), text);
+            final StringBuilder buffer = new StringBuilder("prefix password ").append(text);
+            final int start = buffer.length() - text.length();
+            replacement.replace(buffer, start);
+            assertEquals("prefix password " + expected, buffer.toString(), text);
+        }
+    }
+}
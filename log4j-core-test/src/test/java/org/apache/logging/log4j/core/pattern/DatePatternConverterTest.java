@@ -149,6 +149,18 @@ public class DatePatternConverterTest {
         assertEquals(expected, sb.toString());
     }
 
+    @Test
+    public void testFormatCustomPatternWithSecondFractionDigits() {
+        final String[] pattern = {"yyyy/MM/dd HH-mm-ss.nnnnnn", "UTC"};
+        final DatePatternConverter converter = DatePatternConverter.newInstance(pattern);
+        final StringBuilder sb = new StringBuilder();
+        final MutableInstant instant = new MutableInstant();
+        instant.initFromEpochMilli(1577225134559L, 1000);
+        converter.format(instant, sb);
+        assertEquals("2019/12/24 22-05-34.559001", sb.toString());
+        assertEquals("yyyy/MM/dd HH-mm-ss.nnnnnn", converter.getPattern());
+    }
+
     @Test
     public void testFormatDateStringBuilderOriginalPattern() {
         assertDatePattern("yyyy/MM/dd HH-mm-ss.SSS", date(2001, 1, 1), "2001/02/01 14-15-16.123");
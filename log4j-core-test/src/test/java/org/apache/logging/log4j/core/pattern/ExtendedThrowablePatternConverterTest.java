@@ -167,4 +167,113 @@ public class ExtendedThrowablePatternConverterTest {
         assertEquals("|", options.getSeparator());
     }
 
+
+    private static Throwable newException(final String message) {
+        return new IllegalStateException(message, new NullPointerException("null pointer"));
+    }
+
+    private static String format(final ExtendedThrowablePatternConverter converter, final Throwable thrown) {
+        return format(converter, thrown, 0);
+    }
+
+    private static String format(final ExtendedThrowablePatternConverter converter, final Throwable thrown,
+            final long timeMillis) {
+        final LogEvent event = Log4jLogEvent.newBuilder() //
+                .setTimeMillis(timeMillis) //
+                .setLoggerName("testLogger") //
+                .setLoggerFqcn(ExtendedThrowablePatternConverterTest.class.getName()) //
+                .setLevel(Level.ERROR) //
+                .setMessage(new SimpleMessage("test exception")) //
+                .setThrown(thrown).build();
+        final StringBuilder sb = new StringBuilder();
+        converter.format(event, sb);
+        return sb.toString();
+    }
+
+    @Test
+    public void testRepeatedStackTraceRenderedFromCache() {
+        final ExtendedThrowablePatternConverter converter = new ExtendedThrowablePatternConverter(null, null, 16);
+        final String[] results = new String[3];
+        for (int i = 0; i < results.length; i++) {
+            // same call site, hence same stack frames
+            results[i] = format(converter, newException("failed"));
+        }
+        assertEquals(1, converter.getCacheMissCount());
+        assertEquals(2, converter.getCacheHitCount());
+        assertEquals(results[0], results[1]);
+        assertEquals(results[0], results[2]);
+        assertTrue(results[0].startsWith("java.lang.IllegalStateException: failed"), results[0]);
+        assertTrue(results[0].contains("Caused by: java.lang.NullPointerException: null pointer"), results[0]);
+    }
+
+    @Test
+    public void testDifferentMessageIsNotRenderedFromCache() {
+        final ExtendedThrowablePatternConverter converter = new ExtendedThrowablePatternConverter(null, null, 16);
+        final String first = format(converter, newException("first"));
+        final String second = format(converter, newException("second"));
+        assertEquals(2, converter.getCacheMissCount());
+        assertEquals(0, converter.getCacheHitCount());
+        assertTrue(first.startsWith("java.lang.IllegalStateException: first"), first);
+        assertTrue(second.startsWith("java.lang.IllegalStateException: second"), second);
+    }
+
+    @Test
+    public void testCacheDisabledByDefault() {
+        final ExtendedThrowablePatternConverter converter = ExtendedThrowablePatternConverter.newInstance(null, null);
+        for (int i = 0; i < 2; i++) {
+            format(converter, newException("failed"));
+        }
+        assertEquals(0, converter.getCacheMissCount());
+        assertEquals(0, converter.getCacheHitCount());
+    }
+
+    @Test
+    public void testDifferentToStringIsNotRenderedFromCache() {
+        final ExtendedThrowablePatternConverter converter = new ExtendedThrowablePatternConverter(null, null, 16);
+        for (final String description : new String[] { "first", "second" }) {
+            // same call site, class and message, only the string representation differs
+            format(converter, new IllegalStateException("failed") {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public String toString() {
+                    return description;
+                }
+            });
+        }
+        assertEquals(2, converter.getCacheMissCount());
+    }
+
+    @Test
+    public void testRepeatedStackTraceDeduplicatedWithinWindow() {
+        final ExtendedThrowablePatternConverter converter = ExtendedThrowablePatternConverter.newInstance(null,
+                new String[] { "full", "dedup(60000)" });
+        final long start = 1_600_000_000_000L;
+        final long[] times = { start, start + 1000, start + 2000, start + 60000 };
+        final String[] results = new String[times.length];
+        for (int i = 0; i < results.length; i++) {
+            // same call site, hence same stack frames
+            results[i] = format(converter, newException("failed"), times[i]);
+        }
+
+        final String header = results[0].substring(0, results[0].indexOf(Strings.LINE_SEPARATOR));
+        assertTrue(header.matches("trace_id=[0-9a-f]{16}"), header);
+        assertTrue(results[0].contains("java.lang.IllegalStateException: failed"), results[0]);
+        assertEquals(header + " repeat=1" + Strings.LINE_SEPARATOR, results[1]);
+        assertEquals(header + " repeat=2" + Strings.LINE_SEPARATOR, results[2]);
+        // the window expired, the trace is written in full again
+        assertEquals(results[0], results[3]);
+    }
+
+    @Test
+    public void testDifferentStackTracesAreNotDeduplicated() {
+        final ExtendedThrowablePatternConverter converter = ExtendedThrowablePatternConverter.newInstance(null,
+                new String[] { "full", "dedup(60000)" });
+        final String first = format(converter, newException("first"), 1000);
+        final String second = format(converter, newException("second"), 2000);
+        assertTrue(first.contains("java.lang.IllegalStateException: first"), first);
+        assertTrue(second.contains("java.lang.IllegalStateException: second"), second);
+        assertNotEquals(first.substring(0, first.indexOf(Strings.LINE_SEPARATOR)),
+                second.substring(0, second.indexOf(Strings.LINE_SEPARATOR)));
+    }
 }
@@ -98,6 +98,18 @@ public class HighlightConverterTest {
                           toFormattedCharSeq(converter, Level.forName("CUSTOM2", 512)).toString().getBytes());
     }
 
+    @Test
+    public void testCustomLevelSharingIntLevelOfStandardLevel() {
+        final String[] options = { "%level", PatternParser.NO_CONSOLE_NO_ANSI + "=false, "
+                + PatternParser.DISABLE_ANSI + "=false, " + "INFO=blue" };
+        final HighlightConverter converter = HighlightConverter.newInstance(null, options);
+        assertNotNull(converter);
+        final Level notice = Level.forName("NOTICE", Level.INFO.intLevel());
+        assertEquals(AnsiEscape.createSequence("blue"), converter.getLevelStyle(Level.INFO));
+        assertNull(converter.getLevelStyle(notice));
+        assertEquals("NOTICE", toFormattedCharSeq(converter, notice).toString());
+    }
+
     @Test
     public void testLevelNamesNone() {
         final String[] options = { "%-5level: %msg",
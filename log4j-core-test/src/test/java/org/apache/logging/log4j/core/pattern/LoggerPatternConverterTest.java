@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoggerPatternConverterTest {
+
+    private static String format(final LogEventPatternConverter converter, final String loggerName) {
+        final LogEvent event = Log4jLogEvent.newBuilder().setLoggerName(loggerName).build();
+        final StringBuilder sb = new StringBuilder("prefix ");
+        converter.format(event, sb);
+        return sb.toString();
+    }
+
+    @Test
+    public void testRepeatedAbbreviationUsesSameResult() {
+        final LoggerPatternConverter converter = LoggerPatternConverter.newInstance(null, new String[] {"1."});
+        final String name = "org.apache.logging.log4j.core.pattern.LoggerPatternConverter";
+        for (int i = 0; i < 3; i++) {
+            assertEquals("prefix o.a.l.l.c.p.LoggerPatternConverter", format(converter, name));
+        }
+        // equal content, different identity
+        assertEquals("prefix o.a.l.l.c.p.LoggerPatternConverter", format(converter, new String(name)));
+    }
+
+    @Test
+    public void testMoreNamesThanCacheCapacity() {
+        final LoggerPatternConverter converter = LoggerPatternConverter.newInstance(null, new String[] {"-2"});
+        final String[] names = new String[10_000];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "com.example.service" + i + ".Component" + i;
+        }
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < names.length; i++) {
+                assertEquals("prefix service" + i + ".Component" + i, format(converter, names[i]));
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testNewInstanceWithoutConfiguration() {
+        final LoggerPatternConverter converter = LoggerPatternConverter.newInstance(new String[] {"1."});
+        assertEquals("prefix o.a.l.l.c.p.LoggerPatternConverter",
+                format(converter, "org.apache.logging.log4j.core.pattern.LoggerPatternConverter"));
+    }
+
+    @Test
+    public void testNoOptionsReturnsFullName() {
+        final LoggerPatternConverter converter = LoggerPatternConverter.newInstance(null, null);
+        assertEquals("prefix a.b.C", format(converter, "a.b.C"));
+    }
+}
@@ -17,6 +17,8 @@
 
 package org.apache.logging.log4j.core.pattern;
 
+import java.nio.charset.StandardCharsets;
+
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
@@ -68,4 +70,64 @@ public class MaxLengthConverterTest {
         MaxLengthConverter.newInstance(null, new String[]{"%m", "21"}).format(event, sb);
         assertEquals("012345678901234567890...", sb.toString());
     }
+
+    @Test
+    public void testUnderMaxBytes() {
+        assertEquals("0123456789", formatBytes("0123456789", 10));
+        assertEquals("\u00e9\u00e9\u00e9\u00e9\u00e9", formatBytes("\u00e9\u00e9\u00e9\u00e9\u00e9", 10));
+    }
+
+    @Test
+    public void testOverMaxBytes() {
+        assertEquals("0123456789", formatBytes("01234567890123456789", 10));
+        // two bytes per character, the third one does not fit
+        assertEquals("\u00e9\u00e9", formatBytes("\u00e9\u00e9\u00e9\u00e9\u00e9", 5));
+        // three bytes per character
+        assertEquals("\u20ac", formatBytes("\u20ac\u20ac", 5));
+    }
+
+    @Test
+    public void testOverMaxBytesDoesNotSplitSurrogatePair() {
+        final String emoji = "\ud83d\ude00";
+        assertEquals("a", formatBytes("a" + emoji, 4));
+        assertEquals("a" + emoji, formatBytes("a" + emoji + emoji, 8));
+    }
+
+    @Test
+    public void testOverMaxBytes21WithEllipsis() {
+        final String result = formatBytes("012345678901234567890123456789", 21);
+        assertEquals("012345678901234567...", result);
+        final String multiByte = formatBytes("0123456789\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9", 21);
+        assertEquals("0123456789\u00e9\u00e9\u00e9\u00e9...", multiByte);
+        assertTrue(multiByte.getBytes(StandardCharsets.UTF_8).length <= 21);
+    }
+
+    @Test
+    public void testMaxBytesStopsBeforeLaterConverters() {
+        final LogEvent event = Log4jLogEvent.newBuilder()
+            .setLoggerName("MyLogger")
+            .setLevel(Level.DEBUG)
+            .setMessage(new SimpleMessage("0123456789"))
+            .build();
+        final StringBuilder sb = new StringBuilder("prefix ");
+        MaxLengthConverter.newInstance(null, new String[]{"%m %c %p", "12", "bytes"}).format(event, sb);
+        assertEquals("prefix 0123456789 M", sb.toString());
+    }
+
+    @Test
+    public void testInvalidUnit() {
+        assertNull(MaxLengthConverter.newInstance(null, new String[]{"%m", "10", "lines"}));
+    }
+
+    private static String formatBytes(final String text, final int maxBytes) {
+        final LogEvent event = Log4jLogEvent.newBuilder()
+            .setLoggerName("MyLogger")
+            .setLevel(Level.DEBUG)
+            .setMessage(new SimpleMessage(text))
+            .build();
+        final StringBuilder sb = new StringBuilder();
+        MaxLengthConverter.newInstance(null, new String[]{"%m", Integer.toString(maxBytes), "bytes"})
+            .format(event, sb);
+        return sb.toString();
+    }
 }
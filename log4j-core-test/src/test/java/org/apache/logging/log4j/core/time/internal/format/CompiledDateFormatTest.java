@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.time.internal.format;
+
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.apache.logging.log4j.core.time.MutableInstant;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link CompiledDateFormat}.
+ */
+public class CompiledDateFormatTest {
+
+    private static final String[] PATTERNS = {
+            "yyyy-MM-dd HH:mm:ss,SSS",
+            "yyyy-MM-dd'T'HH:mm:ss.SSSXXX",
+            "dd MMM yyyy HH:mm:ss,SSS Z",
+            "EEE, d MMM yy hh:mm:ss a zzz",
+            "EEEE MMMM G y D F u",
+            "k K h H:m:s.S ZZ X XX",
+            "ss 'o''clock' yyyy zzzz",
+            "HH:mm:ss.SSSSSS",
+            "''yyyyy.MMMM.dd GGG hh:mm aaa",
+    };
+
+    private static final String[] ZONES = {"UTC", "America/New_York", "Asia/Kolkata", "Australia/Lord_Howe",
+            "Europe/London", "GMT-03:30"};
+
+    private static final Locale[] LOCALES = {Locale.US, Locale.FRANCE, Locale.JAPAN};
+
+    @Test
+    public void testMatchesFastDateFormat() {
+        for (final String pattern : PATTERNS) {
+            for (final String zone : ZONES) {
+                final TimeZone timeZone = TimeZone.getTimeZone(zone);
+                for (final Locale locale : LOCALES) {
+                    final CompiledDateFormat compiled = CompiledDateFormat.createIfSupported(pattern, timeZone, locale);
+                    assertNotNull(compiled, pattern);
+                    final FastDateFormat expected = FastDateFormat.getInstance(pattern, timeZone, locale);
+                    // steps of a prime number of seconds cross minutes, days and the 2020 DST transitions
+                    for (long millis = 1_577_836_800_123L; millis < 1_609_459_200_000L; millis += 7_919_017L) {
+                        final StringBuilder actual = new StringBuilder();
+                        compiled.format(Math.floorDiv(millis, 1000), Math.floorMod(millis, 1000) * 1_000_000,
+                                actual);
+                        assertEquals(expected.format(millis), actual.toString(),
+                                pattern + " " + zone + " " + locale + " " + millis);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConsecutiveTimestampsWithinOneMinute() {
+        final TimeZone timeZone = TimeZone.getTimeZone("Europe/Berlin");
+        final String pattern = "yyyy-MM-dd HH:mm:ss.SSS";
+        final CompiledDateFormat compiled = CompiledDateFormat.createIfSupported(pattern, timeZone, Locale.US);
+        final FastDateFormat expected = FastDateFormat.getInstance(pattern, timeZone, Locale.US);
+        for (long millis = 1_603_587_540_000L; millis < 1_603_587_660_000L; millis += 997) {
+            final StringBuilder actual = new StringBuilder();
+            compiled.format(millis / 1000, (int) (millis % 1000) * 1_000_000, actual);
+            assertEquals(expected.format(millis), actual.toString());
+        }
+    }
+
+    @Test
+    public void testSecondFractionDigits() {
+        final CompiledDateFormat compiled = CompiledDateFormat.createIfSupported("HH:mm:ss.nnnnnnnnn|nnn|n|SSS",
+                TimeZone.getTimeZone("UTC"), Locale.US);
+        final MutableInstant instant = new MutableInstant();
+        instant.initFromEpochSecond(1_600_000_000L, 12_345_678);
+        assertEquals("12:26:40.012345678|012|0|012", compiled.formatInstant(instant));
+    }
+
+    @Test
+    public void testIsEquivalentUsesFinestField() {
+        final TimeZone utc = TimeZone.getTimeZone("UTC");
+        final CompiledDateFormat millis = CompiledDateFormat.createIfSupported("HH:mm:ss.SSS", utc, Locale.US);
+        assertTrue(millis.isEquivalent(1L, 1_000_000, 1L, 1_999_999));
+        assertFalse(millis.isEquivalent(1L, 1_000_000, 1L, 2_000_000));
+        final CompiledDateFormat micros = CompiledDateFormat.createIfSupported("HH:mm:ss.nnnnnn", utc, Locale.US);
+        assertFalse(micros.isEquivalent(1L, 1_000_000, 1L, 1_001_000));
+        final CompiledDateFormat seconds = CompiledDateFormat.createIfSupported("yyyy HH:mm:ss", utc, Locale.US);
+        assertTrue(seconds.isEquivalent(1L, 0, 1L, 999_999_999));
+        assertFalse(seconds.isEquivalent(1L, 0, 2L, 0));
+    }
+
+    @Test
+    public void testUnsupportedPatterns() {
+        final TimeZone utc = TimeZone.getTimeZone("UTC");
+        assertNull(CompiledDateFormat.createIfSupported("YYYY-ww", utc, Locale.US));
+        assertNull(CompiledDateFormat.createIfSupported("yyyy W", utc, Locale.US));
+        assertNull(CompiledDateFormat.createIfSupported("yyyy q", utc, Locale.US));
+        assertNull(CompiledDateFormat.createIfSupported("HH:mm:ss.nnnnnnnnnn", utc, Locale.US));
+        assertNotNull(CompiledDateFormat.createIfSupported("'Week' yyyy", utc, Locale.US));
+    }
+}
@@ -306,4 +306,16 @@ public interface Filter extends LifeCycle {
      */
     Result filter(LogEvent event);
 
+    /**
+     * Returns whether this filter could return {@link Result#ACCEPT} for an event at the given level. Loggers use this
+     * to reject events below their level without calling a context-wide filter that never accepts them, so an
+     * implementation must only return {@code false} if no event at the given level is ever accepted.
+     *
+     * @param level the event logging level.
+     * @return {@code false} if no event at the given level is accepted, {@code true} otherwise or if unknown.
+     */
+    default boolean mayAccept(final Level level) {
+        return true;
+    }
+
 }
@@ -33,6 +33,7 @@ import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MessageFactory;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.spi.AbstractLogger;
+import org.apache.logging.log4j.spi.StandardLevel;
 import org.apache.logging.log4j.util.Strings;
 import org.apache.logging.log4j.util.Supplier;
 
@@ -51,6 +52,13 @@ import org.apache.logging.log4j.util.Supplier;
 public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
 
     private static final long serialVersionUID = 1L;
+    private static final Level[] STANDARD_LEVELS = new Level[StandardLevel.values().length];
+
+    static {
+        for (final StandardLevel standardLevel : StandardLevel.values()) {
+            STANDARD_LEVELS[standardLevel.ordinal()] = Level.getLevel(standardLevel.name());
+        }
+    }
 
     /**
      * Config should be consistent across threads.
@@ -377,6 +385,16 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         this.privateConfig = new PrivateConfig(newConfig, this);
     }
 
+    private static boolean[] disabledLevels(final Filter filter, final int intLevel) {
+        final boolean[] disabled = new boolean[STANDARD_LEVELS.length];
+        if (filter != null) {
+            for (final Level level : STANDARD_LEVELS) {
+                disabled[level.getStandardLevel().ordinal()] = intLevel < level.intLevel() && !filter.mayAccept(level);
+            }
+        }
+        return disabled;
+    }
+
     /**
      * The binding between a Logger and its configuration.
      */
@@ -390,6 +408,13 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         private final int intLevel;
         private final Logger logger;
         private final boolean requiresLocation;
+        /** The context-wide filter that {@link #disabledLevels} was computed for. */
+        private final Filter configFilter;
+        /**
+         * Whether events at each standard level, indexed by {@link StandardLevel#ordinal()}, are below the logger level
+         * and can never be accepted by the context-wide filter, so they are rejected without calling the filter.
+         */
+        private final boolean[] disabledLevels;
 
         public PrivateConfig(final Configuration config, final Logger logger) {
             this.config = config;
@@ -398,6 +423,8 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             this.intLevel = this.loggerConfigLevel.intLevel();
             this.logger = logger;
             this.requiresLocation = this.loggerConfig.requiresLocation();
+            this.configFilter = this.config.getFilter();
+            this.disabledLevels = disabledLevels(this.configFilter, this.intLevel);
         }
 
         public PrivateConfig(final PrivateConfig pc, final Level level) {
@@ -407,6 +434,8 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             this.intLevel = this.loggerConfigLevel.intLevel();
             this.logger = pc.logger;
             this.requiresLocation = this.loggerConfig.requiresLocation();
+            this.configFilter = this.config.getFilter();
+            this.disabledLevels = disabledLevels(this.configFilter, this.intLevel);
         }
 
         public PrivateConfig(final PrivateConfig pc, final LoggerConfig lc) {
@@ -416,6 +445,8 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             this.intLevel = this.loggerConfigLevel.intLevel();
             this.logger = pc.logger;
             this.requiresLocation = this.loggerConfig.requiresLocation();
+            this.configFilter = this.config.getFilter();
+            this.disabledLevels = disabledLevels(this.configFilter, this.intLevel);
         }
 
         // LOG4J2-151: changed visibility to public
@@ -423,9 +454,20 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             loggerConfig.log(event);
         }
 
+        private boolean isDisabled(final Filter filter, final Level level) {
+            if (filter != configFilter || level == null) {
+                return false;
+            }
+            final int ordinal = level.getStandardLevel().ordinal();
+            return disabledLevels[ordinal] && STANDARD_LEVELS[ordinal] == level;
+        }
+
         boolean filter(final Level level, final Marker marker, final String msg) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
@@ -437,6 +479,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         boolean filter(final Level level, final Marker marker, final String msg, final Throwable t) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, (Object) msg, t);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
@@ -448,6 +493,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         boolean filter(final Level level, final Marker marker, final String msg, final Object... p1) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p1);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
@@ -459,6 +507,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
@@ -471,6 +522,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p1) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
@@ -483,6 +537,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p1, final Object p2) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
@@ -495,6 +552,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p1, final Object p2, final Object p3) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
@@ -508,6 +568,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p4) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
@@ -521,6 +584,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p4, final Object p5) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
@@ -534,6 +600,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p4, final Object p5, final Object p6) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
@@ -548,6 +617,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p7) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
@@ -562,6 +634,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p7, final Object p8) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
@@ -576,6 +651,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p7, final Object p8, final Object p9) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8,
                         p9);
                 if (r != Filter.Result.NEUTRAL) {
@@ -588,6 +666,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         boolean filter(final Level level, final Marker marker, final CharSequence msg, final Throwable t) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg, t);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
@@ -599,6 +680,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         boolean filter(final Level level, final Marker marker, final Object msg, final Throwable t) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg, t);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
@@ -610,6 +694,9 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         boolean filter(final Level level, final Marker marker, final Message msg, final Throwable t) {
             final Filter filter = config.getFilter();
             if (filter != null) {
+                if (isDisabled(filter, level)) {
+                    return false;
+                }
                 final Filter.Result r = filter.filter(logger, level, marker, msg, t);
                 if (r != Filter.Result.NEUTRAL) {
                     return r == Filter.Result.ACCEPT;
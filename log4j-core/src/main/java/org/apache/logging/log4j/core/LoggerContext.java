@@ -22,6 +22,7 @@ import org.apache.logging.log4j.core.config.ConfigurationFactory;
 import org.apache.logging.log4j.core.config.ConfigurationListener;
 import org.apache.logging.log4j.core.config.ConfigurationSource;
 import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
 import org.apache.logging.log4j.core.config.NullConfiguration;
 import org.apache.logging.log4j.core.config.Reconfigurable;
 import org.apache.logging.log4j.core.jmx.Server;
@@ -52,6 +53,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -87,6 +89,11 @@ public class LoggerContext extends AbstractLifeCycle
     private final ConcurrentMap<String, Object> externalMap = new ConcurrentHashMap<>();
     private String contextName;
     private volatile URI configLocation;
+
+    /**
+     * Incremented each time the Loggers are updated, so that state derived from the configuration can be revalidated.
+     */
+    private final AtomicLong configurationEpoch = new AtomicLong();
     private Cancellable shutdownCallback;
 
     private final Lock configLock = new ReentrantLock();
@@ -750,6 +757,17 @@ public class LoggerContext extends AbstractLifeCycle
         }
     }
 
+    /**
+     * Returns a counter that is incremented each time the Loggers are updated against a Configuration. Values derived
+     * from the configuration, such as cached filter results, are valid only as long as the counter does not change.
+     *
+     * @return the configuration epoch.
+     * @since 3.0.0
+     */
+    public long getConfigurationEpoch() {
+        return configurationEpoch.get();
+    }
+
     /**
      * Causes all Loggers to be updated against the current Configuration.
      */
@@ -764,6 +782,11 @@ public class LoggerContext extends AbstractLifeCycle
      */
     public void updateLoggers(final Configuration config) {
         final Configuration old = this.configuration;
+        final long epoch = configurationEpoch.incrementAndGet();
+        for (final LoggerConfig loggerConfig : config.getLoggers().values()) {
+            loggerConfig.setConfigurationEpoch(epoch);
+        }
+        config.getRootLogger().setConfigurationEpoch(epoch);
         for (final Logger logger : loggerRegistry.getLoggers()) {
             logger.updateConfiguration(config);
         }
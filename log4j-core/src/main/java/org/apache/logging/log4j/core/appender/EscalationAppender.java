@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.AppenderControl;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.util.CyclicBuffer;
+import org.apache.logging.log4j.plugins.Configurable;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.plugins.PluginElement;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.plugins.validation.constraints.Required;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+
+/**
+ * Holds back detailed events until something goes wrong.
+ * <p>
+ * Events less specific than {@code level} (by default DEBUG and TRACE) are kept in a {@link CyclicBuffer} of the
+ * last {@code bufferSize} events of their key, which is the value of the context data key {@code key} or, for events
+ * without it, the thread. An event at or above {@code triggerLevel} first passes the buffered events of its key to
+ * the referenced appenders and then itself; for {@code escalationSeconds} afterwards, detailed events of that key are
+ * passed on directly. Other events are passed on unchanged. Buffered events that are never triggered are discarded.
+ * </p>
+ */
+@Configurable(elementType = Appender.ELEMENT_TYPE, printObject = true)
+@Plugin("Escalation")
+public final class EscalationAppender extends AbstractAppender {
+
+    private static final int DEFAULT_BUFFER_SIZE = 128;
+
+    private static final int DEFAULT_MAX_KEYS = 1000;
+
+    /**
+     * The buffered events of one key and the end of its escalation window.
+     */
+    private static final class KeyBuffer {
+
+        private final CyclicBuffer<LogEvent> events;
+
+        private volatile long lastUsedNanos;
+
+        private volatile long escalatedUntilNanos;
+
+        private volatile boolean escalated;
+
+        KeyBuffer(final int size) {
+            events = new CyclicBuffer<>(LogEvent.class, size);
+        }
+
+        boolean isEscalated(final long now) {
+            return escalated && now - escalatedUntilNanos < 0;
+        }
+    }
+
+    private final Configuration config;
+    private final AppenderRef[] appenderRefs;
+    private final Level level;
+    private final Level triggerLevel;
+    private final long escalationNanos;
+    private final String key;
+    private final int maxKeys;
+    private final ConcurrentMap<Object, KeyBuffer> buffers = new ConcurrentHashMap<>();
+    private final Function<Object, KeyBuffer> bufferFactory;
+    private volatile AppenderControl[] appenders = new AppenderControl[0];
+
+    private EscalationAppender(final String name, final Filter filter, final boolean ignoreExceptions,
+            final Property[] properties, final Configuration config, final AppenderRef[] appenderRefs,
+            final Level level, final Level triggerLevel, final long escalationSeconds, final String key,
+            final int bufferSize, final int maxKeys) {
+        super(name, filter, null, ignoreExceptions, properties);
+        this.config = config;
+        this.appenderRefs = appenderRefs;
+        this.level = level;
+        this.triggerLevel = triggerLevel;
+        this.escalationNanos = TimeUnit.SECONDS.toNanos(escalationSeconds);
+        this.key = key;
+        this.maxKeys = maxKeys;
+        this.bufferFactory = ignored -> new KeyBuffer(bufferSize);
+    }
+
+    @Override
+    public void start() {
+        final AppenderControl[] controls = new AppenderControl[appenderRefs.length];
+        int count = 0;
+        for (final AppenderRef ref : appenderRefs) {
+            final Appender appender = config.getAppender(ref.getRef());
+            if (appender != null) {
+                controls[count++] = new AppenderControl(appender, ref.getLevel(), ref.getFilter());
+            } else {
+                LOGGER.error("Appender " + ref + " cannot be located. Reference ignored");
+            }
+        }
+        appenders = Arrays.copyOf(controls, count);
+        super.start();
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        setStopping();
+        super.stop(timeout, timeUnit, false);
+        buffers.clear();
+        setStopped();
+        return true;
+    }
+
+    @Override
+    public void append(final LogEvent event) {
+        final Level eventLevel = event.getLevel();
+        if (eventLevel.isMoreSpecificThan(triggerLevel)) {
+            trigger(event);
+        } else if (eventLevel.isMoreSpecificThan(level)) {
+            callAppenders(event);
+        } else {
+            final long now = System.nanoTime();
+            final KeyBuffer buffer = getBuffer(keyOf(event), now);
+            if (buffer.isEscalated(now)) {
+                callAppenders(event);
+            } else {
+                buffer.events.add(event.toImmutable());
+            }
+        }
+    }
+
+    private void trigger(final LogEvent event) {
+        final Object bufferKey = keyOf(event);
+        final long now = System.nanoTime();
+        final KeyBuffer buffer = escalationNanos > 0 ? getBuffer(bufferKey, now) : buffers.get(bufferKey);
+        if (buffer != null) {
+            if (escalationNanos > 0) {
+                buffer.escalatedUntilNanos = now + escalationNanos;
+                buffer.escalated = true;
+            }
+            if (!buffer.events.isEmpty()) {
+                for (final LogEvent buffered : buffer.events.removeAll()) {
+                    callAppenders(buffered);
+                }
+            }
+        }
+        callAppenders(event);
+    }
+
+    private void callAppenders(final LogEvent event) {
+        for (final AppenderControl control : appenders) {
+            control.callAppender(event);
+        }
+    }
+
+    private Object keyOf(final LogEvent event) {
+        if (key != null) {
+            final ReadOnlyStringMap contextData = event.getContextData();
+            final Object value = contextData == null ? null : contextData.getValue(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return event.getThreadId();
+    }
+
+    private KeyBuffer getBuffer(final Object bufferKey, final long now) {
+        KeyBuffer buffer = buffers.get(bufferKey);
+        if (buffer == null) {
+            if (buffers.size() >= maxKeys) {
+                evictBuffers();
+            }
+            buffer = buffers.computeIfAbsent(bufferKey, bufferFactory);
+        }
+        buffer.lastUsedNanos = now;
+        return buffer;
+    }
+
+    /**
+     * Discards the least recently used quarter of the buffers, so that the table is scanned once for every
+     * {@code maxKeys / 4} new keys.
+     */
+    private void evictBuffers() {
+        final long[] lastUsed = buffers.values().stream().mapToLong(buffer -> buffer.lastUsedNanos - Long.MIN_VALUE)
+                .sorted().toArray();
+        if (lastUsed.length == 0) {
+            return;
+        }
+        final long cutoff = lastUsed[Math.max(lastUsed.length / 4 - 1, 0)] + Long.MIN_VALUE;
+        buffers.values().removeIf(buffer -> buffer.lastUsedNanos - cutoff <= 0);
+    }
+
+    /**
+     * Returns the number of keys that currently have a buffer.
+     *
+     * @return the number of buffers.
+     */
+    public int getBufferCount() {
+        return buffers.size();
+    }
+
+    @PluginFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractAppender.Builder<Builder>
+            implements org.apache.logging.log4j.plugins.util.Builder<EscalationAppender> {
+
+        @PluginElement("AppenderRef")
+        @Required(message = "No appender references provided to EscalationAppender")
+        private AppenderRef[] appenderRefs;
+
+        @PluginBuilderAttribute
+        private Level level = Level.INFO;
+
+        @PluginBuilderAttribute
+        private Level triggerLevel = Level.ERROR;
+
+        @PluginBuilderAttribute
+        private long escalationSeconds;
+
+        @PluginBuilderAttribute
+        private String key;
+
+        @PluginBuilderAttribute
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+        @PluginBuilderAttribute
+        private int maxKeys = DEFAULT_MAX_KEYS;
+
+        public Builder setAppenderRefs(final AppenderRef... appenderRefs) {
+            this.appenderRefs = appenderRefs;
+            return this;
+        }
+
+        /**
+         * Sets the least specific level that is passed on directly; less specific events are buffered.
+         * @param level the level, INFO by default.
+         * @return this
+         */
+        public Builder setLevel(final Level level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets the level at and above which the buffered events of the key are passed on.
+         * @param triggerLevel the level, ERROR by default.
+         * @return this
+         */
+        public Builder setTriggerLevel(final Level triggerLevel) {
+            this.triggerLevel = triggerLevel;
+            return this;
+        }
+
+        /**
+         * Sets for how long after a trigger the detailed events of its key are passed on directly.
+         * @param escalationSeconds the number of seconds, 0 by default.
+         * @return this
+         */
+        public Builder setEscalationSeconds(final long escalationSeconds) {
+            this.escalationSeconds = escalationSeconds;
+            return this;
+        }
+
+        /**
+         * Sets the context data key whose value groups events, for example a request id.
+         * @param key the context data key; events without it are grouped by thread.
+         * @return this
+         */
+        public Builder setKey(final String key) {
+            this.key = key;
+            return this;
+        }
+
+        /**
+         * Sets the number of detailed events kept per key.
+         * @param bufferSize the number of events, 128 by default.
+         * @return this
+         */
+        public Builder setBufferSize(final int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of keys with a buffer.
+         * @param maxKeys the number of keys, 1000 by default.
+         * @return this
+         */
+        public Builder setMaxKeys(final int maxKeys) {
+            this.maxKeys = maxKeys;
+            return this;
+        }
+
+        @Override
+        public EscalationAppender build() {
+            if (bufferSize < 0) {
+                LOGGER.error("Invalid bufferSize {} for EscalationAppender {}", bufferSize, getName());
+                return null;
+            }
+            if (triggerLevel.isLessSpecificThan(level)) {
+                LOGGER.error("The triggerLevel {} of EscalationAppender {} must be more specific than its level {}",
+                        triggerLevel, getName(), level);
+                return null;
+            }
+            return new EscalationAppender(getName(), getFilter(), isIgnoreExceptions(), getPropertyArray(),
+                    getConfiguration(), appenderRefs, level, triggerLevel, Math.max(escalationSeconds, 0), key,
+                    bufferSize, maxKeys > 0 ? maxKeys : DEFAULT_MAX_KEYS);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.rolling.DefaultRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.DirectFileRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.DirectWriteRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.RollingFileManager;
+import org.apache.logging.log4j.core.appender.rolling.RolloverListener;
+import org.apache.logging.log4j.core.appender.rolling.RolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.TriggeringPolicy;
+import org.apache.logging.log4j.core.layout.ColumnarChunk;
+import org.apache.logging.log4j.core.layout.ColumnarLayout;
+import org.apache.logging.log4j.plugins.Configurable;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.plugins.PluginElement;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.plugins.validation.constraints.Required;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * An appender that accumulates events in {@link ColumnarChunk}s and writes each full chunk as one columnar block to
+ * a file that can roll over at intervals.
+ * <p>
+ * Pending events are written when the chunk is full, before the file rolls over and when the appender stops. The
+ * appender synchronizes on its {@link RollingFileManager}, the same lock the manager holds while rolling over.
+ * </p>
+ */
+@Configurable(elementType = Appender.ELEMENT_TYPE, printObject = true)
+@Plugin(RollingColumnarFileAppender.PLUGIN_NAME)
+public final class RollingColumnarFileAppender extends AbstractOutputStreamAppender<RollingFileManager>
+        implements RolloverListener {
+
+    public static final String PLUGIN_NAME = "RollingColumnarFile";
+
+    /**
+     * Builds RollingColumnarFileAppender instances.
+     *
+     * @param <B>
+     *            The type to build
+     */
+    public static class Builder<B extends Builder<B>> extends AbstractOutputStreamAppender.Builder<B>
+            implements org.apache.logging.log4j.plugins.util.Builder<RollingColumnarFileAppender> {
+
+        @PluginBuilderAttribute
+        private String fileName;
+
+        @PluginBuilderAttribute
+        @Required
+        private String filePattern;
+
+        @PluginBuilderAttribute
+        private boolean append = true;
+
+        @PluginElement("Policy")
+        @Required
+        private TriggeringPolicy policy;
+
+        @PluginElement("Strategy")
+        private RolloverStrategy strategy;
+
+        @PluginBuilderAttribute
+        private boolean createOnDemand;
+
+        @PluginBuilderAttribute
+        private String filePermissions;
+
+        @PluginBuilderAttribute
+        private String fileOwner;
+
+        @PluginBuilderAttribute
+        private String fileGroup;
+
+        @Override
+        public RollingColumnarFileAppender build() {
+            final boolean isBufferedIo = isBufferedIo();
+            final int bufferSize = getBufferSize();
+            if (getName() == null) {
+                LOGGER.error("RollingColumnarFileAppender '{}': No name provided.", getName());
+                return null;
+            }
+
+            if (filePattern == null) {
+                LOGGER.error("RollingColumnarFileAppender '{}': No file name pattern provided.", getName());
+                return null;
+            }
+
+            if (policy == null) {
+                LOGGER.error("RollingColumnarFileAppender '{}': No TriggeringPolicy provided.", getName());
+                return null;
+            }
+
+            final Layout<? extends Serializable> configuredLayout = getLayout();
+            final ColumnarLayout layout;
+            if (configuredLayout == null) {
+                layout = ColumnarLayout.newBuilder().setConfiguration(getConfiguration()).build();
+            } else if (configuredLayout instanceof ColumnarLayout) {
+                layout = (ColumnarLayout) configuredLayout;
+            } else {
+                LOGGER.error("RollingColumnarFileAppender '{}': Layout must be a ColumnarLayout, not {}.", getName(),
+                        configuredLayout.getClass().getName());
+                return null;
+            }
+
+            if (strategy == null) {
+                if (fileName != null) {
+                    strategy = DefaultRolloverStrategy.newBuilder()
+                                        .setCompressionLevelStr(String.valueOf(Deflater.DEFAULT_COMPRESSION))
+                                        .setConfig(getConfiguration())
+                                        .build();
+                } else {
+                    strategy = DirectWriteRolloverStrategy.newBuilder()
+                                        .setCompressionLevelStr(String.valueOf(Deflater.DEFAULT_COMPRESSION))
+                                        .setConfig(getConfiguration())
+                                        .build();
+                }
+            } else if (fileName == null && !(strategy instanceof DirectFileRolloverStrategy)) {
+                LOGGER.error("RollingColumnarFileAppender '{}': When no file name is provided a {} must be configured",
+                        getName(), DirectFileRolloverStrategy.class.getSimpleName());
+                return null;
+            }
+
+            // Blocks are flushed as a whole, so the events of a block are never flushed one by one.
+            final RollingFileManager manager = RollingFileManager.getFileManager(fileName, filePattern, append,
+                    isBufferedIo, policy, strategy, null, layout, bufferSize, false,
+                    createOnDemand, filePermissions, fileOwner, fileGroup, getConfiguration());
+            if (manager == null) {
+                return null;
+            }
+
+            manager.initialize();
+
+            return new RollingColumnarFileAppender(getName(), layout, getFilter(), manager, fileName, filePattern,
+                    isIgnoreExceptions(), isImmediateFlush());
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public String getFilePattern() {
+            return filePattern;
+        }
+
+        public boolean isAppend() {
+            return append;
+        }
+
+        public TriggeringPolicy getPolicy() {
+            return policy;
+        }
+
+        public RolloverStrategy getStrategy() {
+            return strategy;
+        }
+
+        public boolean isCreateOnDemand() {
+            return createOnDemand;
+        }
+
+        public String getFilePermissions() {
+            return filePermissions;
+        }
+
+        public String getFileOwner() {
+            return fileOwner;
+        }
+
+        public String getFileGroup() {
+            return fileGroup;
+        }
+
+        public B setFileName(final String fileName) {
+            this.fileName = fileName;
+            return asBuilder();
+        }
+
+        public B setFilePattern(final String filePattern) {
+            this.filePattern = filePattern;
+            return asBuilder();
+        }
+
+        public B setAppend(final boolean append) {
+            this.append = append;
+            return asBuilder();
+        }
+
+        public B setPolicy(final TriggeringPolicy policy) {
+            this.policy = policy;
+            return asBuilder();
+        }
+
+        public B setStrategy(final RolloverStrategy strategy) {
+            this.strategy = strategy;
+            return asBuilder();
+        }
+
+        public B setCreateOnDemand(final boolean createOnDemand) {
+            this.createOnDemand = createOnDemand;
+            return asBuilder();
+        }
+
+        public B setFilePermissions(final String filePermissions) {
+            this.filePermissions = filePermissions;
+            return asBuilder();
+        }
+
+        public B setFileOwner(final String fileOwner) {
+            this.fileOwner = fileOwner;
+            return asBuilder();
+        }
+
+        public B setFileGroup(final String fileGroup) {
+            this.fileGroup = fileGroup;
+            return asBuilder();
+        }
+
+    }
+
+    private final String fileName;
+    private final String filePattern;
+    private final ColumnarChunk chunk;
+
+    private RollingColumnarFileAppender(final String name, final ColumnarLayout layout, final Filter filter,
+            final RollingFileManager manager, final String fileName, final String filePattern,
+            final boolean ignoreExceptions, final boolean immediateFlush) {
+        super(name, layout, filter, ignoreExceptions, immediateFlush, null, manager);
+        this.fileName = fileName;
+        this.filePattern = filePattern;
+        this.chunk = layout.newChunk();
+    }
+
+    @Override
+    public void start() {
+        getManager().addRolloverListener(this);
+        super.start();
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        setStopping();
+        final RollingFileManager manager = getManager();
+        synchronized (manager) {
+            writeChunk();
+            manager.removeRolloverListener(this);
+            chunk.close();
+        }
+        final boolean stopped = super.stop(timeout, timeUnit, false);
+        setStopped();
+        return stopped;
+    }
+
+    /**
+     * Adds the event to the current chunk, rolling over the file and writing the chunk when required.
+     *
+     * @param event The LogEvent.
+     */
+    @Override
+    public void append(final LogEvent event) {
+        final RollingFileManager manager = getManager();
+        try {
+            synchronized (manager) {
+                manager.checkRollover(event);
+                chunk.add(event);
+                if (chunk.isFull()) {
+                    writeChunk();
+                }
+            }
+        } catch (final AppenderLoggingException ex) {
+            error("Unable to write to stream " + manager.getName() + " for appender " + getName(), event, ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Writes the pending events, if any, as one block. Callers must hold the lock of the manager.
+     */
+    private void writeChunk() {
+        if (!chunk.isEmpty()) {
+            final RollingFileManager manager = getManager();
+            chunk.writeTo(manager);
+            if (getImmediateFlush()) {
+                manager.flush();
+            }
+        }
+    }
+
+    /**
+     * Writes the pending events to the file about to roll over.
+     *
+     * @param fileName The name of the file rolling over.
+     */
+    @Override
+    public void rolloverTriggered(final String fileName) {
+        synchronized (getManager()) {
+            writeChunk();
+            getManager().flush();
+        }
+    }
+
+    @Override
+    public void rolloverComplete(final String fileName) {
+        // nothing to do
+    }
+
+    /**
+     * Returns the File name for the Appender.
+     * @return The file name.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Returns the file pattern used when rolling over.
+     * @return The file pattern.
+     */
+    public String getFilePattern() {
+        return filePattern;
+    }
+
+    /**
+     * Returns the triggering policy.
+     * @return The TriggeringPolicy
+     */
+    public TriggeringPolicy getTriggeringPolicy() {
+        return getManager().getTriggeringPolicy();
+    }
+
+    /**
+     * Creates a new Builder.
+     *
+     * @return a new Builder.
+     */
+    @PluginFactory
+    public static <B extends Builder<B>> B newBuilder() {
+        return new Builder<B>().asBuilder();
+    }
+}
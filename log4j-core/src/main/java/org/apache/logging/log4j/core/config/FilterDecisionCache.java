@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.ContextFreeFilter;
+import org.apache.logging.log4j.spi.StandardLevel;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Caches the results of a {@link ContextFreeFilter}, or of a {@link CompositeFilter} made only of such filters, for
+ * each standard level and marker. The cache is rebuilt when the filter or the configuration epoch changes, and
+ * the results for markers when the parents of any marker change. Only markers created by the {@link MarkerManager}
+ * are cached, since changes to the parents of other markers cannot be observed.
+ */
+@PerformanceSensitive("allocation")
+final class FilterDecisionCache {
+
+    /**
+     * The maximum number of markers whose results are cached; the results for other markers are computed each time.
+     */
+    static final int MAX_MARKERS = 256;
+
+    private static final StandardLevel[] STANDARD_LEVELS = StandardLevel.values();
+    private static final Level[] LEVELS = new Level[STANDARD_LEVELS.length];
+
+    static {
+        for (final StandardLevel standardLevel : STANDARD_LEVELS) {
+            LEVELS[standardLevel.ordinal()] = Level.getLevel(standardLevel.name());
+        }
+    }
+
+    /**
+     * The cached results for one filter, epoch and marker hierarchy generation. Results are indexed by {@link StandardLevel#ordinal()}; a missing
+     * result is computed and stored on first use, and threads racing to store it store the same value.
+     */
+    private static final class Decisions {
+
+        private final Filter filter;
+        private final long epoch;
+        private final int markerGeneration;
+        private final boolean cacheable;
+        private final Result[] withoutMarker = new Result[LEVELS.length];
+        private final ConcurrentMap<Marker, Result[]> byMarker = new ConcurrentHashMap<>();
+
+        Decisions(final Filter filter, final long epoch, final int markerGeneration) {
+            this.filter = filter;
+            this.epoch = epoch;
+            this.markerGeneration = markerGeneration;
+            this.cacheable = isContextFree(filter);
+        }
+
+        Result[] getResults(final Marker marker) {
+            if (marker == null) {
+                return withoutMarker;
+            }
+            if (!(marker instanceof MarkerManager.Log4jMarker)) {
+                return null;
+            }
+            final Result[] results = byMarker.get(marker);
+            if (results != null || byMarker.size() >= MAX_MARKERS) {
+                return results;
+            }
+            return byMarker.computeIfAbsent(marker, ignored -> new Result[LEVELS.length]);
+        }
+    }
+
+    private volatile Decisions decisions;
+
+    /**
+     * Returns the result of the filter for the event, from the cache when possible.
+     *
+     * @param filter the filter of the logger, not null.
+     * @param event the event.
+     * @param epoch the current configuration epoch.
+     * @return the result of the filter.
+     */
+    Result filter(final Filter filter, final LogEvent event, final long epoch) {
+        final Marker marker = event.getMarker();
+        // Read the generation before the filter runs, so that a concurrent change of the parents invalidates the
+        // result stored here.
+        final int markerGeneration = MarkerManager.getHierarchyGeneration();
+        Decisions current = decisions;
+        if (current == null || !filter.equals(current.filter) || current.epoch != epoch
+                || (marker != null && current.markerGeneration != markerGeneration)) {
+            current = new Decisions(filter, epoch, markerGeneration);
+            decisions = current;
+        }
+        final Level level = event.getLevel();
+        if (!current.cacheable || level == null) {
+            return filter.filter(event);
+        }
+        final int ordinal = level.getStandardLevel().ordinal();
+        if (!LEVELS[ordinal].equals(level)) {
+            return filter.filter(event);
+        }
+        final Result[] results = current.getResults(marker);
+        if (results == null) {
+            return filter.filter(event);
+        }
+        Result result = results[ordinal];
+        if (result == null) {
+            result = filter.filter(event);
+            results[ordinal] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the result of the filter depends only on the level and the marker of the event.
+     */
+    static boolean isContextFree(final Filter filter) {
+        if (filter instanceof CompositeFilter) {
+            for (final Filter child : ((CompositeFilter) filter).getFiltersArray()) {
+                if (!isContextFree(child)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return filter instanceof ContextFreeFilter;
+    }
+}
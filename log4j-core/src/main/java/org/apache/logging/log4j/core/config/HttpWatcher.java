@@ -51,6 +51,7 @@ public class HttpWatcher extends AbstractWatcher {
     private AuthorizationProvider authorizationProvider;
     private URL url;
     private volatile long lastModifiedMillis;
+    private volatile String entityTag;
     private static final String HTTP = "http";
     private static final String HTTPS = "https";
 
@@ -90,6 +91,7 @@ public class HttpWatcher extends AbstractWatcher {
     public Watcher newWatcher(final Reconfigurable reconfigurable, final List<ConfigurationListener> listeners,
             final long lastModifiedMillis) {
         final HttpWatcher watcher = new HttpWatcher(getConfiguration(), reconfigurable, listeners, lastModifiedMillis);
+        watcher.entityTag = entityTag;
         if (getSource() != null) {
             watcher.watching(getSource());
         }
@@ -99,6 +101,7 @@ public class HttpWatcher extends AbstractWatcher {
     private boolean refreshConfiguration() {
         try {
             final LastModifiedSource source = new LastModifiedSource(url.toURI(), lastModifiedMillis);
+            source.setEntityTag(entityTag);
             final HttpInputStreamUtil.Result result = HttpInputStreamUtil.getInputStream(source, authorizationProvider);
             switch (result.getStatus()) {
                 case NOT_MODIFIED: {
@@ -110,6 +113,7 @@ public class HttpWatcher extends AbstractWatcher {
                     try {
                         configSource.setData(HttpInputStreamUtil.readStream(result.getInputStream()));
                         configSource.setModifiedMillis(source.getLastModified());
+                        entityTag = source.getEntityTag();
                         LOGGER.debug("Content was modified for {}", url.toString());
                         return true;
                     } catch (final IOException e) {
@@ -75,6 +75,8 @@ public class LoggerConfig extends AbstractFilterable {
     private final boolean propertiesRequireLookup;
     private final Configuration config;
     private final ReliabilityStrategy reliabilityStrategy;
+    private final FilterDecisionCache filterDecisionCache = new FilterDecisionCache();
+    private volatile long configurationEpoch;
 
     @PluginFactory
     public static <B extends Builder<B>> B newBuilder() {
@@ -278,6 +280,30 @@ public class LoggerConfig extends AbstractFilterable {
         return super.getFilter();
     }
 
+    /**
+     * Determines if the event should be filtered. The results of filters that depend only on the level and the marker
+     * of the event are cached until the filter changes or the Loggers are updated.
+     *
+     * @param event The LogEvent.
+     * @return true if the LogEvent should be ignored.
+     */
+    @Override
+    public boolean isFiltered(final LogEvent event) {
+        final Filter filter = getFilter();
+        return filter != null
+                && filterDecisionCache.filter(filter, event, configurationEpoch) == Filter.Result.DENY;
+    }
+
+    /**
+     * This method is not exposed through the public API and is used by {@link LoggerContext#updateLoggers()} to
+     * discard state derived from the previous configuration, such as cached filter results.
+     *
+     * @param configurationEpoch the configuration epoch of the LoggerContext.
+     */
+    public void setConfigurationEpoch(final long configurationEpoch) {
+        this.configurationEpoch = configurationEpoch;
+    }
+
     /**
      * Returns the name of the LoggerConfig.
      *
@@ -19,20 +19,27 @@ package org.apache.logging.log4j.core.filter;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.ContextDataInjector;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.plugins.Configurable;
+import org.apache.logging.log4j.plugins.Inject;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.DelayQueue;
-import java.util.concurrent.Delayed;
-import java.util.concurrent.TimeUnit;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 /**
  * The <code>BurstFilter</code> is a logging filter that regulates logging traffic.
@@ -51,6 +58,12 @@ import java.util.concurrent.TimeUnit;
  * &nbsp;&lt;/Filters&gt;<br>
  * &lt;/Console&gt;<br>
  * </code><br>
+ * <p>
+ * The optional <code>key</code> attribute gives every logger name (<code>logger</code>), marker name
+ * (<code>marker</code>) or context data value (<code>ctx:tenantId</code>) its own burst window, so that one noisy
+ * source cannot use up the budget of the others. Events without a key share a common window. At most
+ * <code>maxKeys</code> windows are retained; idle windows are evicted first when the table is full.
+ * </p>
  */
 
 @Configurable(elementType = Filter.ELEMENT_TYPE, printObject = true)
@@ -63,7 +76,17 @@ public final class BurstFilter extends AbstractFilter {
 
     private static final int DEFAULT_RATE_MULTIPLE = 100;
 
-    private static final int HASH_SHIFT = 32;
+    private static final int DEFAULT_MAX_KEYS = 1000;
+
+    private static final String KEY_LOGGER = "logger";
+
+    private static final String KEY_MARKER = "marker";
+
+    private static final String KEY_CONTEXT_PREFIX = "ctx:";
+
+    private enum KeySource {
+        NONE, LOGGER, MARKER, CONTEXT
+    }
 
     /**
      * Level of messages to be filtered. Anything at or below this level will be
@@ -75,90 +98,111 @@ public final class BurstFilter extends AbstractFilter {
 
     private final long burstInterval;
 
-    private final DelayQueue<LogDelay> history = new DelayQueue<>();
+    private final int maxBurst;
 
-    private final Queue<LogDelay> available = new ConcurrentLinkedQueue<>();
+    private final String name;
 
-    static LogDelay createLogDelay(final long expireTime) {
-        return new LogDelay(expireTime);
-    }
+    private final KeySource keySource;
+
+    private final String contextKey;
+
+    private final int maxKeys;
+
+    private final ContextDataInjector injector;
+
+    private final SlidingWindow window;
+
+    private final ConcurrentMap<String, SlidingWindow> windows = new ConcurrentHashMap<>();
 
-    private BurstFilter(final Level level, final float rate, final long maxBurst, final Result onMatch,
-                        final Result onMismatch) {
+    private final Function<String, SlidingWindow> windowFactory;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private BurstFilter(final Level level, final float rate, final long maxBurst, final String name,
+                        final KeySource keySource, final String contextKey, final int maxKeys,
+                        final ContextDataInjector injector, final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
         this.level = level;
         this.burstInterval = (long) (NANOS_IN_SECONDS * (maxBurst / rate));
-        for (int i = 0; i < maxBurst; ++i) {
-            available.add(createLogDelay(0));
-        }
+        this.maxBurst = (int) Math.min(maxBurst, Integer.MAX_VALUE);
+        this.name = name;
+        this.keySource = keySource;
+        this.contextKey = contextKey;
+        this.maxKeys = maxKeys;
+        this.injector = injector;
+        this.window = new SlidingWindow(this.maxBurst, burstInterval);
+        this.windowFactory = key -> new SlidingWindow(this.maxBurst, burstInterval);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
                          final Object... params) {
-        return filter(level);
+        return filter(level, logger, marker);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
                          final Throwable t) {
-        return filter(level);
+        return filter(level, logger, marker);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
                          final Throwable t) {
-        return filter(level);
+        return filter(level, logger, marker);
     }
 
     @Override
     public Result filter(final LogEvent event) {
-        return filter(event.getLevel());
+        if (this.level.isMoreSpecificThan(event.getLevel())) {
+            return tryAcquire(keyOf(event));
+        }
+        return onMatch;
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0) {
-        return filter(level);
+        return filter(level, logger, marker);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1) {
-        return filter(level);
+        return filter(level, logger, marker);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2) {
-        return filter(level);
+        return filter(level, logger, marker);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3) {
-        return filter(level);
+        return filter(level, logger, marker);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4) {
-        return filter(level);
+        return filter(level, logger, marker);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5) {
-        return filter(level);
+        return filter(level, logger, marker);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6) {
-        return filter(level);
+        return filter(level, logger, marker);
     }
 
     @Override
@@ -166,7 +210,7 @@ public final class BurstFilter extends AbstractFilter {
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7) {
-        return filter(level);
+        return filter(level, logger, marker);
     }
 
     @Override
@@ -174,7 +218,7 @@ public final class BurstFilter extends AbstractFilter {
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8) {
-        return filter(level);
+        return filter(level, logger, marker);
     }
 
     @Override
@@ -182,7 +226,7 @@ public final class BurstFilter extends AbstractFilter {
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8, final Object p9) {
-        return filter(level);
+        return filter(level, logger, marker);
     }
 
     /**
@@ -190,95 +234,209 @@ public final class BurstFilter extends AbstractFilter {
      * maximum burst of log statements has been exceeded.
      *
      * @param level The log level.
+     * @param logger The logger, used when keying by logger name.
+     * @param marker The marker, used when keying by marker name.
      * @return The onMatch value if the filter passes, onMismatch otherwise.
      */
-    private Result filter(final Level level) {
+    private Result filter(final Level level, final Logger logger, final Marker marker) {
         if (this.level.isMoreSpecificThan(level)) {
-            LogDelay delay = history.poll();
-            while (delay != null) {
-                available.add(delay);
-                delay = history.poll();
-            }
-            delay = available.poll();
-            if (delay != null) {
-                delay.setDelay(burstInterval);
-                history.add(delay);
-                return onMatch;
-            }
-            return onMismatch;
+            return tryAcquire(keyOf(logger, marker));
         }
         return onMatch;
+    }
+
+    private Result tryAcquire(final String key) {
+        // Read the clock after the lookup so that it is never behind the creation time of a new window.
+        final SlidingWindow keyWindow = getWindow(key);
+        if (keyWindow.tryAcquire(System.nanoTime(), burstInterval)) {
+            return onMatch;
+        }
+        dropped.increment();
+        return onMismatch;
+    }
 
+    private String keyOf(final Logger logger, final Marker marker) {
+        switch (keySource) {
+            case LOGGER:
+                return logger == null ? null : logger.getName();
+            case MARKER:
+                return marker == null ? null : marker.getName();
+            case CONTEXT:
+                return injector.rawContextData().getValue(contextKey);
+            default:
+                return null;
+        }
+    }
+
+    private String keyOf(final LogEvent event) {
+        switch (keySource) {
+            case LOGGER:
+                return event.getLoggerName();
+            case MARKER:
+                final Marker marker = event.getMarker();
+                return marker == null ? null : marker.getName();
+            case CONTEXT:
+                final ReadOnlyStringMap contextData = event.getContextData();
+                return contextData == null ? null : contextData.getValue(contextKey);
+            default:
+                return null;
+        }
+    }
+
+    private SlidingWindow getWindow(final String key) {
+        if (key == null) {
+            return window;
+        }
+        final SlidingWindow keyWindow = windows.get(key);
+        if (keyWindow != null) {
+            return keyWindow;
+        }
+        if (windows.size() >= maxKeys) {
+            evictWindows(System.nanoTime());
+        }
+        return windows.computeIfAbsent(key, windowFactory);
+    }
+
+    private void evictWindows(final long now) {
+        windows.values().removeIf(candidate -> candidate.isIdle(now, burstInterval));
+        if (windows.size() >= maxKeys) {
+            // Every key is busy; give up the window of an arbitrary one rather than grow without bound.
+            final Iterator<String> iterator = windows.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
     }
 
     /**
-     * Returns the number of available slots. Used for unit testing.
+     * Returns the number of available slots in the window shared by events without a key. Used for unit testing.
      * @return The number of available slots.
      */
     public int getAvailable() {
-        return available.size();
+        return window.available(System.nanoTime(), burstInterval);
+    }
+
+    /**
+     * Returns the number of available slots in the window of the given key.
+     * @param key The logger name, marker name or context value the window is keyed by.
+     * @return The number of available slots, or {@code maxBurst} if the key has no window.
+     */
+    public int getAvailable(final String key) {
+        final SlidingWindow keyWindow = windows.get(key);
+        return keyWindow == null ? maxBurst : keyWindow.available(System.nanoTime(), burstInterval);
+    }
+
+    /**
+     * Returns the name used to register this filter with JMX.
+     * @return The name, or {@code null} if the filter is not exposed.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the total number of events rejected since the filter was created.
+     * @return The number of rejected events.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of events rejected for the given key while its window has been retained.
+     * @param key The logger name, marker name or context value the window is keyed by.
+     * @return The number of rejected events, or zero if the key has no window.
+     */
+    public long getDroppedCount(final String key) {
+        final SlidingWindow keyWindow = windows.get(key);
+        return keyWindow == null ? 0 : keyWindow.dropped.sum();
+    }
+
+    /**
+     * Returns the number of keys that currently have their own window.
+     * @return The number of keyed windows.
+     */
+    public int getKeyCount() {
+        return windows.size();
     }
 
     /**
      * Clear the history. Used for unit testing.
      */
     public void clear() {
-        for (final LogDelay delay : history) {
-            history.remove(delay);
-            available.add(delay);
-        }
+        window.reset(burstInterval);
+        windows.clear();
     }
 
     @Override
     public String toString() {
-        return "level=" + level.toString() + ", interval=" + burstInterval + ", max=" + history.size();
+        return "level=" + level.toString() + ", interval=" + burstInterval + ", max=" + maxBurst;
     }
 
     /**
-     * Delay object to represent each log event that has occurred within the timespan.
-     *
-     * Consider this class private, package visibility for testing.
+     * The times of the last <code>maxBurst</code> accepted events, kept in a ring. An event is accepted if the
+     * oldest of them has left the burst interval, which is decided with a single compare-and-set on the ring index.
      */
-    private static class LogDelay implements Delayed {
+    private static final class SlidingWindow {
 
-        LogDelay(final long expireTime) {
-            this.expireTime = expireTime;
-        }
+        private final AtomicLongArray times;
 
-        private long expireTime;
+        private final AtomicLong next = new AtomicLong();
 
-        public void setDelay(final long delay) {
-            this.expireTime = delay + System.nanoTime();
-        }
+        private final LongAdder dropped = new LongAdder();
 
-        @Override
-        public long getDelay(final TimeUnit timeUnit) {
-            return timeUnit.convert(expireTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+        SlidingWindow(final int size, final long interval) {
+            times = new AtomicLongArray(size);
+            reset(interval);
         }
 
-        @Override
-        public int compareTo(final Delayed delayed) {
-            final long diff = this.expireTime - ((LogDelay) delayed).expireTime;
-            return Long.signum(diff);
+        boolean tryAcquire(final long now, final long interval) {
+            final int size = times.length();
+            while (true) {
+                final long index = next.get();
+                final int slot = (int) (index % size);
+                final long previous = times.get(slot);
+                if (now - previous < interval) {
+                    if (next.get() != index) {
+                        // Another thread took this slot in the meantime, try the next one
+                        continue;
+                    }
+                    dropped.increment();
+                    return false;
+                }
+                // Claim the slot before moving on, so that no other thread can take it with the same timestamp
+                if (times.compareAndSet(slot, previous, now)) {
+                    next.compareAndSet(index, index + 1);
+                    return true;
+                }
+            }
         }
 
-        @Override
-        public boolean equals(final Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (o == null || getClass() != o.getClass()) {
-                return false;
+        int available(final long now, final long interval) {
+            int count = 0;
+            for (int i = 0; i < times.length(); ++i) {
+                if (now - times.get(i) >= interval) {
+                    ++count;
+                }
             }
+            return count;
+        }
 
-            final LogDelay logDelay = (LogDelay) o;
-
-            return expireTime == logDelay.expireTime;
+        boolean isIdle(final long now, final long interval) {
+            final int slot = (int) ((next.get() + times.length() - 1) % times.length());
+            return now - times.get(slot) >= interval;
         }
 
-        @Override
-        public int hashCode() {
-            return (int) (expireTime ^ (expireTime >>> HASH_SHIFT));
+        void reset(final long interval) {
+            final long expired = System.nanoTime() - interval;
+            for (int i = 0; i < times.length(); ++i) {
+                times.set(i, expired);
+            }
         }
     }
 
@@ -298,6 +456,17 @@ public final class BurstFilter extends AbstractFilter {
         @PluginBuilderAttribute
         private long maxBurst;
 
+        @PluginBuilderAttribute
+        private String name;
+
+        @PluginBuilderAttribute
+        private String key;
+
+        @PluginBuilderAttribute
+        private int maxKeys = DEFAULT_MAX_KEYS;
+
+        private ContextDataInjector contextDataInjector;
+
         /**
          * Sets the logging level to use.
          * @param level the logging level to use.
@@ -329,6 +498,42 @@ public final class BurstFilter extends AbstractFilter {
             return this;
         }
 
+        /**
+         * Sets the name under which the filter's counters are exposed with JMX.
+         * @param name the JMX name; filters without a name are not registered.
+         * @return this
+         */
+        public Builder setName(final String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets what events are grouped by, each group getting its own burst window.
+         * @param key {@code logger}, {@code marker} or {@code ctx:} followed by a context data key.
+         * @return this
+         */
+        public Builder setKey(final String key) {
+            this.key = key;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of keys that have their own window.
+         * @param maxKeys the maximum number of keyed windows, 1000 by default.
+         * @return this
+         */
+        public Builder setMaxKeys(final int maxKeys) {
+            this.maxKeys = maxKeys;
+            return this;
+        }
+
+        @Inject
+        public Builder setContextDataInjector(final ContextDataInjector contextDataInjector) {
+            this.contextDataInjector = contextDataInjector;
+            return this;
+        }
+
         @Override
         public BurstFilter build() {
             if (this.rate <= 0) {
@@ -337,7 +542,26 @@ public final class BurstFilter extends AbstractFilter {
             if (this.maxBurst <= 0) {
                 this.maxBurst = (long) (this.rate * DEFAULT_RATE_MULTIPLE);
             }
-            return new BurstFilter(this.level, this.rate, this.maxBurst, this.getOnMatch(), this.getOnMismatch());
+            if (this.maxKeys <= 0) {
+                this.maxKeys = DEFAULT_MAX_KEYS;
+            }
+            KeySource keySource = KeySource.NONE;
+            String contextKey = null;
+            if (KEY_LOGGER.equalsIgnoreCase(key)) {
+                keySource = KeySource.LOGGER;
+            } else if (KEY_MARKER.equalsIgnoreCase(key)) {
+                keySource = KeySource.MARKER;
+            } else if (key != null && key.startsWith(KEY_CONTEXT_PREFIX) && key.length() > KEY_CONTEXT_PREFIX.length()) {
+                keySource = KeySource.CONTEXT;
+                contextKey = key.substring(KEY_CONTEXT_PREFIX.length());
+            } else if (key != null) {
+                StatusLogger.getLogger().error("Unsupported BurstFilter key '{}', expected 'logger', 'marker' or "
+                        + "'ctx:<name>'; limiting all events together", key);
+            }
+            final ContextDataInjector injector = keySource == KeySource.CONTEXT && contextDataInjector == null
+                    ? ContextDataInjectorFactory.createInjector() : contextDataInjector;
+            return new BurstFilter(this.level, this.rate, this.maxBurst, this.name, keySource, contextKey,
+                    this.maxKeys, injector, this.getOnMatch(), this.getOnMismatch());
         }
     }
 }
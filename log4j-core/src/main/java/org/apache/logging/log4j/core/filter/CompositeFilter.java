@@ -29,6 +29,7 @@ import org.apache.logging.log4j.plugins.Configurable;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginElement;
 import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.spi.StandardLevel;
 import org.apache.logging.log4j.util.PerformanceSensitive;
 
 import java.util.ArrayList;
@@ -39,6 +40,12 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Composes and invokes one or more filters.
+ * <p>
+ * The filters are compiled into one chain per standard level when the composite is created. Filters that only look at
+ * the level of the event are evaluated up front for each level: a filter that is neutral for a level is removed from
+ * that level's chain, and a filter that accepts or denies a level ends the chain with its result. The remaining
+ * filters keep their configured order, so the composite returns the same result as evaluating every filter in turn.
+ * </p>
  */
 @Configurable(printObject = true)
 @Plugin("filters")
@@ -46,14 +53,73 @@ import java.util.concurrent.TimeUnit;
 public final class CompositeFilter extends AbstractLifeCycle implements Iterable<Filter>, Filter {
 
     private static final Filter[] EMPTY_FILTERS = Filter.EMPTY_ARRAY;
+    private static final StandardLevel[] STANDARD_LEVELS = StandardLevel.values();
+    private static final Level[] LEVELS = new Level[STANDARD_LEVELS.length];
+
+    static {
+        for (final StandardLevel standardLevel : STANDARD_LEVELS) {
+            LEVELS[standardLevel.ordinal()] = Level.getLevel(standardLevel.name());
+        }
+    }
+
     private final Filter[] filters;
 
+    /**
+     * The chain used for custom levels, which contains every filter.
+     */
+    private final FilterChain chain;
+
+    /**
+     * The chains compiled for each standard level, indexed by {@link StandardLevel#ordinal()}.
+     */
+    private final FilterChain[] levelChains;
+
     private CompositeFilter() {
-        this.filters = EMPTY_FILTERS;
+        this(EMPTY_FILTERS);
     }
 
     private CompositeFilter(final Filter[] filters) {
         this.filters = filters == null ? EMPTY_FILTERS : filters;
+        this.chain = new FilterChain(this.filters, Result.NEUTRAL);
+        this.levelChains = new FilterChain[STANDARD_LEVELS.length];
+        for (final StandardLevel standardLevel : STANDARD_LEVELS) {
+            levelChains[standardLevel.ordinal()] = compile(this.filters, LEVELS[standardLevel.ordinal()]);
+        }
+    }
+
+    private static FilterChain compile(final Filter[] filters, final Level level) {
+        final List<Filter> chainFilters = new ArrayList<>(filters.length);
+        for (final Filter filter : filters) {
+            if (!isLevelOnly(filter)) {
+                chainFilters.add(filter);
+                continue;
+            }
+            final Result result = filter.filter(null, level, null, (Object) null, null);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return new FilterChain(chainFilters.toArray(EMPTY_FILTERS), result);
+            }
+        }
+        return new FilterChain(chainFilters.toArray(EMPTY_FILTERS), Result.NEUTRAL);
+    }
+
+    /**
+     * Returns whether the result of the filter depends on nothing but the level of the event. Only exact classes are
+     * trusted, since a subclass could look at more of the event.
+     */
+    private static boolean isLevelOnly(final Filter filter) {
+        final Class<?> clazz = filter.getClass();
+        return clazz == ThresholdFilter.class || clazz == LevelRangeFilter.class || clazz == LevelMatchFilter.class
+                || clazz == DenyAllFilter.class || clazz == NeutralFilter.class;
+    }
+
+    private FilterChain getChain(final Level level) {
+        if (level != null) {
+            final int ordinal = level.getStandardLevel().ordinal();
+            if (LEVELS[ordinal] == level) {
+                return levelChains[ordinal];
+            }
+        }
+        return chain;
     }
 
     public CompositeFilter addFilter(final Filter filter) {
@@ -173,14 +239,15 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object... params) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, params);
+        final FilterChain chain = getChain(level);
+        final Filter[] chainFilters = chain.filters;
+        for (int i = 0; i < chainFilters.length; i++) {
+            final Result result = chainFilters[i].filter(logger, level, marker, msg, params);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return chain.result;
     }
 
     /**
@@ -200,14 +267,15 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0);
+        final FilterChain chain = getChain(level);
+        final Filter[] chainFilters = chain.filters;
+        for (int i = 0; i < chainFilters.length; i++) {
+            final Result result = chainFilters[i].filter(logger, level, marker, msg, p0);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return chain.result;
     }
 
     /**
@@ -228,14 +296,15 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1);
+        final FilterChain chain = getChain(level);
+        final Filter[] chainFilters = chain.filters;
+        for (int i = 0; i < chainFilters.length; i++) {
+            final Result result = chainFilters[i].filter(logger, level, marker, msg, p0, p1);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return chain.result;
     }
 
     /**
@@ -257,14 +326,15 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2);
+        final FilterChain chain = getChain(level);
+        final Filter[] chainFilters = chain.filters;
+        for (int i = 0; i < chainFilters.length; i++) {
+            final Result result = chainFilters[i].filter(logger, level, marker, msg, p0, p1, p2);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return chain.result;
     }
 
     /**
@@ -287,14 +357,15 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3);
+        final FilterChain chain = getChain(level);
+        final Filter[] chainFilters = chain.filters;
+        for (int i = 0; i < chainFilters.length; i++) {
+            final Result result = chainFilters[i].filter(logger, level, marker, msg, p0, p1, p2, p3);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return chain.result;
     }
 
     /**
@@ -319,14 +390,15 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4);
+        final FilterChain chain = getChain(level);
+        final Filter[] chainFilters = chain.filters;
+        for (int i = 0; i < chainFilters.length; i++) {
+            final Result result = chainFilters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return chain.result;
     }
 
     /**
@@ -352,14 +424,15 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5);
+        final FilterChain chain = getChain(level);
+        final Filter[] chainFilters = chain.filters;
+        for (int i = 0; i < chainFilters.length; i++) {
+            final Result result = chainFilters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return chain.result;
     }
 
     /**
@@ -386,14 +459,15 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6);
+        final FilterChain chain = getChain(level);
+        final Filter[] chainFilters = chain.filters;
+        for (int i = 0; i < chainFilters.length; i++) {
+            final Result result = chainFilters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return chain.result;
     }
 
     /**
@@ -422,14 +496,15 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7);
+        final FilterChain chain = getChain(level);
+        final Filter[] chainFilters = chain.filters;
+        for (int i = 0; i < chainFilters.length; i++) {
+            final Result result = chainFilters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return chain.result;
     }
 
     /**
@@ -459,14 +534,15 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8);
+        final FilterChain chain = getChain(level);
+        final Filter[] chainFilters = chain.filters;
+        for (int i = 0; i < chainFilters.length; i++) {
+            final Result result = chainFilters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return chain.result;
     }
 
     /**
@@ -497,14 +573,15 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8, final Object p9) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
+        final FilterChain chain = getChain(level);
+        final Filter[] chainFilters = chain.filters;
+        for (int i = 0; i < chainFilters.length; i++) {
+            final Result result = chainFilters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return chain.result;
     }
 
     /**
@@ -525,14 +602,15 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
             final Throwable t) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, t);
+        final FilterChain chain = getChain(level);
+        final Filter[] chainFilters = chain.filters;
+        for (int i = 0; i < chainFilters.length; i++) {
+            final Result result = chainFilters[i].filter(logger, level, marker, msg, t);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return chain.result;
     }
 
     /**
@@ -553,14 +631,15 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
             final Throwable t) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, t);
+        final FilterChain chain = getChain(level);
+        final Filter[] chainFilters = chain.filters;
+        for (int i = 0; i < chainFilters.length; i++) {
+            final Result result = chainFilters[i].filter(logger, level, marker, msg, t);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return chain.result;
     }
 
     /**
@@ -572,14 +651,29 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
      */
     @Override
     public Result filter(final LogEvent event) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(event);
+        final FilterChain chain = getChain(event.getLevel());
+        final Filter[] chainFilters = chain.filters;
+        for (int i = 0; i < chainFilters.length; i++) {
+            final Result result = chainFilters[i].filter(event);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return chain.result;
+    }
+
+    @Override
+    public boolean mayAccept(final Level level) {
+        final FilterChain levelChain = getChain(level);
+        if (levelChain.result == Result.ACCEPT) {
+            return true;
+        }
+        for (final Filter filter : levelChain.filters) {
+            if (filter.mayAccept(level)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -611,4 +705,19 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
         return new CompositeFilter(filters);
     }
 
+    private static final class FilterChain {
+
+        private final Filter[] filters;
+
+        /**
+         * The result returned when every filter in the chain is neutral.
+         */
+        private final Result result;
+
+        private FilterChain(final Filter[] filters, final Result result) {
+            this.filters = filters;
+            this.result = result;
+        }
+    }
+
 }
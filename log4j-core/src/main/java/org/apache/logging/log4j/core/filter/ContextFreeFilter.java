@@ -0,0 +1,31 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import org.apache.logging.log4j.core.Filter;
+
+/**
+ * Marks a {@link Filter} whose result for an event depends only on the level and the marker of the event.
+ * <p>
+ * Loggers may cache the results of such filters for each level and marker instead of calling them for every event. The
+ * cached results are discarded when the filter of the logger changes, when
+ * {@link org.apache.logging.log4j.core.LoggerContext#updateLoggers()} is called, and, for events with a marker, when the
+ * parents of any marker change.
+ * </p>
+ */
+public interface ContextFreeFilter extends Filter {
+}
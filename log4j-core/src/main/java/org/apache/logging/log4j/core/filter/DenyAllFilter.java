@@ -33,7 +33,7 @@ import org.apache.logging.log4j.util.PerformanceSensitive;
 @Configurable(elementType = Filter.ELEMENT_TYPE, printObject = true)
 @Plugin
 @PerformanceSensitive("allocation")
-public final class DenyAllFilter extends AbstractFilter {
+public final class DenyAllFilter extends AbstractFilter implements ContextFreeFilter {
 
     private DenyAllFilter(final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
@@ -135,6 +135,11 @@ public final class DenyAllFilter extends AbstractFilter {
         return Result.DENY;
     }
 
+    @Override
+    public boolean mayAccept(final Level level) {
+        return false;
+    }
+
     @Override
     public String toString() {
         return "DenyAll";
@@ -35,7 +35,7 @@ import org.apache.logging.log4j.util.PerformanceSensitive;
 @Configurable(elementType = Filter.ELEMENT_TYPE, printObject = true)
 @Plugin
 @PerformanceSensitive("allocation")
-public final class LevelMatchFilter extends AbstractFilter {
+public final class LevelMatchFilter extends AbstractFilter implements ContextFreeFilter {
 
     public static final String ATTR_MATCH = "match";
     private final Level level;
@@ -141,6 +141,11 @@ public final class LevelMatchFilter extends AbstractFilter {
         return filter(level);
     }
 
+    @Override
+    public boolean mayAccept(final Level level) {
+        return filter(level) == Result.ACCEPT;
+    }
+
     @Override
     public String toString() {
         return level.toString();
@@ -41,7 +41,7 @@ import org.apache.logging.log4j.util.PerformanceSensitive;
 @Configurable(elementType = Filter.ELEMENT_TYPE, printObject = true)
 @Plugin
 @PerformanceSensitive("allocation")
-public final class LevelRangeFilter extends AbstractFilter {
+public final class LevelRangeFilter extends AbstractFilter implements ContextFreeFilter {
 
     /**
      * Creates a ThresholdFilter.
@@ -181,6 +181,11 @@ public final class LevelRangeFilter extends AbstractFilter {
         return minLevel;
     }
 
+    @Override
+    public boolean mayAccept(final Level level) {
+        return filter(level) == Result.ACCEPT;
+    }
+
     @Override
     public String toString() {
         return minLevel.toString();
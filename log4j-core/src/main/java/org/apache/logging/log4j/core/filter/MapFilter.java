@@ -37,9 +37,11 @@ import org.apache.logging.log4j.util.SortedArrayStringMap;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * A Filter that operates on a Map.
@@ -50,6 +52,12 @@ import java.util.Objects;
 public class MapFilter extends AbstractFilter {
 
     private final IndexedStringMap map;
+
+    /**
+     * The values configured for each key, at the index of the key in {@link #map}, so that matching a value is a hash
+     * lookup instead of a scan of the configured list.
+     */
+    private final Set<?>[] valueSets;
     private final boolean isAnd;
 
     protected MapFilter(final Map<String, List<String>> map, final boolean oper, final Result onMatch, final Result onMismatch) {
@@ -61,6 +69,22 @@ public class MapFilter extends AbstractFilter {
         for (final Map.Entry<String, List<String>> entry : map.entrySet()) {
             this.map.putValue(entry.getKey(), entry.getValue());
         }
+        this.valueSets = new Set<?>[this.map.size()];
+        for (int i = 0; i < valueSets.length; i++) {
+            valueSets[i] = new HashSet<>(this.map.<List<String>>getValueAt(i));
+        }
+    }
+
+    /**
+     * Returns whether the given value is one of the values configured for the key at the given index of
+     * {@link #getStringMap()}.
+     *
+     * @param index the index of the key.
+     * @param value the value to match, or {@code null}.
+     * @return whether the value is configured for the key.
+     */
+    protected boolean containsValueAt(final int index, final String value) {
+        return value != null && valueSets[index].contains(value);
     }
 
     @Override
@@ -85,7 +109,7 @@ public class MapFilter extends AbstractFilter {
         boolean match = false;
         for (int i = 0; i < map.size(); i++) {
             final String toMatch = mapMessage.get(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
+            match = containsValueAt(i, toMatch);
 
             if ((!isAnd && match) || (isAnd && !match)) {
                 break;
@@ -98,7 +122,7 @@ public class MapFilter extends AbstractFilter {
         boolean match = false;
         for (int i = 0; i < map.size(); i++) {
             final String toMatch = data.get(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
+            match = containsValueAt(i, toMatch);
 
             if ((!isAnd && match) || (isAnd && !match)) {
                 break;
@@ -111,7 +135,7 @@ public class MapFilter extends AbstractFilter {
         boolean match = false;
         for (int i = 0; i < map.size(); i++) {
             final String toMatch = data.getValue(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
+            match = containsValueAt(i, toMatch);
 
             if ((!isAnd && match) || (isAnd && !match)) {
                 break;
@@ -35,7 +35,7 @@ import org.apache.logging.log4j.util.PerformanceSensitive;
 @Configurable(elementType = Filter.ELEMENT_TYPE, printObject = true)
 @Plugin
 @PerformanceSensitive("allocation")
-public final class MarkerFilter extends AbstractFilter {
+public final class MarkerFilter extends AbstractFilter implements ContextFreeFilter {
 
     private final String name;
 
@@ -140,6 +140,11 @@ public final class MarkerFilter extends AbstractFilter {
         return filter(marker);
     }
 
+    @Override
+    public boolean mayAccept(final Level level) {
+        return onMatch == Result.ACCEPT || onMismatch == Result.ACCEPT;
+    }
+
     @Override
     public String toString() {
         return name;
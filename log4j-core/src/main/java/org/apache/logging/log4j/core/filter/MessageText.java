@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.function.Predicate;
+
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.StringBuilders;
+
+/**
+ * Gives filters the formatted text of a message without creating a String for it.
+ * <p>
+ * A {@link ReusableMessage} is formatted into a {@link StringBuilder} reused per thread, since its formatted text
+ * cannot be kept. Other messages are asked for {@link Message#getFormattedMessage()}, which messages such as
+ * {@link org.apache.logging.log4j.message.ParameterizedMessage} cache, so that the layout does not format them again.
+ * </p>
+ */
+@PerformanceSensitive("allocation")
+final class MessageText {
+
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<>();
+
+    private MessageText() {
+    }
+
+    /**
+     * Tests the formatted text of a message.
+     *
+     * @param message the message, which may be null.
+     * @param predicate the test, which must not keep the text it is given.
+     * @return the result of the test, or {@code false} if the message or its text is null.
+     */
+    static boolean test(final Message message, final Predicate<CharSequence> predicate) {
+        if (message instanceof ReusableMessage) {
+            final StringBuilder buffer = acquire();
+            try {
+                ((ReusableMessage) message).formatTo(buffer);
+                return predicate.test(buffer);
+            } finally {
+                release(buffer);
+            }
+        }
+        final String text = message == null ? null : message.getFormattedMessage();
+        return text != null && predicate.test(text);
+    }
+
+    /**
+     * Tests the text of a parameterized message, formatted as by
+     * {@link org.apache.logging.log4j.message.ParameterizedMessage#format(String, Object[])}.
+     *
+     * @param pattern the message pattern.
+     * @param params the parameters.
+     * @param predicate the test, which must not keep the text it is given.
+     * @return the result of the test.
+     */
+    static boolean test(final String pattern, final Object[] params, final Predicate<CharSequence> predicate) {
+        final Message message = ReusableMessageFactory.INSTANCE.newMessage(pattern, params);
+        try {
+            return test(message, predicate);
+        } finally {
+            ReusableMessageFactory.release(message);
+        }
+    }
+
+    /**
+     * Returns whether the text contains the given string.
+     */
+    static boolean contains(final CharSequence text, final String value) {
+        if (text instanceof String) {
+            return ((String) text).contains(value);
+        }
+        if (text instanceof StringBuilder) {
+            return ((StringBuilder) text).indexOf(value) >= 0;
+        }
+        return text.toString().contains(value);
+    }
+
+    /**
+     * Takes the buffer of the current thread. A message that logs while it is formatted gets a buffer of its own.
+     */
+    private static StringBuilder acquire() {
+        if (!Constants.ENABLE_THREADLOCALS) {
+            return new StringBuilder();
+        }
+        final StringBuilder buffer = BUFFER.get();
+        if (buffer == null) {
+            return new StringBuilder();
+        }
+        BUFFER.set(null);
+        return buffer;
+    }
+
+    private static void release(final StringBuilder buffer) {
+        if (Constants.ENABLE_THREADLOCALS) {
+            StringBuilders.trimToMaxSize(buffer, Constants.MAX_REUSABLE_MESSAGE_SIZE);
+            buffer.setLength(0);
+            BUFFER.set(buffer);
+        }
+    }
+}
@@ -26,12 +26,17 @@ import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.ConfigurationException;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.config.ConfigurationListener;
 import org.apache.logging.log4j.core.config.ConfigurationScheduler;
+import org.apache.logging.log4j.core.config.Reconfigurable;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.filter.mutable.KeyValuePairConfig;
 import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
 import org.apache.logging.log4j.core.util.AuthorizationProvider;
 import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.core.util.Source;
+import org.apache.logging.log4j.core.util.WatchManager;
+import org.apache.logging.log4j.core.util.Watcher;
 import org.apache.logging.log4j.core.util.internal.HttpInputStreamUtil;
 import org.apache.logging.log4j.core.util.internal.LastModifiedSource;
 import org.apache.logging.log4j.core.util.internal.Status;
@@ -49,6 +54,8 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ScheduledFuture;
@@ -56,6 +63,14 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Filter based on a value in the Thread Context Map (MDC).
+ * <p>
+ * The key/value pairs are read from a file or URL. The source is checked every {@code pollInterval} seconds and
+ * whenever the configuration's {@link WatchManager} checks its sources, for example because a
+ * {@link org.apache.logging.log4j.core.util.WatchEventService} reported a change. Unchanged sources are not downloaded
+ * again: files are compared by modification time and HTTP sources are requested conditionally with the
+ * {@code Last-Modified} and {@code ETag} values of the previous response. A changed document is parsed into a new
+ * {@link ThreadContextMapFilter} which replaces the previous one in a single volatile write.
+ * </p>
  */
 @Configurable(elementType = Filter.ELEMENT_TYPE, printObject = true)
 @Plugin
@@ -70,9 +85,11 @@ public class MutableThreadContextMapFilter extends AbstractFilter {
     private volatile Filter filter;
     private final long pollInterval;
     private final ConfigurationScheduler scheduler;
+    private final WatchManager watchManager;
     private final LastModifiedSource source;
     private final AuthorizationProvider authorizationProvider;
     private final List<FilterConfigUpdateListener> listeners = new ArrayList<>();
+    private final ConfigWatcher watcher = new ConfigWatcher();
     private ScheduledFuture<?> future = null;
 
     private MutableThreadContextMapFilter(final Filter filter, final LastModifiedSource source,
@@ -83,22 +100,32 @@ public class MutableThreadContextMapFilter extends AbstractFilter {
         this.pollInterval = pollInterval;
         this.source = source;
         this.scheduler = configuration.getScheduler();
+        this.watchManager = configuration.getWatchManager();
         this.authorizationProvider = authorizationProvider;
     }
 
     @Override
     public void start() {
-
-        if (pollInterval > 0) {
-            future = scheduler.scheduleWithFixedDelay(new FileMonitor(), 0, pollInterval, TimeUnit.SECONDS);
-            LOGGER.debug("Watching {} with poll interval {}", source.toString(), pollInterval);
+        if (source != null) {
+            if (watchManager != null) {
+                watchManager.watch(source, watcher);
+            }
+            if (pollInterval > 0) {
+                future = scheduler.scheduleWithFixedDelay(watcher::checkForUpdate, 0, pollInterval, TimeUnit.SECONDS);
+                LOGGER.debug("Watching {} with poll interval {}", source.toString(), pollInterval);
+            }
         }
         super.start();
     }
 
     @Override
     public boolean stop(long timeout, TimeUnit timeUnit) {
-        future.cancel(true);
+        if (future != null) {
+            future.cancel(true);
+        }
+        if (source != null && watchManager != null) {
+            watchManager.unwatch(source);
+        }
         return super.stop(timeout, timeUnit);
     }
 
@@ -277,35 +304,92 @@ public class MutableThreadContextMapFilter extends AbstractFilter {
         }
     }
 
-    private class FileMonitor implements Runnable {
+    /**
+     * Checks the source for changes, either on the poll interval or when the WatchManager checks its sources. The
+     * replacement filter is built in {@link #isModified()} and published in {@link #modified()}.
+     */
+    private class ConfigWatcher implements Watcher {
+
+        private KeyValuePair[] pairs = EMPTY_ARRAY;
+        private Filter pending;
+
+        synchronized void checkForUpdate() {
+            if (isModified()) {
+                modified();
+            }
+        }
 
         @Override
-        public void run() {
+        public synchronized boolean isModified() {
             final ConfigResult result = getConfig(source, authorizationProvider);
             if (result.status == Status.SUCCESS) {
-                filter = ThreadContextMapFilter.newBuilder()
+                if (Arrays.equals(pairs, result.pairs)) {
+                    LOGGER.debug("Filter configuration is unchanged");
+                    return pending != null;
+                }
+                pairs = result.pairs;
+                pending = ThreadContextMapFilter.newBuilder()
                         .setPairs(result.pairs)
                         .setOperator("or")
                         .setOnMatch(getOnMatch())
                         .setOnMismatch(getOnMismatch())
                         .setContextDataInjector(ContextDataInjectorFactory.createInjector())
                         .get();
-                LOGGER.info("Filter configuration was updated: {}", filter.toString());
-                for (FilterConfigUpdateListener listener : listeners) {
-                    listener.onEvent();
-                }
+                return true;
             } else if (result.status == Status.NOT_FOUND) {
                 if (!(filter instanceof NoOpFilter)) {
                     LOGGER.info("Filter configuration was removed");
-                    filter = new NoOpFilter();
-                    for (FilterConfigUpdateListener listener : listeners) {
-                        listener.onEvent();
-                    }
+                    pairs = EMPTY_ARRAY;
+                    pending = new NoOpFilter();
                 }
+                return pending != null;
             } else if (result.status == Status.EMPTY) {
                 LOGGER.debug("Filter configuration is empty");
+                pairs = EMPTY_ARRAY;
+                pending = null;
                 filter = new NoOpFilter();
             }
+            return pending != null;
+        }
+
+        @Override
+        public synchronized void modified() {
+            if (pending == null) {
+                return;
+            }
+            filter = pending;
+            pending = null;
+            if (!(filter instanceof NoOpFilter)) {
+                LOGGER.info("Filter configuration was updated: {}", filter.toString());
+            }
+            for (FilterConfigUpdateListener listener : listeners) {
+                listener.onEvent();
+            }
+        }
+
+        @Override
+        public List<ConfigurationListener> getListeners() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public long getLastModified() {
+            return source.getLastModified();
+        }
+
+        @Override
+        public void watching(final Source source) {
+        }
+
+        @Override
+        public Source getSource() {
+            return source;
+        }
+
+        @Override
+        public Watcher newWatcher(final Reconfigurable reconfigurable, final List<ConfigurationListener> listeners,
+                final long lastModifiedMillis) {
+            return this;
         }
     }
 
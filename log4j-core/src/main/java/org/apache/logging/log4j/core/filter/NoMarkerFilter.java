@@ -33,7 +33,7 @@ import org.apache.logging.log4j.util.PerformanceSensitive;
 @Configurable(elementType = Filter.ELEMENT_TYPE, printObject = true)
 @Plugin
 @PerformanceSensitive("allocation")
-public final class NoMarkerFilter extends AbstractFilter {
+public final class NoMarkerFilter extends AbstractFilter implements ContextFreeFilter {
 
     private NoMarkerFilter(final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
@@ -135,6 +135,11 @@ public final class NoMarkerFilter extends AbstractFilter {
         return null == marker ? onMatch : onMismatch;
     }
 
+    @Override
+    public boolean mayAccept(final Level level) {
+        return onMatch == Result.ACCEPT || onMismatch == Result.ACCEPT;
+    }
+
 
     @PluginFactory
     public static Builder newBuilder() {
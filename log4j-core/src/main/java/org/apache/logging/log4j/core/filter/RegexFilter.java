@@ -21,8 +21,8 @@ import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.message.Message;
-import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.apache.logging.log4j.plugins.Configurable;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginAttribute;
@@ -32,6 +32,7 @@ import org.apache.logging.log4j.plugins.PluginFactory;
 import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -40,7 +41,10 @@ import java.util.regex.Pattern;
  *
  * The "useRawMsg" attribute can be used to indicate whether the regular expression should be applied to the result of
  * calling Message.getMessageFormat (true) or Message.getFormattedMessage() (false). The default is false.
- *
+ * <p>
+ * Reusable messages and parameterized calls are formatted into a buffer reused per thread and matched with a
+ * {@link Matcher} reused per thread, so matching the formatted message does not create a String.
+ * </p>
  */
 @Configurable(elementType = Filter.ELEMENT_TYPE, printObject = true)
 @Plugin
@@ -49,6 +53,8 @@ public final class RegexFilter extends AbstractFilter {
     private static final int DEFAULT_PATTERN_FLAGS = 0;
     private final Pattern pattern;
     private final boolean useRawMessage;
+    private final ThreadLocal<Matcher> threadLocalMatcher = new ThreadLocal<>();
+    private final Predicate<CharSequence> matches = this::matches;
 
     private RegexFilter(final boolean raw, final Pattern pattern, final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
@@ -62,7 +68,7 @@ public final class RegexFilter extends AbstractFilter {
         if (useRawMessage || params == null || params.length == 0) {
             return filter(msg);
         }
-        return filter(ParameterizedMessage.format(msg, params));
+        return MessageText.test(msg, params, matches) ? onMatch : onMismatch;
     }
 
     @Override
@@ -80,22 +86,42 @@ public final class RegexFilter extends AbstractFilter {
         if (msg == null) {
             return onMismatch;
         }
-        final String text = useRawMessage ? msg.getFormat() : msg.getFormattedMessage();
-        return filter(text);
+        return filter(msg);
     }
 
     @Override
     public Result filter(final LogEvent event) {
-        final String text = useRawMessage ? event.getMessage().getFormat() : event.getMessage().getFormattedMessage();
-        return filter(text);
+        return filter(event.getMessage());
+    }
+
+    private Result filter(final Message msg) {
+        if (useRawMessage) {
+            return filter(msg.getFormat());
+        }
+        return MessageText.test(msg, matches) ? onMatch : onMismatch;
     }
 
     private Result filter(final String msg) {
         if (msg == null) {
             return onMismatch;
         }
-        final Matcher m = pattern.matcher(msg);
-        return m.matches() ? onMatch : onMismatch;
+        return matches(msg) ? onMatch : onMismatch;
+    }
+
+    private boolean matches(final CharSequence text) {
+        if (!Constants.ENABLE_THREADLOCALS) {
+            return pattern.matcher(text).matches();
+        }
+        Matcher matcher = threadLocalMatcher.get();
+        if (matcher == null) {
+            matcher = pattern.matcher(text);
+            threadLocalMatcher.set(matcher);
+        } else {
+            matcher.reset(text);
+        }
+        final boolean result = matcher.matches();
+        matcher.reset(""); // do not retain the text
+        return result;
     }
 
     @Override
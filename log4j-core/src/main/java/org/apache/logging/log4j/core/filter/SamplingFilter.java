@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.ContextDataInjector;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.plugins.Configurable;
+import org.apache.logging.log4j.plugins.Inject;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginAttribute;
+import org.apache.logging.log4j.plugins.PluginElement;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.spi.StandardLevel;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a fraction of the events at or below a level. The decision is made by hashing the value of a context data
+ * key, such as a trace id, so that either all or none of the events carrying the same value are kept. Events without
+ * the key are sampled independently. Sampled events get the onMatch result, others the onMismatch result; events
+ * more specific than the level always get the onMatch result.
+ * <p>
+ * Because the hash does not depend on the level, a value kept at a lower rate is also kept at every higher rate:
+ * sampling DEBUG at 10% and TRACE at 1% keeps the TRACE events of a tenth of the requests whose DEBUG events are kept.
+ * </p>
+ */
+@Configurable(elementType = Filter.ELEMENT_TYPE, printObject = true)
+@Plugin
+@PerformanceSensitive("allocation")
+public final class SamplingFilter extends AbstractFilter {
+
+    private static final Level[] STANDARD_LEVELS = new Level[StandardLevel.values().length];
+
+    static {
+        for (final StandardLevel standardLevel : StandardLevel.values()) {
+            STANDARD_LEVELS[standardLevel.ordinal()] = Level.getLevel(standardLevel.name());
+        }
+    }
+
+    /** Threshold of the unsigned 32-bit hash at which every event is kept. */
+    private static final long ALL = 1L << 32;
+
+    @PluginFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractFilter.AbstractFilterBuilder<Builder> implements Supplier<SamplingFilter> {
+        private String key;
+        private Level level;
+        private float rate = 1;
+        private KeyValuePair[] pairs;
+        private ContextDataInjector contextDataInjector;
+
+        /**
+         * Sets the context data key whose value decides whether an event is kept.
+         * @param key the context data key, for example {@code traceId}.
+         * @return this
+         */
+        public Builder setKey(@PluginAttribute final String key) {
+            this.key = key;
+            return this;
+        }
+
+        /**
+         * Sets the most specific level that is sampled, DEBUG by default.
+         * @param level the level.
+         * @return this
+         */
+        public Builder setLevel(@PluginAttribute final Level level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets the fraction of events to keep, between 0 and 1.
+         * @param rate the fraction to keep.
+         * @return this
+         */
+        public Builder setRate(@PluginAttribute final float rate) {
+            this.rate = rate;
+            return this;
+        }
+
+        /**
+         * Overrides the rate for individual levels, given as level name and rate pairs.
+         * @param pairs the level name and rate pairs.
+         * @return this
+         */
+        public Builder setPairs(@PluginElement final KeyValuePair[] pairs) {
+            this.pairs = pairs;
+            return this;
+        }
+
+        @Inject
+        public Builder setContextDataInjector(final ContextDataInjector contextDataInjector) {
+            this.contextDataInjector = contextDataInjector;
+            return this;
+        }
+
+        @Override
+        public SamplingFilter get() {
+            if (contextDataInjector == null) {
+                contextDataInjector = ContextDataInjectorFactory.createInjector();
+            }
+            if (level == null) {
+                level = Level.DEBUG;
+            }
+            final Map<String, Long> overrides = new HashMap<>();
+            if (pairs != null) {
+                for (final KeyValuePair pair : pairs) {
+                    final Level pairLevel = Level.toLevel(pair.getKey(), null);
+                    if (pairLevel == null) {
+                        LOGGER.error("Unknown level '{}' in SamplingFilter", pair.getKey());
+                        continue;
+                    }
+                    try {
+                        overrides.put(pairLevel.name(), threshold(Float.parseFloat(pair.getValue())));
+                    } catch (final NumberFormatException ex) {
+                        LOGGER.error("Invalid SamplingFilter rate '{}' for level {}", pair.getValue(), pairLevel);
+                    }
+                }
+            }
+            return new SamplingFilter(key, level, threshold(rate), overrides, getOnMatch(), getOnMismatch(),
+                    contextDataInjector);
+        }
+    }
+
+    private final String key;
+    private final Level level;
+    private final long threshold;
+    private final Map<String, Long> overrides;
+    private final long[] standardThresholds = new long[STANDARD_LEVELS.length];
+    private final ContextDataInjector injector;
+
+    private SamplingFilter(final String key, final Level level, final long threshold, final Map<String, Long> overrides,
+            final Result onMatch, final Result onMismatch, final ContextDataInjector injector) {
+        super(onMatch, onMismatch);
+        this.key = key;
+        this.level = level;
+        this.threshold = threshold;
+        this.overrides = Collections.unmodifiableMap(overrides);
+        this.injector = injector;
+        for (int i = 0; i < STANDARD_LEVELS.length; i++) {
+            standardThresholds[i] = computeThreshold(STANDARD_LEVELS[i]);
+        }
+    }
+
+    private static long threshold(final float rate) {
+        if (!(rate > 0)) {
+            return 0;
+        }
+        return rate >= 1 ? ALL : (long) (rate * ALL);
+    }
+
+    private long computeThreshold(final Level eventLevel) {
+        final Long override = overrides.get(eventLevel.name());
+        if (override != null) {
+            return override;
+        }
+        return level.isMoreSpecificThan(eventLevel) ? threshold : ALL;
+    }
+
+    private long getThreshold(final Level eventLevel) {
+        final int ordinal = eventLevel.getStandardLevel().ordinal();
+        if (STANDARD_LEVELS[ordinal] == eventLevel) {
+            return standardThresholds[ordinal];
+        }
+        return computeThreshold(eventLevel);
+    }
+
+    /**
+     * Spreads the bits of a hash code with the MurmurHash3 finalizer, since {@link String#hashCode()} of ids that
+     * share a prefix differ mostly in their low bits.
+     */
+    static int mix(final int hashCode) {
+        int h = hashCode;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private Result filter(final Level eventLevel, final Object value) {
+        final long eventThreshold = getThreshold(eventLevel);
+        if (eventThreshold == ALL) {
+            return onMatch;
+        }
+        if (eventThreshold == 0) {
+            return onMismatch;
+        }
+        final int hash = value == null ? ThreadLocalRandom.current().nextInt() : mix(value.hashCode());
+        return (hash & 0xFFFFFFFFL) < eventThreshold ? onMatch : onMismatch;
+    }
+
+    private Result filter(final Level eventLevel) {
+        if (getThreshold(eventLevel) == ALL) {
+            return onMatch;
+        }
+        return filter(eventLevel, key == null ? null : injector.rawContextData().getValue(key));
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        final ReadOnlyStringMap contextData = event.getContextData();
+        return filter(event.getLevel(), key == null || contextData == null ? null : contextData.getValue(key));
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+            final Throwable t) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+            final Throwable t) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object... params) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8, final Object p9) {
+        return filter(level);
+    }
+
+    @Override
+    public boolean mayAccept(final Level eventLevel) {
+        final long eventThreshold = getThreshold(eventLevel);
+        return (eventThreshold != 0 && onMatch == Result.ACCEPT) || (eventThreshold != ALL && onMismatch == Result.ACCEPT);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the fraction of the events at the given level that are kept.
+     * @param eventLevel the event level.
+     * @return the fraction between 0 and 1.
+     */
+    public double getRate(final Level eventLevel) {
+        return (double) getThreshold(eventLevel) / ALL;
+    }
+
+    @Override
+    public String toString() {
+        return "key=" + key + ", level=" + level + ", rate=" + (double) threshold / ALL + ", overrides=" + overrides;
+    }
+}
@@ -22,12 +22,17 @@ import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.MessageFactory;
+import org.apache.logging.log4j.message.ParameterizedMessageFactory;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
 import org.apache.logging.log4j.plugins.Configurable;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.plugins.PluginFactory;
 import org.apache.logging.log4j.util.PerformanceSensitive;
 
+import java.util.function.Predicate;
+
 /**
  * This filter returns the onMatch result if the logging level in the event matches the specified logging level
  * exactly.
@@ -40,81 +45,132 @@ public final class StringMatchFilter extends AbstractFilter {
     public static final String ATTR_MATCH = "match";
     private final String text;
 
+    /**
+     * Whether the text cannot be changed by parameter substitution, so that finding it in the message pattern is
+     * enough to find it in the formatted message.
+     */
+    private final boolean literalText;
+
+    private final Predicate<CharSequence> contains;
+
     private StringMatchFilter(final String text, final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
         this.text = text;
+        this.literalText = text.indexOf('{') < 0 && text.indexOf('}') < 0 && text.indexOf('\\') < 0;
+        this.contains = formatted -> MessageText.contains(formatted, this.text);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
                          final Object... params) {
-        return filter(logger.getMessageFactory().newMessage(msg, params).getFormattedMessage());
+        if (isInPattern(logger, msg)) {
+            return onMatch;
+        }
+        return filter(logger.getMessageFactory().newMessage(msg, params));
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
                          final Throwable t) {
-        return filter(logger.getMessageFactory().newMessage(msg).getFormattedMessage());
+        return filter(logger.getMessageFactory().newMessage(msg));
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
                          final Throwable t) {
-        return filter(msg.getFormattedMessage());
+        return MessageText.test(msg, contains) ? onMatch : onMismatch;
     }
 
     @Override
     public Result filter(final LogEvent event) {
-        return filter(event.getMessage().getFormattedMessage());
+        return MessageText.test(event.getMessage(), contains) ? onMatch : onMismatch;
     }
 
-    private Result filter(final String msg) {
-        return msg.contains(this.text) ? onMatch : onMismatch;
+    private Result filter(final Message msg) {
+        try {
+            return MessageText.test(msg, contains) ? onMatch : onMismatch;
+        } finally {
+            ReusableMessageFactory.release(msg);
+        }
+    }
+
+    /**
+     * Returns whether the text appears in a message pattern that is formatted by substituting {@code {}}
+     * placeholders, in which case it also appears in the formatted message.
+     */
+    private boolean isInPattern(final Logger logger, final String msg) {
+        if (!literalText || msg == null) {
+            return false;
+        }
+        final MessageFactory factory = logger.getMessageFactory();
+        return (factory instanceof ReusableMessageFactory || factory instanceof ParameterizedMessageFactory)
+                && msg.contains(text);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0) {
-        return filter(logger.getMessageFactory().newMessage(msg, p0).getFormattedMessage());
+        if (isInPattern(logger, msg)) {
+            return onMatch;
+        }
+        return filter(logger.getMessageFactory().newMessage(msg, p0));
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1) {
-        return filter(logger.getMessageFactory().newMessage(msg, p0, p1).getFormattedMessage());
+        if (isInPattern(logger, msg)) {
+            return onMatch;
+        }
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1));
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2) {
-        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2).getFormattedMessage());
+        if (isInPattern(logger, msg)) {
+            return onMatch;
+        }
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2));
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3) {
-        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3).getFormattedMessage());
+        if (isInPattern(logger, msg)) {
+            return onMatch;
+        }
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3));
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4) {
-        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4).getFormattedMessage());
+        if (isInPattern(logger, msg)) {
+            return onMatch;
+        }
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4));
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5) {
-        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5).getFormattedMessage());
+        if (isInPattern(logger, msg)) {
+            return onMatch;
+        }
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5));
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6) {
-        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6).getFormattedMessage());
+        if (isInPattern(logger, msg)) {
+            return onMatch;
+        }
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6));
     }
 
     @Override
@@ -122,7 +178,10 @@ public final class StringMatchFilter extends AbstractFilter {
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7) {
-        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7).getFormattedMessage());
+        if (isInPattern(logger, msg)) {
+            return onMatch;
+        }
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7));
     }
 
     @Override
@@ -130,8 +189,10 @@ public final class StringMatchFilter extends AbstractFilter {
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8) {
-        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7, p8)
-                .getFormattedMessage());
+        if (isInPattern(logger, msg)) {
+            return onMatch;
+        }
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7, p8));
     }
 
     @Override
@@ -139,8 +200,10 @@ public final class StringMatchFilter extends AbstractFilter {
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8, final Object p9) {
-        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9)
-                .getFormattedMessage());
+        if (isInPattern(logger, msg)) {
+            return onMatch;
+        }
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9));
     }
 
     @Override
@@ -118,7 +118,7 @@ public class ThreadContextMapFilter extends MapFilter {
                     currentContextData = currentContextData();
                 }
                 final String toMatch = currentContextData.getValue(map.getKeyAt(i));
-                match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
+                match = containsValueAt(i, toMatch);
                 if ((!isAnd() && match) || (isAnd() && !match)) {
                     break;
                 }
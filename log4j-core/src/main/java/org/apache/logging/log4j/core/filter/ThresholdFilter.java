@@ -39,7 +39,7 @@ import org.apache.logging.log4j.util.PerformanceSensitive;
 @Configurable(elementType = Filter.ELEMENT_TYPE, printObject = true)
 @Plugin
 @PerformanceSensitive("allocation")
-public final class ThresholdFilter extends AbstractFilter {
+public final class ThresholdFilter extends AbstractFilter implements ContextFreeFilter {
 
     private final Level level;
 
@@ -148,6 +148,11 @@ public final class ThresholdFilter extends AbstractFilter {
         return level;
     }
 
+    @Override
+    public boolean mayAccept(final Level level) {
+        return filter(level) == Result.ACCEPT;
+    }
+
     @Override
     public String toString() {
         return level.toString();
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tracks how often throwables of the same {@link ThrowableFingerprint} are logged, so that layouts can write a stack
+ * trace in full only the first time it is seen within a time window and a short reference afterwards:
+ * <pre>
+ * trace_id=&lt;id&gt;
+ * java.lang.IllegalStateException: ...
+ *     at ...
+ * ...
+ * trace_id=&lt;id&gt; repeat=1
+ * trace_id=&lt;id&gt; repeat=2
+ * </pre>
+ * The number of tracked fingerprints is bounded; the least recently seen ones are forgotten first.
+ */
+public final class StackTraceDeduplicator {
+
+    /**
+     * The key written in front of the fingerprint identifier.
+     */
+    public static final String TRACE_ID = "trace_id=";
+
+    /**
+     * The key written in front of the repeat count.
+     */
+    public static final String REPEAT = " repeat=";
+
+    private static final int MAX_TRACKED = 1024;
+
+    private final long windowMillis;
+
+    private final Map<ThrowableFingerprint, Occurrences> occurrences =
+            new LinkedHashMap<ThrowableFingerprint, Occurrences>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<ThrowableFingerprint, Occurrences> eldest) {
+                    return size() > MAX_TRACKED;
+                }
+            };
+
+    /**
+     * Creates a deduplicator.
+     *
+     * @param windowMillis the time window in milliseconds after which a stack trace is written in full again.
+     */
+    public StackTraceDeduplicator(final long windowMillis) {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("windowMillis must be positive: " + windowMillis);
+        }
+        this.windowMillis = windowMillis;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * Records an occurrence of the specified fingerprint.
+     *
+     * @param fingerprint the fingerprint of the logged throwable.
+     * @param timeMillis the time of the log event.
+     * @return zero if the stack trace must be written in full, otherwise the number of times it has been repeated
+     *         since it was last written in full.
+     */
+    public int record(final ThrowableFingerprint fingerprint, final long timeMillis) {
+        synchronized (occurrences) {
+            final Occurrences existing = occurrences.get(fingerprint);
+            if (existing == null || timeMillis - existing.windowStart >= windowMillis
+                    || timeMillis < existing.windowStart) {
+                occurrences.put(fingerprint, new Occurrences(timeMillis));
+                return 0;
+            }
+            return ++existing.repeats;
+        }
+    }
+
+    /**
+     * Appends the line written before a stack trace that is written in full.
+     *
+     * @param fingerprint the fingerprint of the throwable.
+     * @param destination the buffer to append to.
+     */
+    public static void appendHeader(final ThrowableFingerprint fingerprint, final StringBuilder destination) {
+        destination.append(TRACE_ID).append(fingerprint.getId());
+    }
+
+    /**
+     * Appends the reference written instead of a repeated stack trace.
+     *
+     * @param fingerprint the fingerprint of the throwable.
+     * @param repeats the value returned by {@link #record(ThrowableFingerprint, long)}.
+     * @param destination the buffer to append to.
+     */
+    public static void appendReference(final ThrowableFingerprint fingerprint, final int repeats,
+            final StringBuilder destination) {
+        destination.append(TRACE_ID).append(fingerprint.getId()).append(REPEAT).append(repeats);
+    }
+
+    private static final class Occurrences {
+        private final long windowStart;
+        private int repeats;
+
+        Occurrences(final long windowStart) {
+            this.windowStart = windowStart;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Value object identifying the <em>shape</em> of a {@link Throwable}: the class name, message, string representation
+ * and stack frames of the throwable, its causes and its suppressed throwables. Two throwables with equal fingerprints render to
+ * the same stack trace text, so the fingerprint can be used as a key to cache renderings of repeated exceptions.
+ * <p>
+ * Computing a fingerprint is much cheaper than creating a {@link ThrowableProxy}: it does not resolve class loaders,
+ * code sources or package versions.
+ * </p>
+ */
+public final class ThrowableFingerprint {
+
+    private static final String CAUSE = "cause";
+    private static final String SUPPRESSED = "suppressed";
+    private static final String END = "end";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Object[] elements;
+    private final int hashCode;
+    private String id;
+
+    private ThrowableFingerprint(final Object[] elements) {
+        this.elements = elements;
+        this.hashCode = Arrays.deepHashCode(elements);
+    }
+
+    /**
+     * Computes the fingerprint of the specified throwable.
+     *
+     * @param throwable the throwable, not null.
+     * @return the fingerprint.
+     */
+    public static ThrowableFingerprint of(final Throwable throwable) {
+        final List<Object> elements = new ArrayList<>();
+        add(throwable, elements, new IdentityHashMap<>());
+        return new ThrowableFingerprint(elements.toArray());
+    }
+
+    private static void add(final Throwable throwable, final List<Object> elements,
+            final Map<Throwable, Integer> visited) {
+        final Integer previous = visited.putIfAbsent(throwable, visited.size());
+        if (previous != null) {
+            // back-reference, keeps circular causes finite while still distinguishing the graph shape
+            elements.add(previous);
+            return;
+        }
+        elements.add(throwable.getClass().getName());
+        // The text rendered for the throwable: its message for the extended stack trace, toString() otherwise
+        elements.add(throwable.getMessage());
+        elements.add(throwable.toString());
+        elements.add(throwable.getStackTrace());
+        final Throwable[] suppressed = throwable.getSuppressed();
+        for (final Throwable s : suppressed) {
+            elements.add(SUPPRESSED);
+            add(s, elements, visited);
+        }
+        final Throwable cause = throwable.getCause();
+        if (cause != null) {
+            elements.add(CAUSE);
+            add(cause, elements, visited);
+        }
+        elements.add(END);
+    }
+
+    /**
+     * Returns a short identifier for this fingerprint: 16 hexadecimal digits of a 64-bit hash, stable across JVM runs
+     * for the same throwable shape.
+     *
+     * @return the identifier.
+     */
+    public String getId() {
+        String result = id;
+        if (result == null) {
+            long hash = 0xcbf29ce484222325L;
+            for (final Object element : elements) {
+                if (element instanceof StackTraceElement[]) {
+                    for (final StackTraceElement frame : (StackTraceElement[]) element) {
+                        hash = (hash ^ frame.hashCode()) * 0x100000001b3L;
+                    }
+                } else {
+                    hash = (hash ^ (element == null ? 0 : element.hashCode())) * 0x100000001b3L;
+                }
+            }
+            final char[] chars = new char[16];
+            for (int i = chars.length - 1; i >= 0; i--) {
+                chars[i] = HEX_DIGITS[(int) (hash & 0xf)];
+                hash >>>= 4;
+            }
+            result = new String(chars);
+            id = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ThrowableFingerprint)) {
+            return false;
+        }
+        final ThrowableFingerprint other = (ThrowableFingerprint) obj;
+        return hashCode == other.hashCode && Arrays.deepEquals(elements, other.elements);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
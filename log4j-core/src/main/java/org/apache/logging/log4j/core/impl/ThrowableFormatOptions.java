@@ -72,6 +72,12 @@ public final class ThrowableFormatOptions {
 
     private final String suffix;
 
+    /**
+     * The time window in milliseconds within which repeated stack traces are replaced by a reference, zero if stack
+     * traces are not deduplicated.
+     */
+    private final long deduplicationWindowMillis;
+
     /**
      * The list of packages to filter.
      */
@@ -99,11 +105,33 @@ public final class ThrowableFormatOptions {
      */
     protected ThrowableFormatOptions(final int lines, final String separator, final List<String> ignorePackages,
             final TextRenderer textRenderer, final String suffix) {
+        this(lines, separator, ignorePackages, textRenderer, suffix, 0);
+    }
+
+    /**
+     * Constructs the options for printing stack trace.
+     *
+     * @param lines
+     *            The number of lines.
+     * @param separator
+     *            The stack trace separator.
+     * @param ignorePackages
+     *            The packages to filter.
+     * @param textRenderer
+     *            The ANSI renderer
+     * @param suffix
+     *            The suffix pattern.
+     * @param deduplicationWindowMillis
+     *            The stack trace deduplication window in milliseconds, zero to disable deduplication.
+     */
+    protected ThrowableFormatOptions(final int lines, final String separator, final List<String> ignorePackages,
+            final TextRenderer textRenderer, final String suffix, final long deduplicationWindowMillis) {
         this.lines = lines;
         this.separator = separator == null ? Strings.LINE_SEPARATOR : separator;
         this.ignorePackages = ignorePackages;
         this.textRenderer = textRenderer == null ? PlainTextRenderer.getInstance() : textRenderer;
         this.suffix = suffix;
+        this.deduplicationWindowMillis = deduplicationWindowMillis;
     }
 
     /**
@@ -159,6 +187,16 @@ public final class ThrowableFormatOptions {
         return this.ignorePackages;
     }
 
+    /**
+     * Returns the time window in milliseconds within which a repeated stack trace is replaced by a reference to the
+     * first occurrence.
+     *
+     * @return The deduplication window in milliseconds, zero if stack traces are not deduplicated.
+     */
+    public long getDeduplicationWindowMillis() {
+        return deduplicationWindowMillis;
+    }
+
     /**
      * Determines if all lines should be printed.
      *
@@ -215,6 +253,9 @@ public final class ThrowableFormatOptions {
             s.deleteCharAt(s.length() - 1);
             s.append(")}");
         }
+        if (deduplicationWindowMillis > 0) {
+            s.append("{dedup(").append(deduplicationWindowMillis).append(")}");
+        }
         return s.toString();
     }
 
@@ -251,6 +292,7 @@ public final class ThrowableFormatOptions {
         List<String> packages = DEFAULT.ignorePackages;
         TextRenderer ansiRenderer = DEFAULT.textRenderer;
         String suffix = DEFAULT.getSuffix();
+        long deduplicationWindowMillis = DEFAULT.deduplicationWindowMillis;
         for (final String rawOption : options) {
             if (rawOption != null) {
                 final String option = rawOption.trim();
@@ -293,12 +335,21 @@ public final class ThrowableFormatOptions {
                     suffix = option.substring("S(".length(), option.length() - 1);
                 } else if (option.startsWith("suffix(") && option.endsWith(")")){
                     suffix = option.substring("suffix(".length(), option.length() - 1);
+                } else if (option.startsWith("dedup(") && option.endsWith(")")) {
+                    final String window = option.substring("dedup(".length(), option.length() - 1).trim();
+                    try {
+                        deduplicationWindowMillis = Long.parseLong(window);
+                    } catch (final NumberFormatException ex) {
+                        StatusLogger.getLogger().error("Invalid stack trace deduplication window '{}', "
+                                + "deduplication is disabled", window);
+                        deduplicationWindowMillis = 0;
+                    }
                 } else if (!option.equalsIgnoreCase(FULL)) {
                     lines = Integer.parseInt(option);
                 }
             }
         }
-        return new ThrowableFormatOptions(lines, separator, packages, ansiRenderer, suffix);
+        return new ThrowableFormatOptions(lines, separator, packages, ansiRenderer, suffix, deduplicationWindowMillis);
     }
 
     public String getSuffix() {
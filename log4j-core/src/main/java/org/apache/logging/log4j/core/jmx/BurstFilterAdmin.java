@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import java.util.Objects;
+
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.core.filter.BurstFilter;
+
+/**
+ * Implementation of the {@code BurstFilterAdminMBean} interface.
+ */
+public class BurstFilterAdmin implements BurstFilterAdminMBean {
+
+    private final String contextName;
+    private final BurstFilter filter;
+    private final ObjectName objectName;
+
+    /**
+     * Constructs a new {@code BurstFilterAdmin} with the specified contextName
+     * and filter.
+     *
+     * @param contextName used in the {@code ObjectName} for this mbean
+     * @param filter the instrumented object, which must have a name
+     */
+    public BurstFilterAdmin(final String contextName, final BurstFilter filter) {
+        this.contextName = Objects.requireNonNull(contextName, "contextName");
+        this.filter = Objects.requireNonNull(filter, "filter");
+        try {
+            final String ctxName = Server.escape(this.contextName);
+            final String filterName = Server.escape(Objects.requireNonNull(filter.getName(), "name"));
+            final String name = String.format(PATTERN, ctxName, filterName);
+            objectName = new ObjectName(name);
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the {@code ObjectName} of this mbean.
+     *
+     * @return the {@code ObjectName}
+     * @see BurstFilterAdminMBean#PATTERN
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public String getName() {
+        return filter.getName();
+    }
+
+    @Override
+    public String getLevel() {
+        return filter.getLevel().name();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return filter.getDroppedCount();
+    }
+
+    @Override
+    public int getKeyCount() {
+        return filter.getKeyCount();
+    }
+
+    @Override
+    public long getDroppedCount(final String key) {
+        return filter.getDroppedCount(key);
+    }
+}
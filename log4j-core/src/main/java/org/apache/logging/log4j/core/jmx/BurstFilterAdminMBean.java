@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * The MBean interface for monitoring a named {@code BurstFilter}.
+ */
+public interface BurstFilterAdminMBean {
+    /**
+     * ObjectName pattern ({@value}) for BurstFilterAdmin MBeans.
+     * This pattern contains two variables, where the first is the
+     * name of the context, the second is the name of the instrumented filter.
+     * <p>
+     * You can find all registered BurstFilterAdmin MBeans like this:
+     * </p>
+     * <pre>
+     * MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+     * String pattern = String.format(BurstFilterAdminMBean.PATTERN, &quot;*&quot;, &quot;*&quot;);
+     * Set&lt;ObjectName&gt; filterNames = mbs.queryNames(new ObjectName(pattern), null);
+     * </pre>
+     * @see Server#escape(String)
+     */
+    String PATTERN = Server.DOMAIN + ":type=%s,component=BurstFilters,name=%s";
+
+    /**
+     * Returns the name of the instrumented {@code BurstFilter}.
+     *
+     * @return the name of the filter
+     */
+    String getName();
+
+    /**
+     * Returns the level at and below which events are rate limited.
+     *
+     * @return the name of the level
+     */
+    String getLevel();
+
+    /**
+     * Returns the total number of events rejected by the filter.
+     *
+     * @return the number of rejected events
+     */
+    long getDroppedCount();
+
+    /**
+     * Returns the number of keys that currently have their own burst window.
+     *
+     * @return the number of keyed windows
+     */
+    int getKeyCount();
+
+    /**
+     * Returns the number of events rejected for the specified key while its window has been retained.
+     *
+     * @param key the logger name, marker name or context value the filter is keyed by
+     * @return the number of rejected events for the key
+     */
+    long getDroppedCount(String key);
+}
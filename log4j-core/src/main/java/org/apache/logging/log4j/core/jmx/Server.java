@@ -18,11 +18,16 @@ package org.apache.logging.log4j.core.jmx;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.appender.AsyncAppender;
 import org.apache.logging.log4j.core.async.AsyncLoggerConfig;
 import org.apache.logging.log4j.core.async.AsyncLoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.filter.AbstractFilterable;
+import org.apache.logging.log4j.core.filter.BurstFilter;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
 import org.apache.logging.log4j.core.impl.Log4jContextFactory;
 import org.apache.logging.log4j.core.selector.ContextSelector;
 import org.apache.logging.log4j.core.util.Log4jThreadFactory;
@@ -38,6 +43,7 @@ import javax.management.MBeanServer;
 import javax.management.NotCompliantMBeanException;
 import javax.management.ObjectName;
 import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -183,6 +189,7 @@ public final class Server {
 
                 registerLoggerConfigs(ctx, mbs, executor);
                 registerAppenders(ctx, mbs, executor);
+                registerBurstFilters(ctx, mbs);
             }
         } catch (final Exception ex) {
             LOGGER.error("Could not register mbeans", ex);
@@ -215,6 +222,7 @@ public final class Server {
 			unregisterAsyncLoggerConfigRingBufferAdmins(CONTEXT_NAME_ALL, mbs);
 			unregisterAppenders(CONTEXT_NAME_ALL, mbs);
 			unregisterAsyncAppenders(CONTEXT_NAME_ALL, mbs);
+			unregisterBurstFilters(CONTEXT_NAME_ALL, mbs);
 		}
 	}
 
@@ -263,6 +271,7 @@ public final class Server {
         unregisterLoggerConfigs(contextName, mbs);
         unregisterAppenders(contextName, mbs);
         unregisterAsyncAppenders(contextName, mbs);
+        unregisterBurstFilters(contextName, mbs);
         unregisterAsyncLoggerRingBufferAdmins(contextName, mbs);
         unregisterAsyncLoggerConfigRingBufferAdmins(contextName, mbs);
     }
@@ -316,6 +325,12 @@ public final class Server {
         unregisterAllMatching(search, mbs);
     }
 
+    private static void unregisterBurstFilters(final String contextName, final MBeanServer mbs) {
+        final String pattern = BurstFilterAdminMBean.PATTERN;
+        final String search = String.format(pattern, escape(contextName), "*");
+        unregisterAllMatching(search, mbs);
+    }
+
     private static void unregisterAsyncLoggerRingBufferAdmins(final String contextName, final MBeanServer mbs) {
         final String pattern1 = RingBufferAdminMBean.PATTERN_ASYNC_LOGGER;
         final String search1 = String.format(pattern1, escape(contextName));
@@ -384,6 +399,36 @@ public final class Server {
         }
     }
 
+    private static void registerBurstFilters(final LoggerContext ctx, final MBeanServer mbs)
+            throws InstanceAlreadyExistsException, MBeanRegistrationException, NotCompliantMBeanException {
+
+        final Configuration config = ctx.getConfiguration();
+        final List<BurstFilter> filters = new ArrayList<>();
+        collectBurstFilters(config.getFilter(), filters);
+        for (final LoggerConfig loggerConfig : config.getLoggers().values()) {
+            collectBurstFilters(loggerConfig.getFilter(), filters);
+        }
+        for (final Appender appender : config.getAppenders().values()) {
+            if (appender instanceof AbstractFilterable) {
+                collectBurstFilters(((AbstractFilterable) appender).getFilter(), filters);
+            }
+        }
+        for (final BurstFilter filter : filters) {
+            final BurstFilterAdmin mbean = new BurstFilterAdmin(ctx.getName(), filter);
+            register(mbs, mbean, mbean.getObjectName());
+        }
+    }
+
+    private static void collectBurstFilters(final Filter filter, final List<BurstFilter> filters) {
+        if (filter instanceof CompositeFilter) {
+            for (final Filter child : ((CompositeFilter) filter).getFiltersArray()) {
+                collectBurstFilters(child, filters);
+            }
+        } else if (filter instanceof BurstFilter && ((BurstFilter) filter).getName() != null) {
+            filters.add((BurstFilter) filter);
+        }
+    }
+
     private static void register(final MBeanServer mbs, final Object mbean, final ObjectName objectName)
             throws InstanceAlreadyExistsException, MBeanRegistrationException, NotCompliantMBeanException {
         if (mbs.isRegistered(objectName)) {
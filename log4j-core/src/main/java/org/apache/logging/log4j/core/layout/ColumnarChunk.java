@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.util.TriConsumer;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Accumulates log events column by column and writes them as a single block in the format described by
+ * {@link ColumnarLayout}.
+ * <p>
+ * The values of an event are copied into the columns when the event is {@link #add(LogEvent) added}, so mutable
+ * events can be reused afterwards. Instances are not thread-safe and must be {@link #close() closed} to release the
+ * native resources of the compressor.
+ * </p>
+ */
+public final class ColumnarChunk implements AutoCloseable {
+
+    /**
+     * Column type of the epoch millisecond timestamps: {@value}.
+     */
+    public static final byte TYPE_TIMESTAMP = 1;
+
+    /**
+     * Column type of dictionary encoded strings: {@value}.
+     */
+    public static final byte TYPE_DICTIONARY = 2;
+
+    /**
+     * Column type of nullable strings: {@value}.
+     */
+    public static final byte TYPE_STRING = 3;
+
+    /**
+     * Column type of string maps with dictionary encoded keys: {@value}.
+     */
+    public static final byte TYPE_MAP = 4;
+
+    /**
+     * The format version written in each block header: {@value}.
+     */
+    public static final byte VERSION = 1;
+
+    static final byte[] MAGIC = {'L', '4', 'J', 'C'};
+
+    static final byte COMPRESSION_NONE = 0;
+
+    static final byte COMPRESSION_DEFLATE = 1;
+
+    private static final int COLUMN_COUNT = 7;
+
+    private static final int STORED_LENGTH_OFFSET = MAGIC.length + 2 + 4 + 4;
+
+    private static final int HEADER_LENGTH = STORED_LENGTH_OFFSET + 4;
+
+    private static final TriConsumer<String, Object, ColumnarChunk> CONTEXT_DATA_APPENDER =
+            (key, value, chunk) -> chunk.addContextEntry(key, value);
+
+    private final int capacity;
+    private final boolean includeStacktrace;
+    private final Deflater deflater;
+
+    private final long[] timestamps;
+    private final int[] levels;
+    private final int[] loggers;
+    private final int[] threads;
+    private final String[] messages;
+    private final String[] thrown;
+    private final int[] contextEnds;
+    private int[] contextKeys = new int[16];
+    private String[] contextValues = new String[16];
+    private int contextSize;
+
+    private final Dictionary levelDictionary = new Dictionary();
+    private final Dictionary loggerDictionary = new Dictionary();
+    private final Dictionary threadDictionary = new Dictionary();
+    private final Dictionary contextKeyDictionary = new Dictionary();
+
+    private final Output payload = new Output();
+    private final Output block = new Output();
+    private int size;
+
+    /**
+     * Creates a chunk.
+     *
+     * @param capacity the maximum number of events of the chunk
+     * @param compressionLevel the deflate compression level, or {@code null} to leave the payload uncompressed
+     * @param includeStacktrace whether to write the full stack trace, or only {@link Throwable#toString()}
+     */
+    ColumnarChunk(final int capacity, final Integer compressionLevel, final boolean includeStacktrace) {
+        this.capacity = capacity;
+        this.includeStacktrace = includeStacktrace;
+        this.deflater = compressionLevel == null ? null : new Deflater(compressionLevel);
+        this.timestamps = new long[capacity];
+        this.levels = new int[capacity];
+        this.loggers = new int[capacity];
+        this.threads = new int[capacity];
+        this.messages = new String[capacity];
+        this.thrown = new String[capacity];
+        this.contextEnds = new int[capacity];
+    }
+
+    /**
+     * Copies the values of the given event into the columns of this chunk.
+     *
+     * @param event the event to add
+     * @throws IllegalStateException if the chunk is full
+     */
+    public void add(final LogEvent event) {
+        if (size == capacity) {
+            throw new IllegalStateException("Columnar chunk is full: " + capacity + " events");
+        }
+        timestamps[size] = event.getTimeMillis();
+        levels[size] = levelDictionary.indexOf(event.getLevel().name());
+        loggers[size] = loggerDictionary.indexOf(event.getLoggerName());
+        threads[size] = threadDictionary.indexOf(event.getThreadName());
+        messages[size] = event.getMessage().getFormattedMessage();
+        final Throwable throwable = event.getThrown();
+        thrown[size] = throwable == null ? null : includeStacktrace ? formatThrowable(throwable) : throwable.toString();
+        event.getContextData().forEach(CONTEXT_DATA_APPENDER, this);
+        contextEnds[size] = contextSize;
+        size++;
+    }
+
+    private void addContextEntry(final String key, final Object value) {
+        if (contextSize == contextKeys.length) {
+            contextKeys = Arrays.copyOf(contextKeys, contextSize * 2);
+            contextValues = Arrays.copyOf(contextValues, contextSize * 2);
+        }
+        contextKeys[contextSize] = contextKeyDictionary.indexOf(key);
+        contextValues[contextSize] = value == null ? null : String.valueOf(value);
+        contextSize++;
+    }
+
+    private static String formatThrowable(final Throwable throwable) {
+        final StringWriter sw = new StringWriter(2048);
+        final PrintWriter pw = new PrintWriter(sw);
+        throwable.printStackTrace(pw);
+        pw.flush();
+        return sw.toString();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Writes the events of this chunk as a single block to the given destination and {@link #clear() clears} the
+     * chunk. Nothing is written if the chunk is empty.
+     *
+     * @param destination the destination of the block
+     */
+    public void writeTo(final ByteBufferDestination destination) {
+        if (size == 0) {
+            return;
+        }
+        encode();
+        destination.writeBytes(block.bytes, 0, block.length);
+        clear();
+    }
+
+    /**
+     * Returns the events of this chunk as a single block and {@link #clear() clears} the chunk.
+     *
+     * @return the encoded block, empty if the chunk is empty
+     */
+    public byte[] toByteArray() {
+        if (size == 0) {
+            return new byte[0];
+        }
+        encode();
+        final byte[] result = Arrays.copyOf(block.bytes, block.length);
+        clear();
+        return result;
+    }
+
+    /**
+     * Removes all events from this chunk, keeping the allocated columns for reuse.
+     */
+    public void clear() {
+        Arrays.fill(messages, 0, size, null);
+        Arrays.fill(thrown, 0, size, null);
+        Arrays.fill(contextValues, 0, contextSize, null);
+        levelDictionary.clear();
+        loggerDictionary.clear();
+        threadDictionary.clear();
+        contextKeyDictionary.clear();
+        contextSize = 0;
+        size = 0;
+    }
+
+    @Override
+    public void close() {
+        if (deflater != null) {
+            deflater.end();
+        }
+    }
+
+    private void encode() {
+        final Output out = payload;
+        out.length = 0;
+        out.writeVarint(COLUMN_COUNT);
+
+        out.writeString("timestamp");
+        out.writeByte(TYPE_TIMESTAMP);
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            out.writeVarlong(zigZag(timestamps[i] - previous));
+            previous = timestamps[i];
+        }
+
+        writeDictionaryColumn(out, "level", levelDictionary, levels);
+        writeDictionaryColumn(out, "logger", loggerDictionary, loggers);
+        writeDictionaryColumn(out, "thread", threadDictionary, threads);
+        writeStringColumn(out, "message", messages);
+        writeStringColumn(out, "thrown", thrown);
+
+        out.writeString("context");
+        out.writeByte(TYPE_MAP);
+        writeDictionary(out, contextKeyDictionary);
+        int start = 0;
+        for (int i = 0; i < size; i++) {
+            final int end = contextEnds[i];
+            out.writeVarint(end - start);
+            for (int j = start; j < end; j++) {
+                out.writeVarint(contextKeys[j]);
+                out.writeString(contextValues[j]);
+            }
+            start = end;
+        }
+
+        block.length = 0;
+        block.writeBytes(MAGIC, 0, MAGIC.length);
+        block.writeByte(VERSION);
+        block.writeByte(deflater == null ? COMPRESSION_NONE : COMPRESSION_DEFLATE);
+        block.writeInt(size);
+        block.writeInt(out.length);
+        block.writeInt(0);
+        if (deflater == null) {
+            block.writeBytes(out.bytes, 0, out.length);
+        } else {
+            deflater.reset();
+            deflater.setInput(out.bytes, 0, out.length);
+            deflater.finish();
+            while (!deflater.finished()) {
+                block.ensureCapacity(block.length + Math.max(out.length / 4, 64));
+                block.length += deflater.deflate(block.bytes, block.length, block.bytes.length - block.length);
+            }
+        }
+        block.setInt(STORED_LENGTH_OFFSET, block.length - HEADER_LENGTH);
+    }
+
+    private void writeDictionaryColumn(final Output out, final String name, final Dictionary dictionary,
+            final int[] indexes) {
+        out.writeString(name);
+        out.writeByte(TYPE_DICTIONARY);
+        writeDictionary(out, dictionary);
+        for (int i = 0; i < size; i++) {
+            out.writeVarint(indexes[i]);
+        }
+    }
+
+    private static void writeDictionary(final Output out, final Dictionary dictionary) {
+        out.writeVarint(dictionary.values.size());
+        for (final String value : dictionary.values) {
+            out.writeString(value);
+        }
+    }
+
+    private void writeStringColumn(final Output out, final String name, final String[] values) {
+        out.writeString(name);
+        out.writeByte(TYPE_STRING);
+        for (int i = 0; i < size; i++) {
+            out.writeString(values[i]);
+        }
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Maps the distinct values of a column to their index in the block.
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int indexOf(final String value) {
+            final Integer index = indexes.get(value);
+            if (index != null) {
+                return index;
+            }
+            final int newIndex = values.size();
+            values.add(value);
+            indexes.put(value, newIndex);
+            return newIndex;
+        }
+
+        void clear() {
+            indexes.clear();
+            values.clear();
+        }
+    }
+
+    /**
+     * A growable byte array with the primitive encodings of the block format.
+     */
+    private static final class Output {
+
+        private byte[] bytes = new byte[1024];
+        private int length;
+
+        void ensureCapacity(final int minCapacity) {
+            if (minCapacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(minCapacity, bytes.length * 2));
+            }
+        }
+
+        void writeByte(final int value) {
+            ensureCapacity(length + 1);
+            bytes[length++] = (byte) value;
+        }
+
+        void writeBytes(final byte[] data, final int offset, final int count) {
+            ensureCapacity(length + count);
+            System.arraycopy(data, offset, bytes, length, count);
+            length += count;
+        }
+
+        void writeInt(final int value) {
+            ensureCapacity(length + 4);
+            setInt(length, value);
+            length += 4;
+        }
+
+        void setInt(final int offset, final int value) {
+            bytes[offset] = (byte) (value >>> 24);
+            bytes[offset + 1] = (byte) (value >>> 16);
+            bytes[offset + 2] = (byte) (value >>> 8);
+            bytes[offset + 3] = (byte) value;
+        }
+
+        void writeVarint(final int value) {
+            writeVarlong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarlong(long value) {
+            ensureCapacity(length + 10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void writeString(final String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length + 1);
+            writeBytes(utf8, 0, utf8.length);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.plugins.Configurable;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.plugins.PluginFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import static org.apache.logging.log4j.util.Constants.isThreadLocalsEnabled;
+
+/**
+ * Lays out log events as self-describing columnar blocks, so archive files can be read by analytics tooling without
+ * an intermediate conversion step.
+ * <p>
+ * Each block starts with the magic bytes {@code L4JC} followed by a format version byte, a compression byte
+ * ({@code 0} for none, {@code 1} for zlib deflate), the row count, the uncompressed payload length and the stored
+ * payload length (all big-endian 32-bit integers). The payload lists its columns, each one as a name, a type byte and
+ * the column data:
+ * </p>
+ * <ul>
+ * <li>{@code timestamp} ({@value ColumnarChunk#TYPE_TIMESTAMP}): epoch milliseconds, the first value followed by
+ * deltas, all zig-zag variable-length encoded.</li>
+ * <li>{@code level}, {@code logger}, {@code thread} ({@value ColumnarChunk#TYPE_DICTIONARY}): the distinct values of
+ * the block, followed by one dictionary index per row.</li>
+ * <li>{@code message}, {@code thrown} ({@value ColumnarChunk#TYPE_STRING}): one nullable string per row.</li>
+ * <li>{@code context} ({@value ColumnarChunk#TYPE_MAP}): a dictionary of the context data keys of the block, followed
+ * per row by the entry count and the key index and value of each entry.</li>
+ * </ul>
+ * <p>
+ * Counts, lengths and indexes are unsigned variable-length integers; strings are encoded as their UTF-8 length plus
+ * one (zero denotes {@code null}) followed by the UTF-8 bytes.
+ * </p>
+ * <p>
+ * Used on its own, this layout writes one block per event, reusing a single-row chunk per thread when thread locals
+ * are enabled. The {@code RollingColumnarFile} appender accumulates {@link #getChunkSize() chunkSize} events in a
+ * {@link ColumnarChunk} before writing a block.
+ * </p>
+ */
+@Configurable(elementType = Layout.ELEMENT_TYPE, printObject = true)
+@Plugin
+public final class ColumnarLayout extends AbstractLayout<byte[]> {
+
+    /**
+     * The compression applied to the payload of each block.
+     */
+    public enum Compression {
+        NONE, DEFLATE
+    }
+
+    /**
+     * The default number of events per block: {@value}.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private static final String CONTENT_TYPE = "application/octet-stream";
+
+    public static class Builder<B extends Builder<B>> extends AbstractLayout.Builder<B>
+            implements org.apache.logging.log4j.plugins.util.Builder<ColumnarLayout> {
+
+        @PluginBuilderAttribute
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+        @PluginBuilderAttribute
+        private Compression compression = Compression.DEFLATE;
+
+        @PluginBuilderAttribute
+        private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+        @PluginBuilderAttribute
+        private boolean includeStacktrace = true;
+
+        @Override
+        public ColumnarLayout build() {
+            if (chunkSize <= 0) {
+                LOGGER.error("ColumnarLayout: invalid chunkSize {}, using {}", chunkSize, DEFAULT_CHUNK_SIZE);
+                chunkSize = DEFAULT_CHUNK_SIZE;
+            }
+            return new ColumnarLayout(getConfiguration(), chunkSize, compression, compressionLevel,
+                    includeStacktrace);
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public Compression getCompression() {
+            return compression;
+        }
+
+        public int getCompressionLevel() {
+            return compressionLevel;
+        }
+
+        public boolean isIncludeStacktrace() {
+            return includeStacktrace;
+        }
+
+        public B setChunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+            return asBuilder();
+        }
+
+        public B setCompression(final Compression compression) {
+            this.compression = compression;
+            return asBuilder();
+        }
+
+        public B setCompressionLevel(final int compressionLevel) {
+            this.compressionLevel = compressionLevel;
+            return asBuilder();
+        }
+
+        public B setIncludeStacktrace(final boolean includeStacktrace) {
+            this.includeStacktrace = includeStacktrace;
+            return asBuilder();
+        }
+    }
+
+    private final int chunkSize;
+    private final Compression compression;
+    private final int compressionLevel;
+    private final boolean includeStacktrace;
+
+    /**
+     * The single-row chunk of the current thread, used when thread locals are enabled.
+     */
+    private final ThreadLocal<ColumnarChunk> singleEventChunk = new ThreadLocal<>();
+
+    private ColumnarLayout(final Configuration config, final int chunkSize, final Compression compression,
+            final int compressionLevel, final boolean includeStacktrace) {
+        super(config, null, null);
+        this.chunkSize = chunkSize;
+        this.compression = compression == null ? Compression.DEFLATE : compression;
+        this.compressionLevel = compressionLevel;
+        this.includeStacktrace = includeStacktrace;
+    }
+
+    @PluginFactory
+    public static <B extends Builder<B>> B newBuilder() {
+        return new Builder<B>().asBuilder();
+    }
+
+    /**
+     * Creates a chunk accumulating up to {@link #getChunkSize()} events. Chunks are not thread-safe.
+     *
+     * @return a new, empty chunk.
+     */
+    public ColumnarChunk newChunk() {
+        return newChunk(chunkSize);
+    }
+
+    private ColumnarChunk newChunk(final int capacity) {
+        return new ColumnarChunk(capacity, compression == Compression.DEFLATE ? compressionLevel : null,
+                includeStacktrace);
+    }
+
+    /**
+     * Formats the event as a block holding a single row.
+     *
+     * @param event The LogEvent.
+     * @return the block.
+     */
+    @Override
+    public byte[] toByteArray(final LogEvent event) {
+        final boolean reuse = isThreadLocalsEnabled();
+        final ColumnarChunk chunk = reuse ? getSingleEventChunk() : newChunk(1);
+        try {
+            chunk.add(event);
+            return chunk.toByteArray();
+        } finally {
+            if (reuse) {
+                chunk.clear();
+            } else {
+                chunk.close();
+            }
+        }
+    }
+
+    @Override
+    public byte[] toSerializable(final LogEvent event) {
+        return toByteArray(event);
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final boolean reuse = isThreadLocalsEnabled();
+        final ColumnarChunk chunk = reuse ? getSingleEventChunk() : newChunk(1);
+        try {
+            chunk.add(event);
+            chunk.writeTo(destination);
+        } finally {
+            if (reuse) {
+                chunk.clear();
+            } else {
+                chunk.close();
+            }
+        }
+    }
+
+    private ColumnarChunk getSingleEventChunk() {
+        ColumnarChunk chunk = singleEventChunk.get();
+        if (chunk == null) {
+            chunk = newChunk(1);
+            singleEventChunk.set(chunk);
+        }
+        return chunk;
+    }
+
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public Map<String, String> getContentFormat() {
+        final Map<String, String> result = new HashMap<>();
+        result.put("structured", "true");
+        result.put("formatType", "columnar");
+        result.put("chunkSize", String.valueOf(chunkSize));
+        result.put("compression", compression.name());
+        return result;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public boolean isIncludeStacktrace() {
+        return includeStacktrace;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarLayout[chunkSize=" + chunkSize + ", compression=" + compression + "]";
+    }
+}
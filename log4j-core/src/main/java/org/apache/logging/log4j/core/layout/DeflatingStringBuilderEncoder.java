@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Encoder for StringBuilders that compresses the encoded text using GZIP or ZLIB if it is larger than a given
+ * threshold. The compressed bytes are deflated straight into the {@link ByteBufferDestination} without intermediate
+ * copies, and the {@link Deflater} along with the other encoding state is reused across calls.
+ */
+class DeflatingStringBuilderEncoder implements Encoder<StringBuilder> {
+
+    private static final byte[] GZIP_HEADER = {
+            0x1f, (byte) 0x8b, // magic number
+            Deflater.DEFLATED, // compression method
+            0, // flags
+            0, 0, 0, 0, // modification time
+            0, // extra flags
+            0 // operating system
+    };
+
+    /**
+     * Holds the CharsetEncoder, CharBuffer, ByteBuffer, Deflater and CRC32 of the current thread. Like in
+     * {@link StringBuilderEncoder}, only JDK classes are stored to avoid memory leaks in web containers.
+     */
+    private final ThreadLocal<Object[]> threadLocal = new ThreadLocal<>();
+    private final Charset charset;
+    private final boolean gzip;
+    private final int compressionThreshold;
+
+    DeflatingStringBuilderEncoder(final Charset charset, final boolean gzip, final int compressionThreshold) {
+        this.charset = Objects.requireNonNull(charset, "charset");
+        this.gzip = gzip;
+        this.compressionThreshold = Math.max(0, compressionThreshold);
+    }
+
+    @Override
+    public void encode(final StringBuilder source, final ByteBufferDestination destination) {
+        final Object[] state = Constants.ENABLE_THREADLOCALS ? getThreadLocalState() : createState();
+        try {
+            encode(state, source, destination);
+        } catch (final Exception ex) {
+            StatusLogger.getLogger().error("Recovering from DeflatingStringBuilderEncoder.encode('{}') error: {}",
+                    source, ex, ex);
+            final byte[] bytes = source.toString().getBytes(charset);
+            destination.writeBytes(bytes, 0, bytes.length);
+        } finally {
+            if (!Constants.ENABLE_THREADLOCALS) {
+                ((Deflater) state[3]).end();
+            }
+        }
+    }
+
+    private void encode(final Object[] state, final StringBuilder source, final ByteBufferDestination destination) {
+        final CharsetEncoder charsetEncoder = (CharsetEncoder) state[0];
+        final CharBuffer charBuffer = (CharBuffer) state[1];
+        ByteBuffer byteBuffer = (ByteBuffer) state[2];
+
+        // Encode the text until either all of it is consumed or the threshold is exceeded.
+        int sourceIndex = 0;
+        while (true) {
+            if (!byteBuffer.hasRemaining()) {
+                if (byteBuffer.position() > compressionThreshold) {
+                    break;
+                }
+                byteBuffer = grow(byteBuffer);
+                state[2] = byteBuffer;
+            }
+            sourceIndex = encodeChunk(charsetEncoder, charBuffer, byteBuffer, source, sourceIndex);
+            if (sourceIndex < 0 || byteBuffer.position() > compressionThreshold) {
+                break;
+            }
+        }
+
+        // Write the text uncompressed, if it doesn't exceed the threshold.
+        if (byteBuffer.position() <= compressionThreshold) {
+            byteBuffer.flip();
+            destination.writeBytes(byteBuffer);
+            return;
+        }
+
+        final Deflater deflater = (Deflater) state[3];
+        final CRC32 crc = (CRC32) state[4];
+        deflater.reset();
+        crc.reset();
+        synchronized (destination) {
+            ByteBuffer destinationBuffer = destination.getByteBuffer();
+            if (gzip) {
+                ByteBufferDestinationHelper.writeToUnsynchronized(GZIP_HEADER, 0, GZIP_HEADER.length, destination);
+                destinationBuffer = destination.getByteBuffer();
+            }
+            long inputLength = 0;
+            while (true) {
+                byteBuffer.flip();
+                final int length = byteBuffer.remaining();
+                inputLength += length;
+                if (gzip) {
+                    crc.update(byteBuffer.array(), byteBuffer.arrayOffset(), length);
+                }
+                deflater.setInput(byteBuffer.array(), byteBuffer.arrayOffset(), length);
+                final boolean endOfInput = sourceIndex < 0;
+                if (endOfInput) {
+                    deflater.finish();
+                }
+                while (endOfInput ? !deflater.finished() : !deflater.needsInput()) {
+                    if (!destinationBuffer.hasRemaining()) {
+                        destinationBuffer = destination.drain(destinationBuffer);
+                    }
+                    deflater.deflate(destinationBuffer);
+                }
+                if (endOfInput) {
+                    break;
+                }
+                byteBuffer.clear();
+                do {
+                    sourceIndex = encodeChunk(charsetEncoder, charBuffer, byteBuffer, source, sourceIndex);
+                } while (sourceIndex >= 0 && byteBuffer.hasRemaining());
+            }
+            if (gzip) {
+                destinationBuffer = putIntLittleEndian(destination, destinationBuffer, (int) crc.getValue());
+                putIntLittleEndian(destination, destinationBuffer, (int) inputLength);
+            }
+        }
+    }
+
+    /**
+     * Encodes the next chunk of the source into the given byte buffer. If the buffer cannot accommodate the next
+     * character, its limit is set to its position, so that it appears full.
+     *
+     * @return the index of the next source character to copy, or -1 if the source is completely encoded
+     */
+    private static int encodeChunk(final CharsetEncoder charsetEncoder, final CharBuffer charBuffer,
+            final ByteBuffer byteBuffer, final StringBuilder source, int sourceIndex) {
+        final int sourceLength = source.length();
+        if (sourceIndex < sourceLength) {
+            // Compacting keeps any left-over characters, e.g., a high surrogate awaiting its pair.
+            charBuffer.compact();
+            final int copyLength = Math.min(charBuffer.remaining(), sourceLength - sourceIndex);
+            source.getChars(sourceIndex, sourceIndex + copyLength, charBuffer.array(),
+                    charBuffer.arrayOffset() + charBuffer.position());
+            charBuffer.position(charBuffer.position() + copyLength);
+            charBuffer.flip();
+            sourceIndex += copyLength;
+        }
+        final boolean endOfInput = sourceIndex >= sourceLength;
+        CoderResult result = charsetEncoder.encode(charBuffer, byteBuffer, endOfInput);
+        if (result.isOverflow()) {
+            // The next character doesn't fit, mark the buffer as full to have its contents consumed first.
+            byteBuffer.limit(byteBuffer.position());
+        } else if (endOfInput) {
+            result = charsetEncoder.flush(byteBuffer);
+            if (result.isUnderflow()) {
+                return -1;
+            }
+            byteBuffer.limit(byteBuffer.position());
+        }
+        return sourceIndex;
+    }
+
+    private static ByteBuffer grow(final ByteBuffer byteBuffer) {
+        final ByteBuffer grownBuffer = ByteBuffer.allocate(2 * byteBuffer.capacity());
+        byteBuffer.flip();
+        grownBuffer.put(byteBuffer);
+        return grownBuffer;
+    }
+
+    private static ByteBuffer putIntLittleEndian(final ByteBufferDestination destination, ByteBuffer buffer,
+            final int value) {
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            if (!buffer.hasRemaining()) {
+                buffer = destination.drain(buffer);
+            }
+            buffer.put((byte) (value >>> shift));
+        }
+        return buffer;
+    }
+
+    private Object[] getThreadLocalState() {
+        Object[] threadLocalState = threadLocal.get();
+        if (threadLocalState == null) {
+            threadLocalState = createState();
+            threadLocal.set(threadLocalState);
+        } else {
+            ((CharsetEncoder) threadLocalState[0]).reset();
+            ((CharBuffer) threadLocalState[1]).clear().flip();
+            ((ByteBuffer) threadLocalState[2]).clear();
+        }
+        return threadLocalState;
+    }
+
+    private Object[] createState() {
+        final CharBuffer charBuffer = CharBuffer.allocate(Constants.ENCODER_CHAR_BUFFER_SIZE);
+        charBuffer.flip();
+        return new Object[] {
+                charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE),
+                charBuffer,
+                ByteBuffer.allocate(Constants.ENCODER_BYTE_BUFFER_SIZE),
+                new Deflater(Deflater.DEFAULT_COMPRESSION, gzip),
+                new CRC32()
+        };
+    }
+
+}
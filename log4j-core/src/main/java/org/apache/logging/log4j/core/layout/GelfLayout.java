@@ -20,6 +20,8 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.impl.StackTraceDeduplicator;
+import org.apache.logging.log4j.core.impl.ThrowableFingerprint;
 import org.apache.logging.log4j.core.layout.internal.ExcludeChecker;
 import org.apache.logging.log4j.core.layout.internal.IncludeChecker;
 import org.apache.logging.log4j.core.layout.internal.ListChecker;
@@ -36,18 +38,18 @@ import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.plugins.PluginElement;
 import org.apache.logging.log4j.plugins.PluginFactory;
-import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.util.StringBuilderFormattable;
 import org.apache.logging.log4j.util.Strings;
 import org.apache.logging.log4j.util.TriConsumer;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -60,6 +62,8 @@ import java.util.zip.GZIPOutputStream;
  * <p>
  * This layout compresses JSON to GZIP or ZLIB (the {@code compressionType}) if
  * log event data is larger than 1024 bytes (the {@code compressionThreshold}).
+ * Compression reuses a {@link java.util.zip.Deflater} per thread and, when encoding,
+ * deflates directly into the {@link ByteBufferDestination}.
  * This layout does not implement chunking.
  * </p>
  *
@@ -112,6 +116,8 @@ public final class GelfLayout extends AbstractStringLayout {
     private final PatternLayout layout;
     private final FieldWriter mdcWriter;
     private final FieldWriter mapWriter;
+    private final DeflatingStringBuilderEncoder compressionEncoder;
+    private final StackTraceDeduplicator stackTraceDeduplicator;
 
     public static class Builder<B extends Builder<B>> extends AbstractStringLayout.Builder<B>
         implements org.apache.logging.log4j.plugins.util.Builder<GelfLayout> {
@@ -131,6 +137,9 @@ public final class GelfLayout extends AbstractStringLayout {
         @PluginBuilderAttribute
         private boolean includeStacktrace = true;
 
+        @PluginBuilderAttribute
+        private long stackTraceDeduplicationWindowMillis;
+
         @PluginBuilderAttribute
         private boolean includeThreadContext = true;
 
@@ -200,7 +209,7 @@ public final class GelfLayout extends AbstractStringLayout {
             return new GelfLayout(getConfiguration(), host, additionalFields, compressionType, compressionThreshold,
                     includeStacktrace, includeThreadContext, includeMapMessage, includeNullDelimiter,
                     includeNewLineDelimiter, omitEmptyFields, mdcChecker, mapChecker, patternLayout,
-                    threadContextPrefix, mapPrefix);
+                    threadContextPrefix, mapPrefix, stackTraceDeduplicationWindowMillis);
         }
 
         private ListChecker createChecker(final String excludes, final String includes) {
@@ -247,6 +256,10 @@ public final class GelfLayout extends AbstractStringLayout {
             return includeStacktrace;
         }
 
+        public long getStackTraceDeduplicationWindowMillis() {
+            return stackTraceDeduplicationWindowMillis;
+        }
+
         public boolean isIncludeThreadContext() {
             return includeThreadContext;
         }
@@ -302,6 +315,18 @@ public final class GelfLayout extends AbstractStringLayout {
             return asBuilder();
         }
 
+        /**
+         * Time window in milliseconds within which a repeated stack trace is written to {@code full_message} as
+         * {@code trace_id=<id> repeat=<count>} instead of in full (optional, default to 0, which disables
+         * deduplication). Only applies when the stack trace is included and no message pattern is used.
+         *
+         * @return this builder
+         */
+        public B setStackTraceDeduplicationWindowMillis(final long stackTraceDeduplicationWindowMillis) {
+            this.stackTraceDeduplicationWindowMillis = stackTraceDeduplicationWindowMillis;
+            return asBuilder();
+        }
+
         /**
          * Whether to include thread context as additional fields (optional, default to true).
          *
@@ -443,7 +468,7 @@ public final class GelfLayout extends AbstractStringLayout {
             final boolean includeThreadContext, final boolean includeMapMessage, final boolean includeNullDelimiter,
             final boolean includeNewLineDelimiter, final boolean omitEmptyFields, final ListChecker mdcChecker,
             final ListChecker mapChecker, final PatternLayout patternLayout, final String mdcPrefix,
-            final String mapPrefix) {
+            final String mapPrefix, final long stackTraceDeduplicationWindowMillis) {
         super(config, StandardCharsets.UTF_8, null, null);
         this.host = host != null ? host : NetUtils.getLocalHostname();
         this.additionalFields = additionalFields != null ? additionalFields : new KeyValuePair[0];
@@ -456,7 +481,13 @@ public final class GelfLayout extends AbstractStringLayout {
         }
         this.compressionType = compressionType;
         this.compressionThreshold = compressionThreshold;
+        this.compressionEncoder = compressionType == CompressionType.OFF
+                ? null
+                : new DeflatingStringBuilderEncoder(getCharset(), compressionType == CompressionType.GZIP,
+                        compressionThreshold);
         this.includeStacktrace = includeStacktrace;
+        this.stackTraceDeduplicator = stackTraceDeduplicationWindowMillis > 0
+                ? new StackTraceDeduplicator(stackTraceDeduplicationWindowMillis) : null;
         this.includeThreadContext = includeThreadContext;
         this.includeMapMessage = includeMapMessage;
         this.includeNullDelimiter = includeNullDelimiter;
@@ -512,18 +543,19 @@ public final class GelfLayout extends AbstractStringLayout {
     @Override
     public byte[] toByteArray(final LogEvent event) {
         final StringBuilder text = toText(event, getStringBuilder(), false);
-        final byte[] bytes = getBytes(text.toString());
-        return compressionType != CompressionType.OFF && bytes.length > compressionThreshold ? compress(bytes) : bytes;
+        if (compressionEncoder == null) {
+            return getBytes(text.toString());
+        }
+        final ByteArrayDestination destination = new ByteArrayDestination(compressionThreshold / 8);
+        compressionEncoder.encode(text, destination);
+        return destination.toByteArray();
     }
 
     @Override
     public void encode(final LogEvent event, final ByteBufferDestination destination) {
-        if (compressionType != CompressionType.OFF) {
-            super.encode(event, destination);
-            return;
-        }
         final StringBuilder text = toText(event, getStringBuilder(), true);
-        final Encoder<StringBuilder> helper = getStringBuilderEncoder();
+        final Encoder<StringBuilder> helper =
+                compressionEncoder != null ? compressionEncoder : getStringBuilderEncoder();
         helper.encode(text, destination);
     }
 
@@ -532,21 +564,45 @@ public final class GelfLayout extends AbstractStringLayout {
         return Objects.nonNull(layout) && layout.requiresLocation();
     }
 
-    private byte[] compress(final byte[] bytes) {
-        try {
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream(compressionThreshold / 8);
-            try (final DeflaterOutputStream stream = compressionType.createDeflaterOutputStream(baos)) {
-                if (stream == null) {
-                    return bytes;
-                }
-                stream.write(bytes);
-                stream.finish();
-            }
-            return baos.toByteArray();
-        } catch (final IOException e) {
-            StatusLogger.getLogger().error(e);
-            return bytes;
+    /**
+     * Destination collecting the output of {@link #toByteArray(LogEvent)}, growing its buffer when drained.
+     */
+    private static final class ByteArrayDestination implements ByteBufferDestination {
+
+        private ByteBuffer byteBuffer;
+
+        private ByteArrayDestination(final int initialCapacity) {
+            this.byteBuffer = ByteBuffer.allocate(Math.max(initialCapacity, 32));
         }
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return byteBuffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            final ByteBuffer grownBuffer = ByteBuffer.allocate(2 * buf.capacity());
+            buf.flip();
+            grownBuffer.put(buf);
+            byteBuffer = grownBuffer;
+            return grownBuffer;
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+        }
+
+        @Override
+        public void writeBytes(final byte[] data, final int offset, final int length) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(byteBuffer.array(), byteBuffer.position());
+        }
+
     }
 
     @Override
@@ -602,7 +658,9 @@ public final class GelfLayout extends AbstractStringLayout {
                 layout.serialize(event, messageBuffer);
                 JsonUtils.quoteAsString(messageBuffer, builder);
             } else {
-                if (includeStacktrace) {
+                if (includeStacktrace && stackTraceDeduplicator != null) {
+                    JsonUtils.quoteAsString(formatDeduplicatedThrowable(event), builder);
+                } else if (includeStacktrace) {
                     JsonUtils.quoteAsString(formatThrowable(event.getThrown()), builder);
                 } else {
                     JsonUtils.quoteAsString(event.getThrown().toString(), builder);
@@ -715,6 +773,20 @@ public final class GelfLayout extends AbstractStringLayout {
         return Severity.getSeverity(level).getCode();
     }
 
+    private CharSequence formatDeduplicatedThrowable(final LogEvent event) {
+        final Throwable thrown = event.getThrown();
+        final ThrowableFingerprint fingerprint = ThrowableFingerprint.of(thrown);
+        final int repeats = stackTraceDeduplicator.record(fingerprint, event.getTimeMillis());
+        final StringBuilder text = getMessageStringBuilder();
+        if (repeats > 0) {
+            StackTraceDeduplicator.appendReference(fingerprint, repeats, text);
+        } else {
+            StackTraceDeduplicator.appendHeader(fingerprint, text);
+            text.append('\n').append(formatThrowable(thrown));
+        }
+        return text;
+    }
+
     /**
      * Non-private to make it accessible from unit test.
      */
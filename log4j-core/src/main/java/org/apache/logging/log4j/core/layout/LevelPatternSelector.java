@@ -28,6 +28,7 @@ import org.apache.logging.log4j.core.pattern.PatternFormatter;
 import org.apache.logging.log4j.core.pattern.PatternParser;
 import org.apache.logging.log4j.plugins.Configurable;
 import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.spi.StandardLevel;
 import org.apache.logging.log4j.status.StatusLogger;
 
 import java.util.HashMap;
@@ -109,8 +110,16 @@ public class LevelPatternSelector implements PatternSelector{
 
     }
 
+    private static final StandardLevel[] STANDARD_LEVELS = StandardLevel.values();
+
     private final Map<String, PatternFormatter[]> formatterMap = new HashMap<>();
 
+    /**
+     * The formatters selected for each standard level, indexed by {@link StandardLevel#ordinal()}, so that events
+     * logged at a standard level are dispatched without scanning the configured keys.
+     */
+    private final PatternFormatter[][] standardLevelFormatters;
+
     private final Map<String, String> patternMap = new HashMap<>();
 
     private final PatternFormatter[] defaultFormatters;
@@ -163,6 +172,10 @@ public class LevelPatternSelector implements PatternSelector{
             throw new IllegalArgumentException("Cannot parse pattern '" + defaultPattern + "'", ex);
         }
         requiresLocation = needsLocation;
+        standardLevelFormatters = new PatternFormatter[STANDARD_LEVELS.length][];
+        for (final StandardLevel standardLevel : STANDARD_LEVELS) {
+            standardLevelFormatters[standardLevel.ordinal()] = findFormatters(standardLevel.name());
+        }
     }
 
     @Override
@@ -176,9 +189,18 @@ public class LevelPatternSelector implements PatternSelector{
         if (level == null) {
             return defaultFormatters;
         }
-        for (final String key : formatterMap.keySet()) {
-            if (level.name().equalsIgnoreCase(key)) {
-                return formatterMap.get(key);
+        final StandardLevel standardLevel = level.getStandardLevel();
+        // a custom level maps to the standard level of its intLevel, but is selected by its own name
+        if (standardLevel.name().equals(level.name())) {
+            return standardLevelFormatters[standardLevel.ordinal()];
+        }
+        return findFormatters(level.name());
+    }
+
+    private PatternFormatter[] findFormatters(final String levelName) {
+        for (final Map.Entry<String, PatternFormatter[]> entry : formatterMap.entrySet()) {
+            if (levelName.equalsIgnoreCase(entry.getKey())) {
+                return entry.getValue();
             }
         }
         return defaultFormatters;
@@ -165,9 +165,14 @@ public class MarkerPatternSelector implements PatternSelector {
         if (marker == null) {
             return defaultFormatters;
         }
-        for (final String key : formatterMap.keySet()) {
-            if (marker.isInstanceOf(key)) {
-                return formatterMap.get(key);
+        if (!marker.hasParents()) {
+            // a marker without parents is only an instance of the key carrying its own name
+            final PatternFormatter[] formatters = formatterMap.get(marker.getName());
+            return formatters == null ? defaultFormatters : formatters;
+        }
+        for (final Map.Entry<String, PatternFormatter[]> entry : formatterMap.entrySet()) {
+            if (marker.isInstanceOf(entry.getKey())) {
+                return entry.getValue();
             }
         }
         return defaultFormatters;
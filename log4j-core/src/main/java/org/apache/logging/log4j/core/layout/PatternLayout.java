@@ -337,11 +337,8 @@ public final class PatternLayout extends AbstractStringLayout {
 
         @Override
         public StringBuilder toSerializable(final LogEvent event, final StringBuilder buf) {
-            StringBuilder buffer = delegate.toSerializable(event, buf);
-            String str = buffer.toString();
-            str = replace.format(str);
-            buffer.setLength(0);
-            buffer.append(str);
+            final StringBuilder buffer = delegate.toSerializable(event, buf);
+            replace.format(buffer, 0);
             return buffer;
         }
 
@@ -472,11 +469,8 @@ public final class PatternLayout extends AbstractStringLayout {
             for (PatternFormatter formatter : patternSelector.getFormatters(event)) {
                 formatter.format(event, buffer);
             }
-            if (replace != null) { // creates temporary objects
-                String str = buffer.toString();
-                str = replace.format(str);
-                buffer.setLength(0);
-                buffer.append(str);
+            if (replace != null) {
+                replace.format(buffer, 0);
             }
             return buffer;
         }
@@ -33,6 +33,8 @@ import org.apache.logging.log4j.core.pattern.PatternConverter;
 import org.apache.logging.log4j.core.pattern.PatternFormatter;
 import org.apache.logging.log4j.core.pattern.PatternParser;
 import org.apache.logging.log4j.core.pattern.ThrowablePatternConverter;
+import org.apache.logging.log4j.core.time.internal.format.FixedDateFormat;
+import org.apache.logging.log4j.core.time.internal.format.FixedDateFormat.FixedFormat;
 import org.apache.logging.log4j.core.util.NetUtils;
 import org.apache.logging.log4j.core.util.Patterns;
 import org.apache.logging.log4j.core.util.ProcessIdUtil;
@@ -46,20 +48,20 @@ import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginAttribute;
 import org.apache.logging.log4j.plugins.PluginElement;
 import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.util.IndexedReadOnlyStringMap;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 import org.apache.logging.log4j.util.StringBuilders;
 import org.apache.logging.log4j.util.Strings;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -95,11 +97,13 @@ public final class Rfc5424Layout extends AbstractStringLayout {
 
     private static final String LF = "\n";
     private static final int TWO_DIGITS = 10;
-    private static final int THREE_DIGITS = 100;
     private static final int MILLIS_PER_MINUTE = 60000;
     private static final int MINUTES_PER_HOUR = 60;
     private static final String COMPONENT_KEY = "RFC5424-Converter";
 
+    private static final ThreadLocal<char[]> timestampBuffer = new ThreadLocal<>();
+    private static final ThreadLocal<StringBuilder> messageStringBuilder = new ThreadLocal<>();
+
     private final Facility facility;
     private final String defaultId;
     private final int enterpriseNumber;
@@ -120,8 +124,9 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     private final String escapeNewLine;
     private final boolean useTlsMessageFormat;
 
-    private long lastTimestamp = -1;
-    private String timestamppStr;
+    private final String mdcSdIdString;
+    private final String headerFields;
+    private final FixedDateFormat dateFormat = FixedDateFormat.create(FixedFormat.ISO8601_PERIOD);
 
     private final List<PatternFormatter> exceptionFormatters;
     private final Map<String, FieldFormatter> fieldFormatters;
@@ -140,7 +145,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         this.enterpriseNumber = ein;
         this.includeMdc = includeMDC;
         this.includeNewLine = includeNL;
-        this.escapeNewLine = escapeNL == null ? null : Matcher.quoteReplacement(escapeNL);
+        this.escapeNewLine = escapeNL;
         this.mdcId = mdcId != null ? mdcId : id == null ? DEFAULT_MDCID : id;
         this.mdcSdId = new StructuredDataId(this.mdcId, enterpriseNumber, null, null);
         this.mdcPrefix = mdcPrefix;
@@ -197,6 +202,24 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         configName = Strings.isNotEmpty(name) ? name : null;
         this.fieldFormatters = createFieldFormatters(loggerFields, config);
         this.procId = ProcessIdUtil.getProcessId();
+        this.mdcSdIdString = mdcSdId.toString();
+        this.headerFields = createHeaderFields();
+    }
+
+    /**
+     * Creates the constant HOSTNAME, APP-NAME and PROCID fields following the timestamp, including the separating
+     * spaces.
+     */
+    private String createHeaderFields() {
+        final StringBuilder sb = new StringBuilder();
+        appendSpace(sb);
+        appendHostName(sb);
+        appendSpace(sb);
+        appendAppName(sb);
+        appendSpace(sb);
+        appendProcessId(sb);
+        appendSpace(sb);
+        return sb.toString();
     }
 
     private Map<String, FieldFormatter> createFieldFormatters(final LoggerFields[] loggerFields,
@@ -270,23 +293,33 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     @Override
     public String toSerializable(final LogEvent event) {
         final StringBuilder buf = getStringBuilder();
+        toText(event, buf);
+        if (useTlsMessageFormat) {
+            return new TlsSyslogFrame(buf.toString()).toString();
+        }
+        return buf.toString();
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        if (useTlsMessageFormat) {
+            super.encode(event, destination);
+            return;
+        }
+        final StringBuilder text = getStringBuilder();
+        toText(event, text);
+        final Encoder<StringBuilder> helper = getStringBuilderEncoder();
+        helper.encode(text, destination);
+    }
+
+    private void toText(final LogEvent event, final StringBuilder buf) {
         appendPriority(buf, event.getLevel());
         appendTimestamp(buf, event.getTimeMillis());
-        appendSpace(buf);
-        appendHostName(buf);
-        appendSpace(buf);
-        appendAppName(buf);
-        appendSpace(buf);
-        appendProcessId(buf);
-        appendSpace(buf);
+        buf.append(headerFields);
         appendMessageId(buf, event.getMessage());
         appendSpace(buf);
         appendStructuredElements(buf, event);
         appendMessage(buf, event);
-        if (useTlsMessageFormat) {
-            return new TlsSyslogFrame(buf.toString()).toString();
-        }
-        return buf.toString();
     }
 
     private void appendPriority(final StringBuilder buffer, final Level logLevel) {
@@ -296,7 +329,26 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     }
 
     private void appendTimestamp(final StringBuilder buffer, final long milliseconds) {
-        buffer.append(computeTimeStampString(milliseconds));
+        final char[] chars = getTimestampBuffer();
+        final int length = dateFormat.format(milliseconds, chars, 0);
+        buffer.append(chars, 0, length);
+
+        int tzmin = dateFormat.getTimeZone().getOffset(milliseconds) / MILLIS_PER_MINUTE;
+        if (tzmin == 0) {
+            buffer.append('Z');
+        } else {
+            if (tzmin < 0) {
+                tzmin = -tzmin;
+                buffer.append('-');
+            } else {
+                buffer.append('+');
+            }
+            final int tzhour = tzmin / MINUTES_PER_HOUR;
+            tzmin -= tzhour * MINUTES_PER_HOUR;
+            pad(tzhour, TWO_DIGITS, buffer);
+            buffer.append(':');
+            pad(tzmin, TWO_DIGITS, buffer);
+        }
     }
 
     private void appendSpace(final StringBuilder buffer) {
@@ -336,11 +388,20 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     private void appendMessage(final StringBuilder buffer, final LogEvent event) {
         final Message message = event.getMessage();
         // This layout formats StructuredDataMessages instead of delegating to the Message itself.
-        final String text = (message instanceof StructuredDataMessage || message instanceof MessageCollectionMessage)
-                ? message.getFormat() : message.getFormattedMessage();
+        final CharSequence text;
+        if (message instanceof StructuredDataMessage || message instanceof MessageCollectionMessage) {
+            text = message.getFormat();
+        } else if (message instanceof StringBuilderFormattable) {
+            final StringBuilder messageBuffer = getMessageStringBuilder();
+            ((StringBuilderFormattable) message).formatTo(messageBuffer);
+            text = messageBuffer;
+        } else {
+            text = message.getFormattedMessage();
+        }
 
         if (text != null && text.length() > 0) {
-            buffer.append(' ').append(escapeNewlines(text, escapeNewLine));
+            buffer.append(' ');
+            appendEscaped(buffer, text, false);
         }
 
         if (exceptionFormatters != null && event.getThrown() != null) {
@@ -348,7 +409,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
             for (final PatternFormatter formatter : exceptionFormatters) {
                 formatter.format(event, exception);
             }
-            buffer.append(escapeNewlines(exception.toString(), escapeNewLine));
+            appendEscaped(buffer, exception, false);
         }
         if (includeNewLine) {
             buffer.append(LF);
@@ -357,21 +418,50 @@ public final class Rfc5424Layout extends AbstractStringLayout {
 
     private void appendStructuredElements(final StringBuilder buffer, final LogEvent event) {
         final Message message = event.getMessage();
-        final boolean isStructured = message instanceof StructuredDataMessage ||
-                message instanceof StructuredDataCollectionMessage;
+        final ReadOnlyStringMap contextData = event.getContextData();
 
-        if (!isStructured && (fieldFormatters != null && fieldFormatters.isEmpty()) && !includeMdc) {
-            buffer.append('-');
-            return;
+        if (mdcRequired != null) {
+            checkRequired(contextData);
         }
 
-        final Map<String, StructuredDataElement> sdElements = new HashMap<>();
-        final Map<String, String> contextMap = event.getContextData().toMap();
-
-        if (mdcRequired != null) {
-            checkRequired(contextMap);
+        // Elements consisting of either the context data or a single StructuredDataMessage are written directly.
+        final boolean includeContextData = includeMdc && !contextData.isEmpty();
+        if (fieldFormatters == null && !(message instanceof StructuredDataCollectionMessage)) {
+            if (!(message instanceof StructuredDataMessage)) {
+                if (!includeContextData) {
+                    buffer.append('-');
+                    return;
+                }
+                if (contextData instanceof IndexedReadOnlyStringMap) {
+                    buffer.append('[').append(mdcSdIdString);
+                    appendFields(mdcPrefix, (IndexedReadOnlyStringMap) contextData, buffer, listChecker);
+                    buffer.append(']');
+                    return;
+                }
+            } else if (!includeContextData) {
+                final StructuredDataMessage data = (StructuredDataMessage) message;
+                buffer.append('[');
+                final int idStart = buffer.length();
+                appendId(buffer, data.getId());
+                final ListChecker checker = StringBuilders.equals(buffer, idStart, buffer.length() - idStart,
+                        mdcSdIdString, 0, mdcSdIdString.length()) ? listChecker : ListChecker.NOOP_CHECKER;
+                appendFields(eventPrefix, data.getIndexedReadOnlyStringMap(), buffer, checker);
+                buffer.append(']');
+                return;
+            }
         }
 
+        appendMergedStructuredElements(buffer, event, contextData.toMap());
+    }
+
+    private void appendMergedStructuredElements(final StringBuilder buffer, final LogEvent event,
+            final Map<String, String> contextMap) {
+        final Message message = event.getMessage();
+        final boolean isStructured = message instanceof StructuredDataMessage ||
+                message instanceof StructuredDataCollectionMessage;
+
+        final Map<String, StructuredDataElement> sdElements = new HashMap<>();
+
         if (fieldFormatters != null) {
             for (final Map.Entry<String, FieldFormatter> sdElement : fieldFormatters.entrySet()) {
                 final String sdId = sdElement.getKey();
@@ -381,14 +471,13 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         }
 
         if (includeMdc && contextMap.size() > 0) {
-            final String mdcSdIdStr = mdcSdId.toString();
-            final StructuredDataElement union = sdElements.get(mdcSdIdStr);
+            final StructuredDataElement union = sdElements.get(mdcSdIdString);
             if (union != null) {
                 union.union(contextMap);
-                sdElements.put(mdcSdIdStr, union);
+                sdElements.put(mdcSdIdString, union);
             } else {
                 final StructuredDataElement formattedContextMap = new StructuredDataElement(contextMap, mdcPrefix, false);
-                sdElements.put(mdcSdIdStr, formattedContextMap);
+                sdElements.put(mdcSdIdString, formattedContextMap);
             }
         }
 
@@ -427,11 +516,26 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         }
     }
 
-    private String escapeNewlines(final String text, final String replacement) {
-        if (null == replacement) {
-            return text;
+    /**
+     * Appends the given text, escaping the characters that are special in structured data parameter values if
+     * requested, and replacing new lines with the configured escape sequence, if any.
+     */
+    private void appendEscaped(final StringBuilder buffer, final CharSequence text, final boolean escapeSdParams) {
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (escapeNewLine != null && (c == '\n' || (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n'))) {
+                if (c == '\r') {
+                    i++;
+                }
+                buffer.append(escapeNewLine);
+            } else {
+                if (escapeSdParams && (c == '"' || c == ']' || c == '\\')) {
+                    buffer.append('\\');
+                }
+                buffer.append(c);
+            }
         }
-        return NEWLINE_PATTERN.matcher(text).replaceAll(replacement);
     }
 
     protected String getProcId() {
@@ -446,55 +550,24 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         return mdcIncludes;
     }
 
-    private String computeTimeStampString(final long now) {
-        final long last;
-        synchronized (this) {
-            last = lastTimestamp;
-            if (now == lastTimestamp) {
-                return timestamppStr;
-            }
+    private static char[] getTimestampBuffer() {
+        char[] result = timestampBuffer.get();
+        if (result == null) {
+            result = new char[FixedFormat.ISO8601_PERIOD.getLength()];
+            timestampBuffer.set(result);
         }
+        return result;
+    }
 
-        final StringBuilder buffer = new StringBuilder();
-        final Calendar cal = new GregorianCalendar();
-        cal.setTimeInMillis(now);
-        buffer.append(Integer.toString(cal.get(Calendar.YEAR)));
-        buffer.append('-');
-        pad(cal.get(Calendar.MONTH) + 1, TWO_DIGITS, buffer);
-        buffer.append('-');
-        pad(cal.get(Calendar.DAY_OF_MONTH), TWO_DIGITS, buffer);
-        buffer.append('T');
-        pad(cal.get(Calendar.HOUR_OF_DAY), TWO_DIGITS, buffer);
-        buffer.append(':');
-        pad(cal.get(Calendar.MINUTE), TWO_DIGITS, buffer);
-        buffer.append(':');
-        pad(cal.get(Calendar.SECOND), TWO_DIGITS, buffer);
-        buffer.append('.');
-        pad(cal.get(Calendar.MILLISECOND), THREE_DIGITS, buffer);
-
-        int tzmin = (cal.get(Calendar.ZONE_OFFSET) + cal.get(Calendar.DST_OFFSET)) / MILLIS_PER_MINUTE;
-        if (tzmin == 0) {
-            buffer.append('Z');
-        } else {
-            if (tzmin < 0) {
-                tzmin = -tzmin;
-                buffer.append('-');
-            } else {
-                buffer.append('+');
-            }
-            final int tzhour = tzmin / MINUTES_PER_HOUR;
-            tzmin -= tzhour * MINUTES_PER_HOUR;
-            pad(tzhour, TWO_DIGITS, buffer);
-            buffer.append(':');
-            pad(tzmin, TWO_DIGITS, buffer);
-        }
-        synchronized (this) {
-            if (last == lastTimestamp) {
-                lastTimestamp = now;
-                timestamppStr = buffer.toString();
-            }
+    private static StringBuilder getMessageStringBuilder() {
+        StringBuilder result = messageStringBuilder.get();
+        if (result == null) {
+            result = new StringBuilder(DEFAULT_STRING_BUILDER_SIZE);
+            messageStringBuilder.set(result);
         }
-        return buffer.toString();
+        trimToMaxSize(result);
+        result.setLength(0);
+        return result;
     }
 
     private void pad(final int val, int max, final StringBuilder buf) {
@@ -504,7 +577,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
             }
             max = max / TWO_DIGITS;
         }
-        buf.append(Integer.toString(val));
+        buf.append(val);
     }
 
     private void formatStructuredElement(final String id, final StructuredDataElement data,
@@ -515,7 +588,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
 
         sb.append('[');
         sb.append(id);
-        if (!mdcSdId.toString().equals(id)) {
+        if (!mdcSdIdString.equals(id)) {
             appendMap(data.getPrefix(), data.getFields(), sb, ListChecker.NOOP_CHECKER);
         } else {
             appendMap(data.getPrefix(), data.getFields(), sb, checker);
@@ -525,6 +598,11 @@ public final class Rfc5424Layout extends AbstractStringLayout {
 
     private String getId(final StructuredDataId id) {
         final StringBuilder sb = new StringBuilder();
+        appendId(sb, id);
+        return sb.toString();
+    }
+
+    private void appendId(final StringBuilder sb, final StructuredDataId id) {
         if (id == null || id.getName() == null) {
             sb.append(defaultId);
         } else {
@@ -537,13 +615,12 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         if (ein >= 0) {
             sb.append('@').append(ein);
         }
-        return sb.toString();
     }
 
-    private void checkRequired(final Map<String, String> map) {
-        for (final String key : mdcRequired) {
-            final String value = map.get(key);
-            if (value == null) {
+    private void checkRequired(final ReadOnlyStringMap contextData) {
+        for (int i = 0; i < mdcRequired.size(); i++) {
+            final String key = mdcRequired.get(i);
+            if (contextData.getValue(key) == null) {
                 throw new LoggingException("Required key " + key + " is missing from the " + mdcId);
             }
         }
@@ -554,19 +631,33 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         final SortedMap<String, String> sorted = new TreeMap<>(map);
         for (final Map.Entry<String, String> entry : sorted.entrySet()) {
             if (checker.check(entry.getKey()) && entry.getValue() != null) {
-                sb.append(' ');
-                if (prefix != null) {
-                    sb.append(prefix);
-                }
-                final String safeKey = escapeNewlines(escapeSDParams(entry.getKey()), escapeNewLine);
-                final String safeValue = escapeNewlines(escapeSDParams(entry.getValue()), escapeNewLine);
-                StringBuilders.appendKeyDqValue(sb, safeKey, safeValue);
+                appendField(prefix, entry.getKey(), entry.getValue(), sb);
             }
         }
     }
 
-    private String escapeSDParams(final String value) {
-        return PARAM_VALUE_ESCAPE_PATTERN.matcher(value).replaceAll("\\\\$0");
+    private void appendFields(final String prefix, final IndexedReadOnlyStringMap fields, final StringBuilder sb,
+            final ListChecker checker) {
+        for (int i = 0; i < fields.size(); i++) {
+            final String key = fields.getKeyAt(i);
+            final Object value = fields.getValueAt(i);
+            if (checker.check(key) && value != null) {
+                appendField(prefix, key, value instanceof CharSequence ? (CharSequence) value : String.valueOf(value),
+                        sb);
+            }
+        }
+    }
+
+    private void appendField(final String prefix, final String key, final CharSequence value,
+            final StringBuilder sb) {
+        sb.append(' ');
+        if (prefix != null) {
+            sb.append(prefix);
+        }
+        appendEscaped(sb, key, true);
+        sb.append('=').append('"');
+        appendEscaped(sb, value, true);
+        sb.append('"');
     }
 
     @Override
@@ -20,21 +20,21 @@ import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.net.Facility;
 import org.apache.logging.log4j.core.net.Priority;
+import org.apache.logging.log4j.core.time.internal.format.FixedDateFormat;
+import org.apache.logging.log4j.core.time.internal.format.FixedDateFormat.FixedFormat;
 import org.apache.logging.log4j.core.util.NetUtils;
+import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.plugins.Configurable;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.plugins.PluginFactory;
 import org.apache.logging.log4j.util.Chars;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -120,10 +120,20 @@ public final class SyslogLayout extends AbstractStringLayout {
     private final boolean includeNewLine;
     private final String escapeNewLine;
 
+    private static final String DATE_PATTERN = "MMM dd HH:mm:ss";
+
+    private static final String[] MONTHS = {
+            "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+    };
+
+    private static final ThreadLocal<char[]> dateBuffer = new ThreadLocal<>();
+    private static final ThreadLocal<StringBuilder> messageStringBuilder = new ThreadLocal<>();
+
     /**
-     * Date format used if header = true.
+     * Date format used if header = true. Produces "yyyy-MM-dd'T'HH:mm:ss", from which the "MMM dd HH:mm:ss" timestamp
+     * is assembled without allocating.
      */
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd HH:mm:ss", Locale.ENGLISH);
+    private final FixedDateFormat dateFormat = FixedDateFormat.create(FixedFormat.ISO8601);
 
     /**
      * Host name used to identify messages from this appender.
@@ -134,7 +144,7 @@ public final class SyslogLayout extends AbstractStringLayout {
         super(charset);
         this.facility = facility;
         this.includeNewLine = includeNL;
-        this.escapeNewLine = escapeNL == null ? null : Matcher.quoteReplacement(escapeNL);
+        this.escapeNewLine = escapeNL;
     }
 
     /**
@@ -146,7 +156,19 @@ public final class SyslogLayout extends AbstractStringLayout {
     @Override
     public String toSerializable(final LogEvent event) {
         final StringBuilder buf = getStringBuilder();
+        toText(event, buf);
+        return buf.toString();
+    }
 
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final StringBuilder text = getStringBuilder();
+        toText(event, text);
+        final Encoder<StringBuilder> helper = getStringBuilderEncoder();
+        helper.encode(text, destination);
+    }
+
+    private void toText(final LogEvent event, final StringBuilder buf) {
         buf.append('<');
         buf.append(Priority.getPriority(facility, event.getLevel()));
         buf.append('>');
@@ -155,25 +177,72 @@ public final class SyslogLayout extends AbstractStringLayout {
         buf.append(localHostname);
         buf.append(Chars.SPACE);
 
-        String message = event.getMessage().getFormattedMessage();
-        if (null != escapeNewLine) {
-            message = NEWLINE_PATTERN.matcher(message).replaceAll(escapeNewLine);
+        final Message message = event.getMessage();
+        if (escapeNewLine == null) {
+            if (message instanceof StringBuilderFormattable) {
+                ((StringBuilderFormattable) message).formatTo(buf);
+            } else {
+                buf.append(message.getFormattedMessage());
+            }
+        } else if (message instanceof StringBuilderFormattable) {
+            final StringBuilder messageBuffer = getMessageStringBuilder();
+            ((StringBuilderFormattable) message).formatTo(messageBuffer);
+            appendEscapingNewLines(messageBuffer, buf);
+        } else {
+            appendEscapingNewLines(message.getFormattedMessage(), buf);
         }
-        buf.append(message);
 
         if (includeNewLine) {
             buf.append('\n');
         }
-        return buf.toString();
     }
 
-    private synchronized void addDate(final long timestamp, final StringBuilder buf) {
-        final int index = buf.length() + 4;
-        buf.append(dateFormat.format(new Date(timestamp)));
+    private void appendEscapingNewLines(final CharSequence text, final StringBuilder buf) {
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c == '\n') {
+                buf.append(escapeNewLine);
+            } else if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+                buf.append(escapeNewLine);
+                i++;
+            } else {
+                buf.append(c);
+            }
+        }
+    }
+
+    private void addDate(final long timestamp, final StringBuilder buf) {
+        // yyyy-MM-dd'T'HH:mm:ss
+        final char[] chars = getDateBuffer();
+        dateFormat.format(timestamp, chars, 0);
+        buf.append(MONTHS[(chars[5] - '0') * 10 + chars[6] - '1']);
+        buf.append(Chars.SPACE);
         //  RFC 3164 says leading space, not leading zero on days 1-9
-        if (buf.charAt(index) == '0') {
-            buf.setCharAt(index, Chars.SPACE);
+        buf.append(chars[8] == '0' ? Chars.SPACE : chars[8]);
+        buf.append(chars[9]);
+        buf.append(Chars.SPACE);
+        buf.append(chars, 11, 8);
+    }
+
+    private static char[] getDateBuffer() {
+        char[] result = dateBuffer.get();
+        if (result == null) {
+            result = new char[FixedFormat.ISO8601.getLength()];
+            dateBuffer.set(result);
         }
+        return result;
+    }
+
+    private static StringBuilder getMessageStringBuilder() {
+        StringBuilder result = messageStringBuilder.get();
+        if (result == null) {
+            result = new StringBuilder(DEFAULT_STRING_BUILDER_SIZE);
+            messageStringBuilder.set(result);
+        }
+        trimToMaxSize(result);
+        result.setLength(0);
+        return result;
     }
 
     /**
@@ -193,7 +262,7 @@ public final class SyslogLayout extends AbstractStringLayout {
         final Map<String, String> result = new HashMap<>();
         result.put("structured", "false");
         result.put("formatType", "logfilepatternreceiver");
-        result.put("dateFormat", dateFormat.toPattern());
+        result.put("dateFormat", DATE_PATTERN);
         result.put("format", "<LEVEL>TIMESTAMP PROP(HOSTNAME) MESSAGE");
         return result;
     }
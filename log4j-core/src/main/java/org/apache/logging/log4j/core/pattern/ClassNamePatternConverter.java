@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.core.pattern;
 
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.plugins.Namespace;
 import org.apache.logging.log4j.plugins.Plugin;
 
@@ -46,9 +47,25 @@ public final class ClassNamePatternConverter extends NamePatternConverter {
      *
      * @param options options, may be null.
      * @return instance of pattern converter.
+     * @deprecated Use {@link #newInstance(Configuration, String[])}.
      */
+    @Deprecated
     public static ClassNamePatternConverter newInstance(final String[] options) {
-        return new ClassNamePatternConverter(options);
+        return newInstance(null, options);
+    }
+
+    /**
+     * Gets an instance of ClassNamePatternConverter.
+     *
+     * @param config The current Configuration, used to pre-populate the abbreviation cache, may be null.
+     * @param options options, may be null.
+     * @return instance of pattern converter.
+     */
+    public static ClassNamePatternConverter newInstance(final Configuration config, final String[] options) {
+        final ClassNamePatternConverter converter = new ClassNamePatternConverter(options);
+        // loggers are usually named after their class
+        converter.cacheLoggerNames(config);
+        return converter;
     }
 
     /**
@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Replaces the matches of a regular expression in a {@link StringBuilder}, in place.
+ * <p>
+ * A regular expression that is a plain literal or an alternation of plain literals, like {@code password|secret}, is
+ * matched by a trie of the literals, without {@code java.util.regex}. Any other regular expression is matched by a
+ * {@link Matcher} reused per thread that reads the buffer directly. In both cases the text is only copied when a match
+ * is found, and then only once.
+ * </p>
+ */
+@PerformanceSensitive("allocation")
+final class CompiledReplacement {
+
+    private static final String REGEX_META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final Pattern pattern;
+
+    private final String substitution;
+
+    private final LiteralTrie literals;
+
+    /**
+     * Holds the {@link Matcher} and the scratch {@link StringBuilder} of the current thread. Only JDK classes are
+     * stored to avoid memory leaks in web containers.
+     */
+    private final ThreadLocal<Object[]> threadLocal = new ThreadLocal<>();
+
+    private CompiledReplacement(final Pattern pattern, final String substitution, final LiteralTrie literals) {
+        this.pattern = pattern;
+        this.substitution = substitution;
+        this.literals = literals;
+    }
+
+    /**
+     * Compiles the replacement of the given regular expression.
+     *
+     * @param pattern the regular expression.
+     * @param substitution the replacement, which may refer to captured groups like {@link Matcher#replaceAll(String)}.
+     * @return the compiled replacement.
+     */
+    static CompiledReplacement compile(final Pattern pattern, final String substitution) {
+        final List<String> alternatives = pattern.flags() == 0 && substitution != null && isLiteral(substitution)
+                ? parseLiteralAlternatives(pattern.pattern()) : null;
+        return new CompiledReplacement(pattern, substitution,
+                alternatives == null ? null : new LiteralTrie(alternatives));
+    }
+
+    /**
+     * Returns whether the regular expression is matched without {@code java.util.regex}.
+     */
+    boolean isLiteral() {
+        return literals != null;
+    }
+
+    /**
+     * Replaces all matches in the text appended to the buffer since the given index.
+     *
+     * @param buffer the buffer.
+     * @param start the index of the first character to match against.
+     */
+    void replace(final StringBuilder buffer, final int start) {
+        if (literals != null) {
+            literals.replace(buffer, start, substitution, getScratch());
+            return;
+        }
+        final Object[] state = Constants.ENABLE_THREADLOCALS ? getThreadLocalState() : createState();
+        final Matcher matcher = (Matcher) state[0];
+        matcher.reset(buffer).region(start, buffer.length());
+        if (!matcher.find()) {
+            matcher.reset(""); // do not retain the buffer
+            return;
+        }
+        final StringBuilder scratch = (StringBuilder) state[1];
+        scratch.setLength(0);
+        scratch.append(buffer, start, buffer.length());
+        buffer.setLength(start);
+        matcher.reset(scratch);
+        while (matcher.find()) {
+            matcher.appendReplacement(buffer, substitution);
+        }
+        matcher.appendTail(buffer);
+        matcher.reset("");
+    }
+
+    /**
+     * Replaces all matches in the given text.
+     *
+     * @param text the text.
+     * @return the text with all matches replaced.
+     */
+    String replace(final String text) {
+        if (literals == null) {
+            return pattern.matcher(text).replaceAll(substitution);
+        }
+        final StringBuilder buffer = new StringBuilder(text);
+        literals.replace(buffer, 0, substitution, new StringBuilder(text.length()));
+        return buffer.toString();
+    }
+
+    private StringBuilder getScratch() {
+        return Constants.ENABLE_THREADLOCALS ? (StringBuilder) getThreadLocalState()[1] : new StringBuilder();
+    }
+
+    private Object[] getThreadLocalState() {
+        Object[] state = threadLocal.get();
+        if (state == null) {
+            state = createState();
+            threadLocal.set(state);
+        }
+        return state;
+    }
+
+    private Object[] createState() {
+        return new Object[] {pattern.matcher(""), new StringBuilder()};
+    }
+
+    private static boolean isLiteral(final String substitution) {
+        return substitution.indexOf('$') < 0 && substitution.indexOf('\\') < 0;
+    }
+
+    /**
+     * Parses a regular expression made of non-empty literals separated by {@code |}, where meta characters are escaped
+     * with a backslash.
+     *
+     * @return the literals in the order of the alternation, or null if the regular expression is not of that form.
+     */
+    static List<String> parseLiteralAlternatives(final String regex) {
+        final List<String> alternatives = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 == regex.length() || REGEX_META_CHARACTERS.indexOf(regex.charAt(i + 1)) < 0) {
+                    // character classes, back references, \Q...\E and the like
+                    return null;
+                }
+                literal.append(regex.charAt(++i));
+            } else if (c == '|') {
+                if (literal.length() == 0) {
+                    return null;
+                }
+                alternatives.add(literal.toString());
+                literal.setLength(0);
+            } else if (REGEX_META_CHARACTERS.indexOf(c) >= 0 || Character.isSurrogate(c)) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() == 0) {
+            return null;
+        }
+        alternatives.add(literal.toString());
+        return alternatives;
+    }
+
+    @Override
+    public String toString() {
+        return pattern.pattern();
+    }
+
+    /**
+     * A trie of literals, matched with the semantics of a regular expression alternation: the leftmost match wins, and
+     * among the literals that match at the same index, the one that comes first in the alternation.
+     */
+    private static final class LiteralTrie {
+
+        /**
+         * Marks a node that does not complete a literal.
+         */
+        private static final int NO_MATCH = Integer.MAX_VALUE;
+
+        private final String[] literals;
+
+        /**
+         * The characters that start a literal, to skip quickly over the text that cannot match.
+         */
+        private final boolean[] firstAscii = new boolean[128];
+
+        private boolean firstNonAscii;
+
+        /**
+         * The labels of the edges leaving each node, sorted.
+         */
+        private char[][] labels = new char[16][];
+
+        /**
+         * The target nodes of the edges leaving each node, in the order of {@link #labels}.
+         */
+        private int[][] targets = new int[16][];
+
+        /**
+         * The smallest alternation index of the literals completed at each node, or {@link #NO_MATCH}.
+         */
+        private int[] matches = new int[16];
+
+        private int size;
+
+        LiteralTrie(final List<String> literals) {
+            this.literals = literals.toArray(new String[0]);
+            newNode();
+            for (int index = 0; index < this.literals.length; index++) {
+                add(this.literals[index], index);
+            }
+        }
+
+        private int newNode() {
+            if (size == matches.length) {
+                labels = Arrays.copyOf(labels, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+                matches = Arrays.copyOf(matches, size * 2);
+            }
+            labels[size] = new char[0];
+            targets[size] = new int[0];
+            matches[size] = NO_MATCH;
+            return size++;
+        }
+
+        private void add(final String literal, final int index) {
+            final char first = literal.charAt(0);
+            if (first < firstAscii.length) {
+                firstAscii[first] = true;
+            } else {
+                firstNonAscii = true;
+            }
+            int node = 0;
+            for (int i = 0; i < literal.length(); i++) {
+                final char c = literal.charAt(i);
+                final int edge = Arrays.binarySearch(labels[node], c);
+                if (edge >= 0) {
+                    node = targets[node][edge];
+                } else {
+                    final int insertion = -edge - 1;
+                    final int child = newNode();
+                    labels[node] = insert(labels[node], insertion, c);
+                    targets[node] = insert(targets[node], insertion, child);
+                    node = child;
+                }
+            }
+            matches[node] = Math.min(matches[node], index);
+        }
+
+        private static char[] insert(final char[] array, final int index, final char value) {
+            final char[] result = new char[array.length + 1];
+            System.arraycopy(array, 0, result, 0, index);
+            result[index] = value;
+            System.arraycopy(array, index, result, index + 1, array.length - index);
+            return result;
+        }
+
+        private static int[] insert(final int[] array, final int index, final int value) {
+            final int[] result = new int[array.length + 1];
+            System.arraycopy(array, 0, result, 0, index);
+            result[index] = value;
+            System.arraycopy(array, index, result, index + 1, array.length - index);
+            return result;
+        }
+
+        /**
+         * Returns the alternation index of the literal matching at the given index, or {@link #NO_MATCH}.
+         */
+        private int matchAt(final CharSequence text, final int index, final int end) {
+            int best = NO_MATCH;
+            int node = 0;
+            for (int i = index; i < end; i++) {
+                final char[] edges = labels[node];
+                if (edges.length == 0) {
+                    break;
+                }
+                final int edge = Arrays.binarySearch(edges, text.charAt(i));
+                if (edge < 0) {
+                    break;
+                }
+                node = targets[node][edge];
+                best = Math.min(best, matches[node]);
+            }
+            return best;
+        }
+
+        private boolean mayStartAt(final char c) {
+            return c < firstAscii.length ? firstAscii[c] : firstNonAscii;
+        }
+
+        void replace(final StringBuilder buffer, final int start, final String substitution,
+                final StringBuilder scratch) {
+            final int end = buffer.length();
+            int index = start;
+            int match = NO_MATCH;
+            for (; index < end; index++) {
+                if (mayStartAt(buffer.charAt(index)) && (match = matchAt(buffer, index, end)) != NO_MATCH) {
+                    break;
+                }
+            }
+            if (match == NO_MATCH) {
+                return;
+            }
+            // copy the text once, then write it back with the matches replaced
+            scratch.setLength(0);
+            scratch.append(buffer, index, end);
+            buffer.setLength(index);
+            final int scratchEnd = scratch.length();
+            int i = 0;
+            while (i < scratchEnd) {
+                if (match == NO_MATCH && mayStartAt(scratch.charAt(i))) {
+                    match = matchAt(scratch, i, scratchEnd);
+                }
+                if (match != NO_MATCH) {
+                    buffer.append(substitution);
+                    i += literals[match].length();
+                    match = NO_MATCH;
+                } else {
+                    buffer.append(scratch.charAt(i++));
+                }
+            }
+        }
+    }
+}
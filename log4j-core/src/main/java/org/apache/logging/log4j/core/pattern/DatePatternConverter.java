@@ -19,6 +19,7 @@ package org.apache.logging.log4j.core.pattern;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.time.Instant;
 import org.apache.logging.log4j.core.time.MutableInstant;
+import org.apache.logging.log4j.core.time.internal.format.CompiledDateFormat;
 import org.apache.logging.log4j.core.time.internal.format.FastDateFormat;
 import org.apache.logging.log4j.core.time.internal.format.FixedDateFormat;
 import org.apache.logging.log4j.core.time.internal.format.FixedDateFormat.FixedFormat;
@@ -122,6 +123,44 @@ public final class DatePatternConverter extends LogEventPatternConverter impleme
         }
     }
 
+    private static final class CompiledFormatter extends Formatter {
+        private final CompiledDateFormat compiledDateFormat;
+
+        // this field is only used in ThreadLocal caching mode
+        private final StringBuilder cachedBuffer = new StringBuilder(64);
+
+        CompiledFormatter(final CompiledDateFormat compiledDateFormat) {
+            this.compiledDateFormat = compiledDateFormat;
+        }
+
+        @Override
+        String format(final Instant instant) {
+            // the compiled format caches state, so guard it when shared between threads
+            synchronized (compiledDateFormat) {
+                return compiledDateFormat.formatInstant(instant);
+            }
+        }
+
+        @Override
+        void formatToBuffer(final Instant instant, final StringBuilder destination) {
+            final long epochSecond = instant.getEpochSecond();
+            final int nanoOfSecond = instant.getNanoOfSecond();
+            if (cachedBuffer.length() == 0
+                    || !compiledDateFormat.isEquivalent(previousTime, nanos, epochSecond, nanoOfSecond)) {
+                cachedBuffer.setLength(0);
+                compiledDateFormat.format(epochSecond, nanoOfSecond, cachedBuffer);
+                previousTime = epochSecond;
+                nanos = nanoOfSecond;
+            }
+            destination.append(cachedBuffer);
+        }
+
+        @Override
+        public String toPattern() {
+            return compiledDateFormat.getPattern();
+        }
+    }
+
     private static final class UnixFormatter extends Formatter {
 
         @Override
@@ -245,6 +284,10 @@ public final class DatePatternConverter extends LogEventPatternConverter impleme
             locale = Locale.forLanguageTag(options[2]);
         }
 
+        final CompiledDateFormat compiledDateFormat = CompiledDateFormat.createIfSupported(pattern, tz, locale);
+        if (compiledDateFormat != null) {
+            return new CompiledFormatter(compiledDateFormat);
+        }
         try {
             final FastDateFormat tempFormat = FastDateFormat.getInstance(pattern, tz, locale);
             return new PatternFormatter(tempFormat);
@@ -16,9 +16,17 @@
  */
 package org.apache.logging.log4j.core.pattern;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.impl.StackTraceDeduplicator;
+import org.apache.logging.log4j.core.impl.ThrowableFingerprint;
 import org.apache.logging.log4j.core.impl.ThrowableProxy;
+import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.plugins.Namespace;
 import org.apache.logging.log4j.plugins.Plugin;
 
@@ -29,12 +37,27 @@ import org.apache.logging.log4j.plugins.Plugin;
  * <p>
  * The extended stack trace will also include the location of where the class was loaded from and the
  * version of the jar if available.
+ * <p>
+ * Resolving that information is expensive, so the rendered text of the most recently logged stack traces can be kept
+ * in a least-recently-used cache keyed by the {@link ThrowableFingerprint} of the throwable. An exception of the same
+ * shape that is logged again is rendered by a single lookup, reusing the packaging data resolved the first time. The
+ * cache size is controlled by {@link Constants#STACK_TRACE_CACHE_SIZE}; the cache is disabled by default.
+ * </p>
+ * <p>
+ * With the {@code dedup(<window millis>)} option, a stack trace is written in full only the first time its
+ * fingerprint is seen within the window, preceded by a {@code trace_id=<id>} line; repeats within the window are
+ * written as {@code trace_id=<id> repeat=<count>}. See {@link StackTraceDeduplicator}.
+ * </p>
  */
 @Namespace(PatternConverter.CATEGORY)
 @Plugin("ExtendedThrowablePatternConverter")
 @ConverterKeys({ "xEx", "xThrowable", "xException" })
 public final class ExtendedThrowablePatternConverter extends ThrowablePatternConverter {
 
+    private final RenderedStackTraceCache cache;
+
+    private final StackTraceDeduplicator deduplicator;
+
     /**
      * Private constructor.
      *
@@ -42,7 +65,21 @@ public final class ExtendedThrowablePatternConverter extends ThrowablePatternCon
      * @param options options, may be null.
      */
     private ExtendedThrowablePatternConverter(final Configuration config, final String[] options) {
+        this(config, options, Constants.STACK_TRACE_CACHE_SIZE);
+    }
+
+    /**
+     * Constructor with an explicit stack trace cache size. Used for unit testing.
+     *
+     * @param config
+     * @param options options, may be null.
+     * @param cacheSize maximum number of rendered stack traces to keep, zero to disable the cache.
+     */
+    ExtendedThrowablePatternConverter(final Configuration config, final String[] options, final int cacheSize) {
         super("ExtendedThrowable", "throwable", options, config);
+        this.cache = cacheSize > 0 ? new RenderedStackTraceCache(cacheSize) : null;
+        final long deduplicationWindowMillis = this.options.getDeduplicationWindowMillis();
+        this.deduplicator = deduplicationWindowMillis > 0 ? new StackTraceDeduplicator(deduplicationWindowMillis) : null;
     }
 
     /**
@@ -62,20 +99,141 @@ public final class ExtendedThrowablePatternConverter extends ThrowablePatternCon
      */
     @Override
     public void format(final LogEvent event, final StringBuilder toAppendTo) {
-        final ThrowableProxy proxy = event.getThrownProxy();
         final Throwable throwable = event.getThrown();
+        if (throwable != null && (cache != null || deduplicator != null) && options.anyLines()) {
+            formatFingerprinted(event, ThrowableFingerprint.of(throwable), toAppendTo);
+            return;
+        }
+        final ThrowableProxy proxy = event.getThrownProxy();
         if ((throwable != null || proxy != null) && options.anyLines()) {
             if (proxy == null) {
                 super.format(event, toAppendTo);
                 return;
             }
-            final int len = toAppendTo.length();
-            if (len > 0 && !Character.isWhitespace(toAppendTo.charAt(len - 1))) {
-                toAppendTo.append(' ');
-            }
+            appendSeparator(toAppendTo);
             proxy.formatExtendedStackTraceTo(toAppendTo, options.getIgnorePackages(),
                     options.getTextRenderer(), getSuffix(event), options.getSeparator());
         }
     }
 
+    private void formatFingerprinted(final LogEvent event, final ThrowableFingerprint fingerprint,
+            final StringBuilder toAppendTo) {
+        if (deduplicator != null) {
+            final int repeats = deduplicator.record(fingerprint, event.getTimeMillis());
+            appendSeparator(toAppendTo);
+            if (repeats > 0) {
+                StackTraceDeduplicator.appendReference(fingerprint, repeats, toAppendTo);
+                toAppendTo.append(options.getSeparator());
+                return;
+            }
+            StackTraceDeduplicator.appendHeader(fingerprint, toAppendTo);
+            toAppendTo.append(options.getSeparator());
+        }
+        final String suffix = getSuffix(event);
+        if (cache == null) {
+            final ThrowableProxy proxy = event.getThrownProxy();
+            if (proxy == null) {
+                super.format(event, toAppendTo);
+                return;
+            }
+            appendSeparator(toAppendTo);
+            proxy.formatExtendedStackTraceTo(toAppendTo, options.getIgnorePackages(),
+                    options.getTextRenderer(), suffix, options.getSeparator());
+            return;
+        }
+        final CacheKey key = new CacheKey(fingerprint, suffix);
+        String rendered = cache.get(key);
+        if (rendered == null) {
+            final ThrowableProxy proxy = event.getThrownProxy();
+            final StringBuilder buffer = new StringBuilder(1024);
+            proxy.formatExtendedStackTraceTo(buffer, options.getIgnorePackages(),
+                    options.getTextRenderer(), suffix, options.getSeparator());
+            rendered = buffer.toString();
+            cache.put(key, rendered);
+        }
+        appendSeparator(toAppendTo);
+        toAppendTo.append(rendered);
+    }
+
+    private static void appendSeparator(final StringBuilder toAppendTo) {
+        final int len = toAppendTo.length();
+        if (len > 0 && !Character.isWhitespace(toAppendTo.charAt(len - 1))) {
+            toAppendTo.append(' ');
+        }
+    }
+
+    /**
+     * Returns the number of stack traces rendered from the cache.
+     *
+     * @return the number of cache hits, zero if the cache is disabled.
+     */
+    public long getCacheHitCount() {
+        return cache == null ? 0 : cache.hits.get();
+    }
+
+    /**
+     * Returns the number of stack traces that were not found in the cache and had to be rendered.
+     *
+     * @return the number of cache misses, zero if the cache is disabled.
+     */
+    public long getCacheMissCount() {
+        return cache == null ? 0 : cache.misses.get();
+    }
+
+    private static final class CacheKey {
+        private final ThrowableFingerprint fingerprint;
+        private final String suffix;
+
+        CacheKey(final ThrowableFingerprint fingerprint, final String suffix) {
+            this.fingerprint = fingerprint;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            final CacheKey other = (CacheKey) obj;
+            return fingerprint.equals(other.fingerprint) && Objects.equals(suffix, other.suffix);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * fingerprint.hashCode() + Objects.hashCode(suffix);
+        }
+    }
+
+    private static final class RenderedStackTraceCache {
+        private final Map<CacheKey, String> map;
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+
+        RenderedStackTraceCache(final int maxSize) {
+            this.map = new LinkedHashMap<CacheKey, String>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<CacheKey, String> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        String get(final CacheKey key) {
+            final String result;
+            synchronized (map) {
+                result = map.get(key);
+            }
+            (result == null ? misses : hits).incrementAndGet();
+            return result;
+        }
+
+        void put(final CacheKey key, final String rendered) {
+            synchronized (map) {
+                map.put(key, rendered);
+            }
+        }
+    }
+
 }
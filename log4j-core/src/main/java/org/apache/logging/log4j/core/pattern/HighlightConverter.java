@@ -20,6 +20,7 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.spi.StandardLevel;
 import org.apache.logging.log4j.plugins.Namespace;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.util.PerformanceSensitive;
@@ -199,8 +200,16 @@ public final class HighlightConverter extends LogEventPatternConverter implement
         return new HighlightConverter(formatters, createLevelStyleMap(options), hideAnsi);
     }
 
+    private static final StandardLevel[] STANDARD_LEVELS = StandardLevel.values();
+
     private final Map<String, String> levelStyles;
 
+    /**
+     * The styles of the standard levels, indexed by {@link StandardLevel#ordinal()}, so that events logged at a
+     * standard level are highlighted without a map lookup.
+     */
+    private final String[] standardLevelStyles;
+
     private final List<PatternFormatter> patternFormatters;
 
     private final boolean noAnsi;
@@ -219,6 +228,10 @@ public final class HighlightConverter extends LogEventPatternConverter implement
         super("style", "style");
         this.patternFormatters = patternFormatters;
         this.levelStyles = levelStyles;
+        this.standardLevelStyles = new String[STANDARD_LEVELS.length];
+        for (final StandardLevel standardLevel : STANDARD_LEVELS) {
+            standardLevelStyles[standardLevel.ordinal()] = levelStyles.get(standardLevel.name());
+        }
         this.defaultStyle = AnsiEscape.getDefaultStyle();
         this.noAnsi = noAnsi;
     }
@@ -228,34 +241,37 @@ public final class HighlightConverter extends LogEventPatternConverter implement
      */
     @Override
     public void format(final LogEvent event, final StringBuilder toAppendTo) {
-        int start = 0;
-        int end = 0;
-        final String levelStyle = levelStyles.get(event.getLevel().name());
-        if (!noAnsi) { // use ANSI: set prefix
-            start = toAppendTo.length();
-            if (levelStyle != null) {
-              toAppendTo.append(levelStyle);
-            }
-            end = toAppendTo.length();
+        final String levelStyle = noAnsi ? null : getLevelStyle(event.getLevel());
+        if (levelStyle == null) {
+            formatPatterns(event, toAppendTo);
+            return;
         }
+        final int start = toAppendTo.length();
+        toAppendTo.append(levelStyle); // set prefix
+        final int end = toAppendTo.length();
+        formatPatterns(event, toAppendTo);
 
+        // add the postfix or erase the unnecessary prefix
+        if (toAppendTo.length() == end) {
+            toAppendTo.setLength(start);
+        } else {
+            toAppendTo.append(defaultStyle);
+        }
+    }
+
+    private void formatPatterns(final LogEvent event, final StringBuilder toAppendTo) {
         //noinspection ForLoopReplaceableByForEach
         for (int i = 0, size = patternFormatters.size(); i <  size; i++) {
             patternFormatters.get(i).format(event, toAppendTo);
         }
-
-        // if we use ANSI we need to add the postfix or erase the unnecessary prefix
-        final boolean empty = toAppendTo.length() == end;
-        if (!noAnsi) {
-            if (empty) {
-                toAppendTo.setLength(start); // erase prefix
-            } else if (levelStyle != null) {
-                toAppendTo.append(defaultStyle); // add postfix
-            }
-        }
     }
 
     String getLevelStyle(final Level level) {
+        final StandardLevel standardLevel = level.getStandardLevel();
+        // a custom level maps to the standard level of its intLevel, but is styled by its own name
+        if (standardLevel.name().equals(level.name())) {
+            return standardLevelStyles[standardLevel.ordinal()];
+        }
         return levelStyles.get(level.name());
     }
 
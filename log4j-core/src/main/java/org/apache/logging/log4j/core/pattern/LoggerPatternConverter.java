@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.core.pattern;
 
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.plugins.Namespace;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.util.PerformanceSensitive;
@@ -50,14 +51,28 @@ public final class LoggerPatternConverter extends NamePatternConverter {
      *
      * @param options options, may be null.
      * @return instance of pattern converter.
+     * @deprecated Use {@link #newInstance(Configuration, String[])}.
      */
-    public static LoggerPatternConverter newInstance(
-        final String[] options) {
+    @Deprecated
+    public static LoggerPatternConverter newInstance(final String[] options) {
+        return newInstance(null, options);
+    }
+
+    /**
+     * Obtains an instance of pattern converter.
+     *
+     * @param config The current Configuration, used to pre-populate the abbreviation cache, may be null.
+     * @param options options, may be null.
+     * @return instance of pattern converter.
+     */
+    public static LoggerPatternConverter newInstance(final Configuration config, final String[] options) {
         if (options == null || options.length == 0) {
             return INSTANCE;
         }
 
-        return new LoggerPatternConverter(options);
+        final LoggerPatternConverter converter = new LoggerPatternConverter(options);
+        converter.cacheLoggerNames(config);
+        return converter;
     }
 
     /**
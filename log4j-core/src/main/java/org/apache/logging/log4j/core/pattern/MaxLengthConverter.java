@@ -33,6 +33,11 @@ import java.util.List;
  * If max length is greater than 20, an abbreviated text will get ellipsis ("...") appended.
  * Example usage (for email subject):
  * {@code "%maxLen{[AppName, ${hostName}, ${web:contextPath}] %p: %c{1} - %m%notEmpty{ =>%ex{short}}}{160}"}
+ * <p>
+ * With a third option of {@code bytes}, the maximum length is measured in UTF-8 encoded bytes instead of characters.
+ * The text is then never cut inside a surrogate pair and the ellipsis counts towards the limit, e.g.
+ * {@code "%maxLen{%m}{1024}{bytes}"} never produces more than 1024 bytes of UTF-8.
+ * </p>
  *
  * @author Thies Wellpott
  */
@@ -42,16 +47,22 @@ import java.util.List;
 @PerformanceSensitive("allocation")
 public final class MaxLengthConverter extends LogEventPatternConverter {
 
+    private static final String UNIT_CHARS = "chars";
+    private static final String UNIT_BYTES = "bytes";
+    private static final String ELLIPSIS = "...";
+
     /**
      * Gets an instance of the class.
      *
      * @param config  The current Configuration.
-     * @param options pattern options, an array of two elements: pattern, max length (defaults to 100 on invalid value).
+     * @param options pattern options, an array of two or three elements: pattern, max length (defaults to 100 on
+     *                invalid value) and optionally the unit of the max length, {@code chars} (the default) or
+     *                {@code bytes}.
      * @return instance of class.
      */
     public static MaxLengthConverter newInstance(final Configuration config, final String[] options) {
-        if (options.length != 2) {
-            LOGGER.error("Incorrect number of options on maxLength: expected 2 received {}: {}", options.length,
+        if (options.length != 2 && options.length != 3) {
+            LOGGER.error("Incorrect number of options on maxLength: expected 2 or 3 received {}: {}", options.length,
                 options);
             return null;
         }
@@ -63,31 +74,48 @@ public final class MaxLengthConverter extends LogEventPatternConverter {
             LOGGER.error("No length supplied on maxLength");
             return null;
         }
+        boolean bytes = false;
+        if (options.length == 3 && options[2] != null) {
+            final String unit = options[2].trim();
+            if (UNIT_BYTES.equalsIgnoreCase(unit)) {
+                bytes = true;
+            } else if (!UNIT_CHARS.equalsIgnoreCase(unit)) {
+                LOGGER.error("Unsupported unit on maxLength: expected {} or {} received {}", UNIT_CHARS, UNIT_BYTES,
+                    unit);
+                return null;
+            }
+        }
         final PatternParser parser = PatternLayout.createPatternParser(config);
         final List<PatternFormatter> formatters = parser.parse(options[0]);
-        return new MaxLengthConverter(formatters, AbstractAppender.parseInt(options[1], 100));
+        return new MaxLengthConverter(formatters, AbstractAppender.parseInt(options[1], 100), bytes);
     }
 
-
     private final List<PatternFormatter> formatters;
     private final int maxLength;
+    private final boolean bytes;
 
     /**
      * Construct the converter.
      *
      * @param formatters The PatternFormatters to generate the text to manipulate.
      * @param maxLength  The max. length of the resulting string. Ellipsis ("...") is appended on shorted string, if greater than 20.
+     * @param bytes      Whether the max. length is measured in UTF-8 encoded bytes instead of characters.
      */
-    private MaxLengthConverter(final List<PatternFormatter> formatters, final int maxLength) {
+    private MaxLengthConverter(final List<PatternFormatter> formatters, final int maxLength, final boolean bytes) {
         super("MaxLength", "maxLength");
         this.maxLength = maxLength;
         this.formatters = formatters;
-        LOGGER.trace("new MaxLengthConverter with {}", maxLength);
+        this.bytes = bytes;
+        LOGGER.trace("new MaxLengthConverter with {} {}", maxLength, bytes ? UNIT_BYTES : UNIT_CHARS);
     }
 
 
     @Override
     public void format(final LogEvent event, final StringBuilder toAppendTo) {
+        if (bytes) {
+            formatBytes(event, toAppendTo);
+            return;
+        }
         final int initialLength = toAppendTo.length();
         for (int i = 0; i < formatters.size(); i++) {
             final PatternFormatter formatter = formatters.get(i);
@@ -99,7 +127,61 @@ public final class MaxLengthConverter extends LogEventPatternConverter {
         if (toAppendTo.length() > initialLength + maxLength) {
             toAppendTo.setLength(initialLength + maxLength);
             if (maxLength > 20) {        // only append ellipses if length is not very short
-                toAppendTo.append("...");
+                toAppendTo.append(ELLIPSIS);
+            }
+        }
+    }
+
+    /**
+     * Formats the nested pattern while counting the UTF-8 length of the appended text. Formatting stops at the first
+     * converter whose output exceeds the limit, and the text is cut at the last character that still fits.
+     */
+    private void formatBytes(final LogEvent event, final StringBuilder toAppendTo) {
+        final boolean ellipsis = maxLength > 20;
+        final int ellipsisLimit = ellipsis ? maxLength - ELLIPSIS.length() : maxLength;
+        int index = toAppendTo.length();
+        int byteCount = 0;
+        // the end of the longest prefix that leaves room for the ellipsis
+        int ellipsisIndex = index;
+        for (int i = 0; i < formatters.size(); i++) {
+            formatters.get(i).format(event, toAppendTo);
+            final int length = toAppendTo.length();
+            while (index < length) {
+                final char c = toAppendTo.charAt(index);
+                if (Character.isHighSurrogate(c) && index + 1 == length && i + 1 < formatters.size()) {
+                    // the low surrogate may be appended by the next converter
+                    break;
+                }
+                int charCount = 1;
+                final int charBytes;
+                if (c < 0x80) {
+                    charBytes = 1;
+                } else if (c < 0x800) {
+                    charBytes = 2;
+                } else if (Character.isHighSurrogate(c) && index + 1 < length
+                        && Character.isLowSurrogate(toAppendTo.charAt(index + 1))) {
+                    charCount = 2;
+                    charBytes = 4;
+                } else if (Character.isSurrogate(c)) {
+                    // an unpaired surrogate is encoded as a single replacement byte
+                    charBytes = 1;
+                } else {
+                    charBytes = 3;
+                }
+                if (byteCount + charBytes > maxLength) {
+                    if (ellipsis) {
+                        toAppendTo.setLength(ellipsisIndex);
+                        toAppendTo.append(ELLIPSIS);
+                    } else {
+                        toAppendTo.setLength(index);
+                    }
+                    return;
+                }
+                byteCount += charBytes;
+                index += charCount;
+                if (byteCount <= ellipsisLimit) {
+                    ellipsisIndex = index;
+                }
             }
         }
     }
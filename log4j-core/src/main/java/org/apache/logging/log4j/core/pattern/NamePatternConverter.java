@@ -16,11 +16,17 @@
  */
 package org.apache.logging.log4j.core.pattern;
 
-
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.util.PerformanceSensitive;
 
 /**
  * Abstract base class for other pattern converters which can return only parts of their name.
+ * <p>
+ * Abbreviated names are memoized in a bounded, lock-free cache keyed by the original name. When two names compete
+ * for the same slot, the most recently abbreviated one is kept.
+ * </p>
  */
 @PerformanceSensitive("allocation")
 public abstract class NamePatternConverter extends LogEventPatternConverter {
@@ -29,6 +35,11 @@ public abstract class NamePatternConverter extends LogEventPatternConverter {
      */
     private final NameAbbreviator abbreviator;
 
+    /**
+     * Abbreviated names, or {@code null} if names are not abbreviated.
+     */
+    private final AbbreviationCache cache;
+
     /**
      * Constructor.
      *
@@ -44,6 +55,32 @@ public abstract class NamePatternConverter extends LogEventPatternConverter {
         } else {
             abbreviator = NameAbbreviator.getDefaultAbbreviator();
         }
+        cache = abbreviator == NameAbbreviator.getDefaultAbbreviator() ? null : new AbbreviationCache();
+    }
+
+    /**
+     * Pre-populates the abbreviation cache with the names of the loggers that already exist in the logger context of
+     * the specified configuration, which is typically the case when a configuration is reloaded.
+     *
+     * @param config the configuration, may be null.
+     */
+    protected final void cacheLoggerNames(final Configuration config) {
+        if (cache == null || config == null) {
+            return;
+        }
+        final LoggerContext context = config.getLoggerContext();
+        if (context == null) {
+            return;
+        }
+        final StringBuilder buffer = new StringBuilder();
+        for (final Logger logger : context.getLoggers()) {
+            final String name = logger.getName();
+            if (cache.get(name) == null) {
+                buffer.setLength(0);
+                abbreviator.abbreviate(name, buffer);
+                cache.put(name, buffer.toString());
+            }
+        }
     }
 
     /**
@@ -54,6 +91,54 @@ public abstract class NamePatternConverter extends LogEventPatternConverter {
      * @return The abbreviated name.
      */
     protected final void abbreviate(final String original, final StringBuilder destination) {
+        if (cache == null) {
+            abbreviator.abbreviate(original, destination);
+            return;
+        }
+        final String abbreviated = cache.get(original);
+        if (abbreviated != null) {
+            destination.append(abbreviated);
+            return;
+        }
+        final int start = destination.length();
         abbreviator.abbreviate(original, destination);
+        cache.put(original, destination.substring(start));
+    }
+
+    /**
+     * Direct-mapped table indexed by the hash code of the name, which {@code String} computes only once. A name that
+     * maps to an occupied slot replaces the previous entry, so the cache never holds more than {@link #CAPACITY}
+     * names. Entries are immutable, so readers need no synchronization: a racing writer may at worst replace an entry
+     * that is then recomputed.
+     */
+    private static final class AbbreviationCache {
+
+        private static final int CAPACITY = 1024;
+
+        private final Entry[] table = new Entry[CAPACITY];
+
+        String get(final String name) {
+            final Entry entry = table[indexFor(name)];
+            return entry != null && entry.name.equals(name) ? entry.abbreviated : null;
+        }
+
+        void put(final String name, final String abbreviated) {
+            table[indexFor(name)] = new Entry(name, abbreviated);
+        }
+
+        private static int indexFor(final String name) {
+            final int hash = name.hashCode();
+            return (hash ^ (hash >>> 16)) & (CAPACITY - 1);
+        }
+
+        private static final class Entry {
+            private final String name;
+            private final String abbreviated;
+
+            Entry(final String name, final String abbreviated) {
+                this.name = name;
+                this.abbreviated = abbreviated;
+            }
+        }
     }
 }
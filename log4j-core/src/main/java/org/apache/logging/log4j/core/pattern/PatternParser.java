@@ -560,8 +560,15 @@ public final class PatternParser {
                 if (newInstanceMethod == null) {
                     newInstanceMethod = method;
                 } else if (method.getReturnType().equals(newInstanceMethod.getReturnType())) {
-                    LOGGER.error("Class " + converterClass + " cannot contain multiple static newInstance methods");
-                    return null;
+                    // A deprecated overload kept for compatibility gives way to its replacement
+                    final boolean deprecated = method.isAnnotationPresent(Deprecated.class);
+                    if (deprecated == newInstanceMethod.isAnnotationPresent(Deprecated.class)) {
+                        LOGGER.error("Class " + converterClass + " cannot contain multiple static newInstance methods");
+                        return null;
+                    }
+                    if (!deprecated) {
+                        newInstanceMethod = method;
+                    }
                 }
             }
         }
@@ -38,6 +38,8 @@ public final class RegexReplacement {
 
     private final String substitution;
 
+    private final CompiledReplacement replacement;
+
     /**
      * Private constructor.
      *
@@ -47,6 +49,7 @@ public final class RegexReplacement {
     private RegexReplacement(final Pattern pattern, final String substitution) {
         this.pattern = pattern;
         this.substitution = substitution;
+        this.replacement = CompiledReplacement.compile(pattern, substitution);
     }
 
     /**
@@ -55,7 +58,16 @@ public final class RegexReplacement {
      * @return the replacement String.
      */
     public String format(final String msg) {
-        return pattern.matcher(msg).replaceAll(substitution);
+        return replacement.replace(msg);
+    }
+
+    /**
+     * Performs the replacement in place on the text appended to the buffer since the given index.
+     * @param buffer The buffer holding the text to match against.
+     * @param start The index of the first character to match against.
+     */
+    public void format(final StringBuilder buffer, final int start) {
+        replacement.replace(buffer, start);
     }
 
     @Override
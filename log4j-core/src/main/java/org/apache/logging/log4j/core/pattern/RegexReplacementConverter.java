@@ -33,9 +33,7 @@ import org.apache.logging.log4j.core.layout.PatternLayout;
 @ConverterKeys({ "replace" })
 public final class RegexReplacementConverter extends LogEventPatternConverter {
 
-    private final Pattern pattern;
-
-    private final String substitution;
+    private final CompiledReplacement replacement;
 
     private final List<PatternFormatter> formatters;
 
@@ -48,8 +46,7 @@ public final class RegexReplacementConverter extends LogEventPatternConverter {
     private RegexReplacementConverter(final List<PatternFormatter> formatters,
                                       final Pattern pattern, final String substitution) {
         super("replace", "replace");
-        this.pattern = pattern;
-        this.substitution = substitution;
+        this.replacement = CompiledReplacement.compile(pattern, substitution);
         this.formatters = formatters;
     }
 
@@ -90,10 +87,11 @@ public final class RegexReplacementConverter extends LogEventPatternConverter {
      */
     @Override
     public void format(final LogEvent event, final StringBuilder toAppendTo) {
-        final StringBuilder buf = new StringBuilder();
-        for (final PatternFormatter formatter : formatters) {
-            formatter.format(event, buf);
+        final int start = toAppendTo.length();
+        //noinspection ForLoopReplaceableByForEach
+        for (int i = 0, size = formatters.size(); i < size; i++) {
+            formatters.get(i).format(event, toAppendTo);
         }
-        toAppendTo.append(pattern.matcher(buf.toString()).replaceAll(substitution));
+        replacement.replace(toAppendTo, start);
     }
 }
@@ -0,0 +1,593 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.time.internal.format;
+
+import java.text.DateFormatSymbols;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TimeZone;
+
+import org.apache.logging.log4j.core.time.Instant;
+
+/**
+ * Garbage-free formatter for arbitrary {@link java.text.SimpleDateFormat}-style patterns. The pattern is compiled once
+ * into an array of rules; calendar fields are derived from the epoch second with {@code java.time} arithmetic instead
+ * of a {@link java.util.Calendar}, and the zone offset is looked up in the {@link ZoneRules} only when a transition is
+ * crossed.
+ * <p>
+ * The leading part of the pattern that does not change within a minute (for example {@code "yyyy-MM-dd HH:mm"} in
+ * {@code "yyyy-MM-dd HH:mm:ss.SSS"}) is formatted once per minute and copied for each subsequent call; only the
+ * remaining rules are evaluated for every timestamp.
+ * </p>
+ * <p>
+ * Output is identical to {@link FastDateFormat} for all supported letters, except for dates before the Gregorian
+ * cutover of 1582, which are rendered in the proleptic Gregorian calendar. In addition to the {@code SimpleDateFormat}
+ * letters, {@code n} prints the given number of second-fraction digits (as in {@link FixedDateFormat}), which is how
+ * microsecond and nanosecond precision timestamps from {@link org.apache.logging.log4j.core.time.MutableInstant} can
+ * be used with custom patterns. The week-based letters {@code Y}, {@code w} and {@code W} are not supported:
+ * {@link #createIfSupported(String, TimeZone, Locale)} returns {@code null} for such patterns.
+ * </p>
+ * <p>
+ * Instances cache the last formatted minute and zone offset and are therefore <em>not</em> thread-safe.
+ * </p>
+ * <p>
+ * Related benchmarks: /log4j-perf/src/main/java/org/apache/logging/log4j/perf/jmh/TimeFormatBenchmark.java and
+ * /log4j-perf/src/main/java/org/apache/logging/log4j/perf/jmh/DateTimeFormatBenchmark.java
+ * </p>
+ */
+public final class CompiledDateFormat {
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int DAYS_PER_CYCLE = 146_097;
+    private static final long DAYS_0000_TO_1970 = (DAYS_PER_CYCLE * 5L) - (30L * 365L + 7L);
+    private static final int[] DAYS_BEFORE_MONTH = {0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+    private static final int[] POWERS_OF_TEN = {
+            1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000};
+
+    private final String pattern;
+    private final TimeZone timeZone;
+    private final Locale locale;
+    private final ZoneRules zoneRules;
+    private final Rule[] rules;
+    private final int prefixRuleCount;
+    private final int precisionDivisor;
+
+    // cached zone offset, valid for epoch seconds in [offsetFrom, offsetUntil)
+    private long offsetFrom = Long.MAX_VALUE;
+    private long offsetUntil = Long.MIN_VALUE;
+    private int offsetSeconds;
+    private boolean daylight;
+
+    // cached prefix, valid for one local minute within the cached offset window
+    private final StringBuilder cachedPrefix = new StringBuilder(32);
+    private long cachedMinute = Long.MIN_VALUE;
+    private long cachedOffsetFrom;
+
+    private final Fields fields = new Fields();
+
+    private CompiledDateFormat(final String pattern, final TimeZone timeZone, final Locale locale,
+            final List<Rule> rules) {
+        this.pattern = pattern;
+        this.timeZone = timeZone;
+        this.locale = locale;
+        this.zoneRules = timeZone.toZoneId().getRules();
+        this.rules = rules.toArray(new Rule[0]);
+        int prefix = 0;
+        while (prefix < this.rules.length && this.rules[prefix].precisionDivisor() == 0) {
+            prefix++;
+        }
+        this.prefixRuleCount = prefix;
+        int divisor = POWERS_OF_TEN[9];
+        for (final Rule rule : this.rules) {
+            final int ruleDivisor = rule.precisionDivisor();
+            if (ruleDivisor != 0 && ruleDivisor < divisor) {
+                divisor = ruleDivisor;
+            }
+        }
+        this.precisionDivisor = divisor;
+    }
+
+    /**
+     * Compiles the specified pattern, or returns {@code null} if the pattern contains letters this class does not
+     * support.
+     *
+     * @param pattern a {@code SimpleDateFormat}-compatible pattern, optionally using {@code n} for second fractions
+     * @param timeZone the time zone, or {@code null} for the default time zone
+     * @param locale the locale used for month, weekday, era and AM/PM names, or {@code null} for the default locale
+     * @return a new formatter, or {@code null}
+     */
+    public static CompiledDateFormat createIfSupported(final String pattern, final TimeZone timeZone,
+            final Locale locale) {
+        Objects.requireNonNull(pattern, "pattern");
+        final TimeZone tz = timeZone == null ? TimeZone.getDefault() : timeZone;
+        final Locale loc = locale == null ? Locale.getDefault() : locale;
+        final List<Rule> rules = compile(pattern, tz, loc);
+        return rules == null ? null : new CompiledDateFormat(pattern, tz, loc, rules);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Returns {@code true} if the old and new date values will result in the same formatted output, {@code false}
+     * if results <i>may</i> differ.
+     */
+    public boolean isEquivalent(final long oldEpochSecond, final int oldNanoOfSecond, final long epochSecond,
+            final int nanoOfSecond) {
+        return oldEpochSecond == epochSecond
+                && oldNanoOfSecond / precisionDivisor == nanoOfSecond / precisionDivisor;
+    }
+
+    public String formatInstant(final Instant instant) {
+        final StringBuilder result = new StringBuilder(pattern.length() + 16);
+        format(instant.getEpochSecond(), instant.getNanoOfSecond(), result);
+        return result.toString();
+    }
+
+    public void formatInstant(final Instant instant, final StringBuilder destination) {
+        format(instant.getEpochSecond(), instant.getNanoOfSecond(), destination);
+    }
+
+    /**
+     * Appends the formatted timestamp to the specified {@code StringBuilder}.
+     *
+     * @param epochSecond seconds since the epoch
+     * @param nanoOfSecond the nanosecond fraction of the second
+     * @param destination the buffer to append to
+     */
+    public void format(final long epochSecond, final int nanoOfSecond, final StringBuilder destination) {
+        if (epochSecond < offsetFrom || epochSecond >= offsetUntil) {
+            updateOffset(epochSecond);
+        }
+        final long localSecond = epochSecond + offsetSeconds;
+        final long minute = Math.floorDiv(localSecond, 60);
+        final Fields f = fields;
+        if (minute != cachedMinute || cachedOffsetFrom != offsetFrom) {
+            f.setDateTime(localSecond, offsetSeconds, daylight);
+            cachedPrefix.setLength(0);
+            for (int i = 0; i < prefixRuleCount; i++) {
+                rules[i].append(f, cachedPrefix);
+            }
+            cachedMinute = minute;
+            cachedOffsetFrom = offsetFrom;
+        }
+        f.second = (int) (localSecond - minute * 60);
+        f.nanoOfSecond = nanoOfSecond;
+        destination.append(cachedPrefix);
+        for (int i = prefixRuleCount; i < rules.length; i++) {
+            rules[i].append(f, destination);
+        }
+    }
+
+    private void updateOffset(final long epochSecond) {
+        if (zoneRules.isFixedOffset()) {
+            offsetSeconds = zoneRules.getOffset(java.time.Instant.EPOCH).getTotalSeconds();
+            daylight = false;
+            offsetFrom = Long.MIN_VALUE;
+            offsetUntil = Long.MAX_VALUE;
+            return;
+        }
+        final java.time.Instant instant = java.time.Instant.ofEpochSecond(epochSecond);
+        offsetSeconds = zoneRules.getOffset(instant).getTotalSeconds();
+        daylight = zoneRules.isDaylightSavings(instant);
+        final ZoneOffsetTransition next = zoneRules.nextTransition(instant);
+        offsetFrom = epochSecond;
+        offsetUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledDateFormat[pattern=" + pattern + ", timeZone=" + timeZone.getID() + ", locale=" + locale + "]";
+    }
+
+    private static List<Rule> compile(final String pattern, final TimeZone timeZone, final Locale locale) {
+        final DateFormatSymbols symbols = new DateFormatSymbols(locale);
+        final List<Rule> rules = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        final int length = pattern.length();
+        int i = 0;
+        while (i < length) {
+            final char c = pattern.charAt(i);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) {
+                int count = 1;
+                while (i + count < length && pattern.charAt(i + count) == c) {
+                    count++;
+                }
+                i += count;
+                final Rule rule = createRule(c, count, symbols, timeZone, locale);
+                if (rule == null) {
+                    return null;
+                }
+                if (literal.length() > 0) {
+                    rules.add(new LiteralRule(literal.toString()));
+                    literal.setLength(0);
+                }
+                rules.add(rule);
+            } else {
+                // same quoting rules as FastDatePrinter.parseToken
+                boolean inLiteral = false;
+                for (; i < length; i++) {
+                    final char ch = pattern.charAt(i);
+                    if (ch == '\'') {
+                        if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+                            i++;
+                            literal.append(ch);
+                        } else {
+                            inLiteral = !inLiteral;
+                        }
+                    } else if (!inLiteral && ((ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z'))) {
+                        break;
+                    } else {
+                        literal.append(ch);
+                    }
+                }
+            }
+        }
+        if (literal.length() > 0) {
+            rules.add(new LiteralRule(literal.toString()));
+        }
+        return rules;
+    }
+
+    private static Rule createRule(final char letter, final int count, final DateFormatSymbols symbols,
+            final TimeZone timeZone, final Locale locale) {
+        switch (letter) {
+        case 'G':
+            return new TextRule(Field.ERA, symbols.getEras());
+        case 'y':
+            return count == 2 ? new TwoDigitYearRule() : new NumberRule(Field.YEAR, count < 4 ? 4 : count);
+        case 'M':
+            if (count >= 4) {
+                return new TextRule(Field.MONTH, symbols.getMonths());
+            }
+            if (count == 3) {
+                return new TextRule(Field.MONTH, symbols.getShortMonths());
+            }
+            return new NumberRule(Field.MONTH, count);
+        case 'd':
+            return new NumberRule(Field.DAY_OF_MONTH, count);
+        case 'D':
+            return new NumberRule(Field.DAY_OF_YEAR, count);
+        case 'F':
+            return new NumberRule(Field.DAY_OF_WEEK_IN_MONTH, count);
+        case 'E':
+            return new TextRule(Field.DAY_OF_WEEK, count < 4 ? symbols.getShortWeekdays() : symbols.getWeekdays());
+        case 'u':
+            return new NumberRule(Field.ISO_DAY_OF_WEEK, count);
+        case 'a':
+            return new TextRule(Field.AM_PM, symbols.getAmPmStrings());
+        case 'H':
+            return new NumberRule(Field.HOUR_OF_DAY, count);
+        case 'k':
+            return new NumberRule(Field.CLOCK_HOUR_OF_DAY, count);
+        case 'K':
+            return new NumberRule(Field.HOUR_OF_AMPM, count);
+        case 'h':
+            return new NumberRule(Field.CLOCK_HOUR_OF_AMPM, count);
+        case 'm':
+            return new NumberRule(Field.MINUTE, count);
+        case 's':
+            return new NumberRule(Field.SECOND, count);
+        case 'S':
+            return new NumberRule(Field.MILLISECOND, count);
+        case 'n':
+            return count <= 9 ? new FractionRule(count) : null;
+        case 'Z':
+            if (count == 1) {
+                return new OffsetRule(false, false, true);
+            }
+            return count == 2 ? new OffsetRule(true, true, true) : new OffsetRule(false, true, true);
+        case 'X':
+            return count <= 3 ? new OffsetRule(true, count == 3, count > 1) : null;
+        case 'z':
+            final int style = count >= 4 ? TimeZone.LONG : TimeZone.SHORT;
+            return new ZoneNameRule(timeZone.getDisplayName(false, style, locale),
+                    timeZone.getDisplayName(true, style, locale));
+        default:
+            // week-based fields (Y, w, W) depend on locale-specific week rules
+            return null;
+        }
+    }
+
+    private static void appendPadded(final StringBuilder buffer, final int value, final int minWidth) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        for (int i = digits; i < minWidth; i++) {
+            buffer.append('0');
+        }
+        buffer.append(value);
+    }
+
+    private enum Field {
+        ERA, YEAR, MONTH, DAY_OF_MONTH, DAY_OF_YEAR, DAY_OF_WEEK_IN_MONTH, DAY_OF_WEEK, ISO_DAY_OF_WEEK, AM_PM,
+        HOUR_OF_DAY, CLOCK_HOUR_OF_DAY, HOUR_OF_AMPM, CLOCK_HOUR_OF_AMPM, MINUTE, SECOND, MILLISECOND
+    }
+
+    /**
+     * Calendar fields of the timestamp being formatted, in the local time of the formatter's zone.
+     */
+    private static final class Fields {
+        int yearOfEra;
+        int era; // 0 = BC, 1 = AD
+        int month; // 1..12
+        int dayOfMonth;
+        int dayOfYear;
+        int isoDayOfWeek; // 1 = Monday .. 7 = Sunday
+        int hour;
+        int minute;
+        int second;
+        int nanoOfSecond;
+        int offsetSeconds;
+        boolean daylight;
+
+        void setDateTime(final long localSecond, final int offset, final boolean isDaylight) {
+            final long epochDay = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+            final int secondOfDay = Math.floorMod(localSecond, SECONDS_PER_DAY);
+            hour = secondOfDay / 3600;
+            minute = (secondOfDay / 60) % 60;
+            isoDayOfWeek = Math.floorMod(epochDay + 3, 7) + 1;
+            offsetSeconds = offset;
+            daylight = isDaylight;
+
+            // same algorithm as java.time.LocalDate.ofEpochDay
+            long zeroDay = epochDay + DAYS_0000_TO_1970 - 60;
+            long adjust = 0;
+            if (zeroDay < 0) {
+                final long adjustCycles = (zeroDay + 1) / DAYS_PER_CYCLE - 1;
+                adjust = adjustCycles * 400;
+                zeroDay += -adjustCycles * DAYS_PER_CYCLE;
+            }
+            long yearEst = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+            long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+            if (doyEst < 0) {
+                yearEst--;
+                doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+            }
+            yearEst += adjust;
+            final int marchDoy0 = (int) doyEst;
+            final int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+            month = (marchMonth0 + 2) % 12 + 1;
+            dayOfMonth = marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1;
+            final int year = (int) (yearEst + marchMonth0 / 10);
+
+            final boolean leap = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+            dayOfYear = DAYS_BEFORE_MONTH[month - 1] + dayOfMonth + (leap && month > 2 ? 1 : 0);
+            era = year > 0 ? 1 : 0;
+            yearOfEra = year > 0 ? year : 1 - year;
+        }
+
+        int get(final Field field) {
+            switch (field) {
+            case ERA:
+                return era;
+            case YEAR:
+                return yearOfEra;
+            case MONTH:
+                return month;
+            case DAY_OF_MONTH:
+                return dayOfMonth;
+            case DAY_OF_YEAR:
+                return dayOfYear;
+            case DAY_OF_WEEK_IN_MONTH:
+                return (dayOfMonth - 1) / 7 + 1;
+            case DAY_OF_WEEK:
+                return isoDayOfWeek % 7 + 1; // Calendar.SUNDAY = 1
+            case ISO_DAY_OF_WEEK:
+                return isoDayOfWeek;
+            case AM_PM:
+                return hour < 12 ? 0 : 1;
+            case HOUR_OF_DAY:
+                return hour;
+            case CLOCK_HOUR_OF_DAY:
+                return hour == 0 ? 24 : hour;
+            case HOUR_OF_AMPM:
+                return hour % 12;
+            case CLOCK_HOUR_OF_AMPM:
+                return hour % 12 == 0 ? 12 : hour % 12;
+            case MINUTE:
+                return minute;
+            case SECOND:
+                return second;
+            case MILLISECOND:
+                return nanoOfSecond / 1_000_000;
+            default:
+                throw new IllegalArgumentException(field.name());
+            }
+        }
+    }
+
+    private interface Rule {
+        void append(Fields fields, StringBuilder buffer);
+
+        /**
+         * Returns zero if the output of this rule does not change within a minute, otherwise the divisor applied to the
+         * nano-of-second to obtain the finest unit this rule prints.
+         */
+        int precisionDivisor();
+    }
+
+    private static final class LiteralRule implements Rule {
+        private final String text;
+
+        LiteralRule(final String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void append(final Fields fields, final StringBuilder buffer) {
+            buffer.append(text);
+        }
+
+        @Override
+        public int precisionDivisor() {
+            return 0;
+        }
+    }
+
+    private static final class NumberRule implements Rule {
+        private final Field field;
+        private final int minWidth;
+
+        NumberRule(final Field field, final int minWidth) {
+            this.field = field;
+            this.minWidth = minWidth;
+        }
+
+        @Override
+        public void append(final Fields fields, final StringBuilder buffer) {
+            appendPadded(buffer, fields.get(field), minWidth);
+        }
+
+        @Override
+        public int precisionDivisor() {
+            if (field == Field.SECOND) {
+                return POWERS_OF_TEN[9];
+            }
+            return field == Field.MILLISECOND ? POWERS_OF_TEN[6] : 0;
+        }
+    }
+
+    private static final class TwoDigitYearRule implements Rule {
+        @Override
+        public void append(final Fields fields, final StringBuilder buffer) {
+            appendPadded(buffer, fields.yearOfEra % 100, 2);
+        }
+
+        @Override
+        public int precisionDivisor() {
+            return 0;
+        }
+    }
+
+    private static final class TextRule implements Rule {
+        private final Field field;
+        private final String[] values;
+
+        TextRule(final Field field, final String[] values) {
+            this.field = field;
+            this.values = values;
+        }
+
+        @Override
+        public void append(final Fields fields, final StringBuilder buffer) {
+            // month names are indexed from zero, all other Calendar text fields by their Calendar value
+            final int value = fields.get(field);
+            buffer.append(values[field == Field.MONTH ? value - 1 : value]);
+        }
+
+        @Override
+        public int precisionDivisor() {
+            return 0;
+        }
+    }
+
+    private static final class FractionRule implements Rule {
+        private final int digits;
+        private final int divisor;
+
+        FractionRule(final int digits) {
+            this.digits = digits;
+            this.divisor = POWERS_OF_TEN[9 - digits];
+        }
+
+        @Override
+        public void append(final Fields fields, final StringBuilder buffer) {
+            appendPadded(buffer, fields.nanoOfSecond / divisor, digits);
+        }
+
+        @Override
+        public int precisionDivisor() {
+            return divisor;
+        }
+    }
+
+    private static final class OffsetRule implements Rule {
+        private final boolean utcAsZ;
+        private final boolean colon;
+        private final boolean minutes;
+
+        OffsetRule(final boolean utcAsZ, final boolean colon, final boolean minutes) {
+            this.utcAsZ = utcAsZ;
+            this.colon = colon;
+            this.minutes = minutes;
+        }
+
+        @Override
+        public void append(final Fields fields, final StringBuilder buffer) {
+            int offset = fields.offsetSeconds;
+            if (offset == 0 && utcAsZ) {
+                buffer.append('Z');
+                return;
+            }
+            if (offset < 0) {
+                buffer.append('-');
+                offset = -offset;
+            } else {
+                buffer.append('+');
+            }
+            final int hours = offset / 3600;
+            appendPadded(buffer, hours, 2);
+            if (minutes) {
+                if (colon) {
+                    buffer.append(':');
+                }
+                appendPadded(buffer, offset / 60 - 60 * hours, 2);
+            }
+        }
+
+        @Override
+        public int precisionDivisor() {
+            return 0;
+        }
+    }
+
+    private static final class ZoneNameRule implements Rule {
+        private final String standard;
+        private final String daylight;
+
+        ZoneNameRule(final String standard, final String daylight) {
+            this.standard = standard;
+            this.daylight = daylight;
+        }
+
+        @Override
+        public void append(final Fields fields, final StringBuilder buffer) {
+            buffer.append(fields.daylight ? daylight : standard);
+        }
+
+        @Override
+        public int precisionDivisor() {
+            return 0;
+        }
+    }
+}
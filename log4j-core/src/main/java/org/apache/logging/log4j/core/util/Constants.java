@@ -170,6 +170,15 @@ public final class Constants {
      */
     public static final int ENCODER_BYTE_BUFFER_SIZE = size("log4j.encoder.byteBufferSize", 8 * 1024);
 
+    /**
+     * Maximum number of rendered stack traces each extended throwable pattern converter ({@code %xEx}) keeps, so that
+     * repeatedly logged exceptions of the same shape are not resolved and rendered again. Zero disables the cache.
+     * <p>
+     * The cache is disabled by default, users can enable it with system property "log4j.stackTraceCacheSize".
+     * </p>
+     */
+    public static final int STACK_TRACE_CACHE_SIZE = size("log4j.stackTraceCacheSize", 0);
+
 
     private static int size(final String property, final int defaultValue) {
         return PropertiesUtil.getProperties().getIntegerProperty(property, defaultValue);
@@ -40,6 +40,8 @@ public final class HttpInputStreamUtil {
     private static final int NOT_FOUND = 404;
     private static final int OK = 200;
     private static final int BUF_SIZE = 1024;
+    private static final String ETAG = "ETag";
+    private static final String IF_NONE_MATCH = "If-None-Match";
 
     public static Result getInputStream(final LastModifiedSource source,
             final AuthorizationProvider authorizationProvider) {
@@ -48,6 +50,10 @@ public final class HttpInputStreamUtil {
             long lastModified = source.getLastModified();
             HttpURLConnection connection = UrlConnectionFactory.createConnection(source.getURI().toURL(),
                     lastModified, SslConfigurationFactory.getSslConfiguration(), authorizationProvider);
+            final String entityTag = source.getEntityTag();
+            if (entityTag != null) {
+                connection.setRequestProperty(IF_NONE_MATCH, entityTag);
+            }
             connection.connect();
             try {
                 int code = connection.getResponseCode();
@@ -65,6 +71,7 @@ public final class HttpInputStreamUtil {
                     case OK: {
                         try (InputStream is = connection.getInputStream()) {
                             source.setLastModified(connection.getLastModified());
+                            source.setEntityTag(connection.getHeaderField(ETAG));
                             LOGGER.debug("Content was modified for {}. previous lastModified: {}, new lastModified: {}",
                                     source.toString(), lastModified, connection.getLastModified());
                             result.status = Status.SUCCESS;
@@ -22,10 +22,11 @@ import java.net.URI;
 import org.apache.logging.log4j.core.util.Source;
 
 /**
- * A Source that includes the last modified time.
+ * A Source that includes the last modified time and, for HTTP sources, the entity tag of the last response.
  */
 public class LastModifiedSource extends Source {
     private volatile long lastModified;
+    private volatile String entityTag;
 
     public LastModifiedSource(final File file) {
         super(file);
@@ -48,4 +49,12 @@ public class LastModifiedSource extends Source {
     public void setLastModified(long lastModified) {
         this.lastModified = lastModified;
     }
+
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    public void setEntityTag(final String entityTag) {
+        this.entityTag = entityTag;
+    }
 }
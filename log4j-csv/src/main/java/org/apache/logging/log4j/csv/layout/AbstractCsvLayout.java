@@ -23,6 +23,8 @@ import org.apache.commons.csv.QuoteMode;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.layout.AbstractStringLayout;
 import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.StringBuilders;
 
 /**
  * A superclass for Comma-Separated Value (CSV) layouts.
@@ -37,6 +39,8 @@ public abstract class AbstractCsvLayout extends AbstractStringLayout {
     protected static final String DEFAULT_FORMAT = "Default";
     private static final String CONTENT_TYPE = "text/csv";
 
+    private static final ThreadLocal<StringBuilder> valueStringBuilder = new ThreadLocal<>();
+
     protected static CSVFormat createFormat(final String format, final Character delimiter, final Character escape,
             final Character quote, final QuoteMode quoteMode, final String nullString, final String recordSeparator) {
         CSVFormat csvFormat = CSVFormat.valueOf(format);
@@ -66,6 +70,7 @@ public abstract class AbstractCsvLayout extends AbstractStringLayout {
     }
 
     private final CSVFormat format;
+    private final CsvValueWriter valueWriter;
 
     protected AbstractCsvLayout(final Configuration config, final Charset charset, final CSVFormat csvFormat,
             final String header, final String footer) {
@@ -73,6 +78,70 @@ public abstract class AbstractCsvLayout extends AbstractStringLayout {
                 PatternLayout.newSerializerBuilder().setConfiguration(config).setPattern(header).build(),
                 PatternLayout.newSerializerBuilder().setConfiguration(config).setPattern(footer).build());
         this.format = csvFormat;
+        this.valueWriter = new CsvValueWriter(csvFormat);
+    }
+
+    /**
+     * Appends a numeric value.
+     */
+    void printLong(final long value, final StringBuilder destination, final boolean newRecord) {
+        final StringBuilder text = getValueStringBuilder();
+        text.append(value);
+        valueWriter.print(text, true, destination, newRecord);
+    }
+
+    /**
+     * Appends a textual value, which may be {@code null}.
+     */
+    void printText(final CharSequence value, final StringBuilder destination, final boolean newRecord) {
+        if (value == null) {
+            valueWriter.printNull(destination, newRecord);
+        } else {
+            valueWriter.print(value, false, destination, newRecord);
+        }
+    }
+
+    /**
+     * Appends the {@link Object#toString()} value of an object, which may be {@code null}.
+     */
+    void printObject(final Object value, final StringBuilder destination, final boolean newRecord) {
+        if (value == null) {
+            valueWriter.printNull(destination, newRecord);
+        } else if (value instanceof CharSequence) {
+            valueWriter.print((CharSequence) value, false, destination, newRecord);
+        } else {
+            final StringBuilder text = getValueStringBuilder();
+            // StringBuilderFormattable objects may format differently from their toString() method
+            if (value instanceof StringBuilderFormattable || !StringBuilders.appendSpecificTypes(text, value)) {
+                text.append(value);
+            }
+            valueWriter.print(text, value instanceof Number, destination, newRecord);
+        }
+    }
+
+    /**
+     * Appends a value formatted into {@link #getValueStringBuilder()}.
+     */
+    void printFormatted(final StringBuilder value, final StringBuilder destination, final boolean newRecord) {
+        valueWriter.print(value, false, destination, newRecord);
+    }
+
+    void println(final StringBuilder destination) {
+        valueWriter.println(destination);
+    }
+
+    /**
+     * Returns an empty thread-local StringBuilder for formatting a single value.
+     */
+    static StringBuilder getValueStringBuilder() {
+        StringBuilder result = valueStringBuilder.get();
+        if (result == null) {
+            result = new StringBuilder(DEFAULT_STRING_BUILDER_SIZE);
+            valueStringBuilder.set(result);
+        }
+        trimToMaxSize(result);
+        result.setLength(0);
+        return result;
     }
 
     @Override
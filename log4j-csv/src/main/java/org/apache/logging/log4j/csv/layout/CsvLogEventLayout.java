@@ -22,13 +22,18 @@ import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.Encoder;
+import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.plugins.Configurable;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginAttribute;
 import org.apache.logging.log4j.plugins.PluginFactory;
-import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.IndexedReadOnlyStringMap;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 
-import java.io.IOException;
 import java.nio.charset.Charset;
 
 /**
@@ -77,29 +82,84 @@ public class CsvLogEventLayout extends AbstractCsvLayout {
 
     @Override
     public String toSerializable(final LogEvent event) {
-        final StringBuilder buffer = getStringBuilder();
-        final CSVFormat format = getFormat();
-        try {
-            format.print(event.getNanoTime(), buffer, true);
-            format.print(event.getTimeMillis(), buffer, false);
-            format.print(event.getLevel(), buffer, false);
-            format.print(event.getThreadId(), buffer, false);
-            format.print(event.getThreadName(), buffer, false);
-            format.print(event.getThreadPriority(), buffer, false);
-            format.print(event.getMessage().getFormattedMessage(), buffer, false);
-            format.print(event.getLoggerFqcn(), buffer, false);
-            format.print(event.getLoggerName(), buffer, false);
-            format.print(event.getMarker(), buffer, false);
-            format.print(event.getThrownProxy(), buffer, false);
-            format.print(event.getSource(), buffer, false);
-            format.print(event.getContextData(), buffer, false);
-            format.print(event.getContextStack(), buffer, false);
-            format.println(buffer);
-            return buffer.toString();
-        } catch (final IOException e) {
-            StatusLogger.getLogger().error(event.toString(), e);
-            return format.getCommentMarker() + " " + e;
+        final StringBuilder text = getStringBuilder();
+        toText(event, text);
+        return text.toString();
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final StringBuilder text = getStringBuilder();
+        toText(event, text);
+        final Encoder<StringBuilder> helper = getStringBuilderEncoder();
+        helper.encode(text, destination);
+    }
+
+    private void toText(final LogEvent event, final StringBuilder buffer) {
+        printLong(event.getNanoTime(), buffer, true);
+        printLong(event.getTimeMillis(), buffer, false);
+        printText(event.getLevel().name(), buffer, false);
+        printLong(event.getThreadId(), buffer, false);
+        printText(event.getThreadName(), buffer, false);
+        printLong(event.getThreadPriority(), buffer, false);
+        final Message message = event.getMessage();
+        if (message instanceof StringBuilderFormattable) {
+            final StringBuilder text = getValueStringBuilder();
+            ((StringBuilderFormattable) message).formatTo(text);
+            printFormatted(text, buffer, false);
+        } else {
+            printText(message.getFormattedMessage(), buffer, false);
+        }
+        printText(event.getLoggerFqcn(), buffer, false);
+        printText(event.getLoggerName(), buffer, false);
+        printFormattable(event.getMarker(), buffer);
+        printObject(event.getThrownProxy(), buffer, false);
+        printObject(event.getSource(), buffer, false);
+        final ReadOnlyStringMap contextData = event.getContextData();
+        if (contextData instanceof SortedArrayStringMap) {
+            printFormatted(formatContextData((SortedArrayStringMap) contextData), buffer, false);
+        } else {
+            printObject(contextData, buffer, false);
+        }
+        printFormattable(event.getContextStack(), buffer);
+        println(buffer);
+    }
+
+    /**
+     * Prints markers and context stacks, whose {@code formatTo} methods match their {@code toString} methods.
+     */
+    private void printFormattable(final Object value, final StringBuilder buffer) {
+        if (value instanceof StringBuilderFormattable) {
+            final StringBuilder text = getValueStringBuilder();
+            ((StringBuilderFormattable) value).formatTo(text);
+            printFormatted(text, buffer, false);
+        } else {
+            printObject(value, buffer, false);
+        }
+    }
+
+    /**
+     * Formats the context data like {@link SortedArrayStringMap#toString()}.
+     */
+    private static StringBuilder formatContextData(final IndexedReadOnlyStringMap contextData) {
+        final StringBuilder text = getValueStringBuilder();
+        text.append('{');
+        for (int i = 0; i < contextData.size(); i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            final Object value = contextData.getValueAt(i);
+            text.append(contextData.getKeyAt(i)).append('=');
+            if (value == contextData) {
+                text.append("(this map)");
+            } else if (value instanceof String) {
+                text.append((String) value);
+            } else {
+                text.append(value);
+            }
         }
+        text.append('}');
+        return text;
     }
 
 }
@@ -22,14 +22,16 @@ import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.Encoder;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterConsumer;
+import org.apache.logging.log4j.message.ParameterVisitable;
 import org.apache.logging.log4j.plugins.Configurable;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginAttribute;
 import org.apache.logging.log4j.plugins.PluginFactory;
-import org.apache.logging.log4j.status.StatusLogger;
 
-import java.io.IOException;
 import java.nio.charset.Charset;
 
 /**
@@ -80,22 +82,42 @@ public class CsvParameterLayout extends AbstractCsvLayout {
         return new CsvParameterLayout(config, charset, csvFormat, header, footer);
     }
 
+    private final ParameterConsumer<StringBuilder> parameterPrinter =
+            (parameter, index, buffer) -> printObject(parameter, buffer, index == 0);
+
     public CsvParameterLayout(final Configuration config, final Charset charset, final CSVFormat csvFormat, final String header, final String footer) {
         super(config, charset, csvFormat, header, footer);
     }
 
     @Override
     public String toSerializable(final LogEvent event) {
+        final StringBuilder text = getStringBuilder();
+        toText(event, text);
+        return text.toString();
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final StringBuilder text = getStringBuilder();
+        toText(event, text);
+        final Encoder<StringBuilder> helper = getStringBuilderEncoder();
+        helper.encode(text, destination);
+    }
+
+    private void toText(final LogEvent event, final StringBuilder buffer) {
         final Message message = event.getMessage();
-        final Object[] parameters = message.getParameters();
-        final StringBuilder buffer = getStringBuilder();
-        try {
-            getFormat().printRecord(buffer, parameters);
-            return buffer.toString();
-        } catch (final IOException e) {
-            StatusLogger.getLogger().error(message, e);
-            return getFormat().getCommentMarker() + " " + e;
+        if (message instanceof ParameterVisitable) {
+            // avoids the copy of the parameters made by reusable messages
+            ((ParameterVisitable) message).forEachParameter(parameterPrinter, buffer);
+        } else {
+            final Object[] parameters = message.getParameters();
+            if (parameters != null) {
+                for (int i = 0; i < parameters.length; i++) {
+                    printObject(parameters[i], buffer, i == 0);
+                }
+            }
         }
+        println(buffer);
     }
 
 }
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.csv.layout;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.QuoteMode;
+
+/**
+ * Writes CSV values into a {@link StringBuilder} the same way {@link CSVFormat#print(Object, Appendable, boolean)}
+ * does, without allocating.
+ * <p>
+ * The delimiter, quote and escape characters, the quote policy and the null string of the format are resolved once,
+ * when the layout is created.
+ * </p>
+ */
+final class CsvValueWriter {
+
+    private static final char CR = '\r';
+    private static final char LF = '\n';
+    private static final char SP = ' ';
+    private static final char COMMENT = '#';
+
+    private final char delimiter;
+    private final boolean quoteCharacterSet;
+    private final char quoteChar;
+    private final boolean escapeCharacterSet;
+    private final char escapeChar;
+    private final QuoteMode quoteMode;
+    private final String nullValue;
+    private final boolean trim;
+    private final boolean trailingDelimiter;
+    private final String recordSeparator;
+
+    CsvValueWriter(final CSVFormat format) {
+        this.delimiter = format.getDelimiter();
+        this.quoteCharacterSet = format.isQuoteCharacterSet();
+        this.quoteChar = quoteCharacterSet ? format.getQuoteCharacter() : 0;
+        this.escapeCharacterSet = format.isEscapeCharacterSet();
+        // Without an escape character, quotes are escaped by doubling them
+        this.escapeChar = escapeCharacterSet ? format.getEscapeCharacter() : quoteChar;
+        this.quoteMode = format.getQuoteMode() == null ? QuoteMode.MINIMAL : format.getQuoteMode();
+        final String nullString = format.getNullString();
+        if (nullString == null) {
+            this.nullValue = "";
+        } else if (format.getQuoteMode() == QuoteMode.ALL) {
+            this.nullValue = format.getQuoteCharacter() + nullString + format.getQuoteCharacter();
+        } else {
+            this.nullValue = nullString;
+        }
+        this.trim = format.getTrim();
+        this.trailingDelimiter = format.getTrailingDelimiter();
+        this.recordSeparator = format.getRecordSeparator();
+    }
+
+    /**
+     * Writes a {@code null} value.
+     */
+    void printNull(final StringBuilder out, final boolean newRecord) {
+        if (!newRecord) {
+            out.append(delimiter);
+        }
+        if (trim) {
+            appendTrimmed(nullValue, out);
+        } else {
+            out.append(nullValue);
+        }
+    }
+
+    /**
+     * Writes a non-{@code null} value.
+     *
+     * @param value the text of the value
+     * @param number whether the value is a {@link Number}, which matters for {@link QuoteMode#NON_NUMERIC}
+     * @param out the destination
+     * @param newRecord whether the value is the first of its record
+     */
+    void print(final CharSequence value, final boolean number, final StringBuilder out, final boolean newRecord) {
+        int start = 0;
+        int end = value.length();
+        if (trim) {
+            while (start < end && value.charAt(start) <= SP) {
+                start++;
+            }
+            while (start < end && value.charAt(end - 1) <= SP) {
+                end--;
+            }
+        }
+        if (!newRecord) {
+            out.append(delimiter);
+        }
+        if (quoteCharacterSet) {
+            printWithQuotes(value, start, end, number, out, newRecord);
+        } else if (escapeCharacterSet) {
+            printWithEscapes(value, start, end, out);
+        } else {
+            out.append(value, start, end);
+        }
+    }
+
+    /**
+     * Ends the current record.
+     */
+    void println(final StringBuilder out) {
+        if (trailingDelimiter) {
+            out.append(delimiter);
+        }
+        if (recordSeparator != null) {
+            out.append(recordSeparator);
+        }
+    }
+
+    private void printWithEscapes(final CharSequence value, final int offset, final int end, final StringBuilder out) {
+        int start = offset;
+        for (int pos = offset; pos < end; pos++) {
+            char c = value.charAt(pos);
+            if (c == CR || c == LF || c == delimiter || c == escapeChar) {
+                out.append(value, start, pos);
+                if (c == LF) {
+                    c = 'n';
+                } else if (c == CR) {
+                    c = 'r';
+                }
+                out.append(escapeChar).append(c);
+                start = pos + 1;
+            }
+        }
+        out.append(value, start, end);
+    }
+
+    private void printWithQuotes(final CharSequence value, final int offset, final int end, final boolean number,
+            final StringBuilder out, final boolean newRecord) {
+        final boolean quote;
+        switch (quoteMode) {
+            case ALL:
+            case ALL_NON_NULL:
+                quote = true;
+                break;
+            case NON_NUMERIC:
+                quote = !number;
+                break;
+            case NONE:
+                printWithEscapes(value, offset, end, out);
+                return;
+            default:
+                quote = needsQuotes(value, offset, end, newRecord);
+                break;
+        }
+        if (!quote) {
+            out.append(value, offset, end);
+            return;
+        }
+
+        out.append(quoteChar);
+        int start = offset;
+        for (int pos = offset; pos < end; pos++) {
+            final char c = value.charAt(pos);
+            if (c == quoteChar || c == escapeChar) {
+                out.append(value, start, pos);
+                out.append(escapeChar);
+                start = pos;
+            }
+        }
+        out.append(value, start, end);
+        out.append(quoteChar);
+    }
+
+    /**
+     * Applies the rules of {@link QuoteMode#MINIMAL}.
+     */
+    private boolean needsQuotes(final CharSequence value, final int offset, final int end, final boolean newRecord) {
+        if (offset == end) {
+            // always quote an empty token that is the first on the line, as it may be the only thing on the line
+            return newRecord;
+        }
+        if (value.charAt(offset) <= COMMENT) {
+            return true;
+        }
+        for (int pos = offset; pos < end; pos++) {
+            final char c = value.charAt(pos);
+            if (c == LF || c == CR || c == quoteChar || c == delimiter || c == escapeChar) {
+                return true;
+            }
+        }
+        return value.charAt(end - 1) <= SP;
+    }
+
+    private static void appendTrimmed(final String value, final StringBuilder out) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= SP) {
+            start++;
+        }
+        while (start < end && value.charAt(end - 1) <= SP) {
+            end--;
+        }
+        out.append(value, start, end);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.csv.layout;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.QuoteMode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that {@link CsvValueWriter} produces the same output as Commons CSV.
+ */
+public class CsvValueWriterTest {
+
+    private static final Object[] VALUES = {
+            null, "", " ", "plain", "two words", "trailing ", " leading", "#comment", "!bang", "a,b", "a;b",
+            "tab\tseparated", "say \"hi\"", "it's", "back\\slash", "line\nfeed", "carriage\rreturn", "crlf\r\n",
+            "unicode é ü", 42, -7L, 3.25d, new BigDecimal("1.50"), Boolean.TRUE, 'x'
+    };
+
+    private static List<CSVFormat> formats() {
+        final List<CSVFormat> formats = new ArrayList<>();
+        for (final CSVFormat.Predefined predefined : CSVFormat.Predefined.values()) {
+            formats.add(predefined.getFormat());
+        }
+        final CSVFormat base = CSVFormat.DEFAULT;
+        for (final QuoteMode quoteMode : QuoteMode.values()) {
+            formats.add(base.withEscape('\\').withQuoteMode(quoteMode));
+            formats.add(base.withEscape('\\').withQuoteMode(quoteMode).withNullString("NULL"));
+            if (quoteMode != QuoteMode.NONE) {
+                formats.add(base.withQuoteMode(quoteMode).withNullString("NULL"));
+            }
+        }
+        formats.add(base.withQuote(null).withEscape('\\'));
+        formats.add(base.withQuote(null));
+        formats.add(base.withEscape('\\').withDelimiter(';'));
+        formats.add(base.withTrim().withNullString(" N "));
+        formats.add(base.withTrailingDelimiter().withRecordSeparator("|\n"));
+        return formats;
+    }
+
+    @Test
+    public void testMatchesCommonsCsv() throws IOException {
+        for (final CSVFormat format : formats()) {
+            final CsvValueWriter writer = new CsvValueWriter(format);
+            for (final Object first : VALUES) {
+                for (final Object second : VALUES) {
+                    final StringBuilder expected = new StringBuilder();
+                    format.printRecord(expected, first, second);
+
+                    final StringBuilder actual = new StringBuilder();
+                    print(writer, first, actual, true);
+                    print(writer, second, actual, false);
+                    writer.println(actual);
+
+                    assertEquals(expected.toString(), actual.toString(),
+                            () -> format + " [" + first + "] [" + second + "]");
+                }
+            }
+        }
+    }
+
+    private static void print(final CsvValueWriter writer, final Object value, final StringBuilder out,
+            final boolean newRecord) {
+        if (value == null) {
+            writer.printNull(out, newRecord);
+        } else {
+            writer.print(value.toString(), value instanceof Number, out, newRecord);
+        }
+    }
+}
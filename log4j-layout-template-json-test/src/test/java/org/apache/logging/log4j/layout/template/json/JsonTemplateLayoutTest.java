@@ -1178,6 +1178,54 @@ class JsonTemplateLayoutTest {
 
     }
 
+    @Test
+    void test_stringified_exception_resolver_with_deduplication() {
+
+        // Create the event template.
+        final String eventTemplate = writeJson(asMap(
+                "stackTrace", asMap(
+                        "$resolver", "exception",
+                        "field", "stackTrace",
+                        "stackTrace", asMap(
+                                "stringified", asMap(
+                                        "deduplication", asMap(
+                                                "windowMillis", 60_000))))));
+
+        // Create the layout.
+        final JsonTemplateLayout layout = JsonTemplateLayout
+                .newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setEventTemplate(eventTemplate)
+                .setStackTraceEnabled(true)
+                .build();
+
+        // Log the same exception three times, the last one after the window.
+        final long startMillis = 1_600_000_000_000L;
+        final long[] timesMillis = {startMillis, startMillis + 1_000, startMillis + 60_000};
+        final String[] stackTraces = new String[timesMillis.length];
+        final Exception exception = new RuntimeException("failed");
+        for (int i = 0; i < timesMillis.length; i++) {
+            final LogEvent logEvent = Log4jLogEvent
+                    .newBuilder()
+                    .setLoggerName(LOGGER_NAME)
+                    .setMessage(new SimpleMessage("foo"))
+                    .setThrown(exception)
+                    .setTimeMillis(timesMillis[i])
+                    .build();
+            final int index = i;
+            usingSerializedLogEventAccessor(layout, logEvent, accessor ->
+                    stackTraces[index] = accessor.getString("stackTrace"));
+        }
+
+        // Check the serialized stack traces.
+        final String header = stackTraces[0].substring(0, stackTraces[0].indexOf(System.lineSeparator()));
+        assertThat(header).matches("trace_id=[0-9a-f]{16}");
+        assertThat(stackTraces[0]).contains("java.lang.RuntimeException: failed");
+        assertThat(stackTraces[1]).isEqualTo(header + " repeat=1");
+        assertThat(stackTraces[2]).isEqualTo(stackTraces[0]);
+
+    }
+
     @Test
     void test_stack_trace_truncation() {
 
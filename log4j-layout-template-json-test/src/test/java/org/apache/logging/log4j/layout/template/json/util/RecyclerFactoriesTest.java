@@ -122,6 +122,67 @@ class RecyclerFactoriesTest {
             Assertions.assertThat(queue.remainingCapacity()).isEqualTo(100);
         }
 
+        // Check striped recycler factory.
+        {
+            final Object actualStripedRecyclerFactory = converter.convert("striped");
+            Assertions
+                    .assertThat(actualStripedRecyclerFactory)
+                    .isInstanceOf(StripedRecyclerFactory.class);
+        }
+
+        // Check striped recycler factory with stripes and capacity.
+        {
+            final Object recyclerFactory = converter.convert(
+                    "striped:stripes=5,capacity=3");
+            Assertions
+                    .assertThat(recyclerFactory)
+                    .isInstanceOf(StripedRecyclerFactory.class);
+            final StripedRecyclerFactory stripedRecyclerFactory =
+                    (StripedRecyclerFactory) recyclerFactory;
+            final Recycler<Object> recycler =
+                    stripedRecyclerFactory.create(Object::new);
+            Assertions
+                    .assertThat(recycler)
+                    .isInstanceOf(StripedRecycler.class);
+            final StripedRecycler<Object> stripedRecycler =
+                    (StripedRecycler<Object>) recycler;
+            Assertions.assertThat(stripedRecycler.getStripeCount()).isEqualTo(8);
+            Assertions.assertThat(stripedRecycler.getStripeCapacity()).isEqualTo(3);
+        }
+
+        // Check striped recycler factory with invalid capacity.
+        Assertions
+                .assertThatThrownBy(() -> converter.convert("striped:capacity=0"))
+                .hasMessageContaining("capacity");
+
+    }
+
+    @Test
+    void test_StripedRecycler_reuses_released_values() {
+        final StripedRecycler<StringBuilder> recycler = new StripedRecycler<>(
+                StringBuilder::new,
+                stringBuilder -> stringBuilder.setLength(0),
+                4,
+                2);
+        final StringBuilder firstValue = recycler.acquire();
+        firstValue.append("dirty");
+        recycler.release(firstValue);
+        final StringBuilder secondValue = recycler.acquire();
+        Assertions.assertThat(secondValue).isSameAs(firstValue);
+        Assertions.assertThat(secondValue).isEmpty();
+    }
+
+    @Test
+    void test_StripedRecycler_drops_values_exceeding_capacity() {
+        final StripedRecycler<Object> recycler =
+                new StripedRecycler<>(Object::new, ignored -> {}, 1, 1);
+        final Object firstValue = recycler.acquire();
+        final Object secondValue = recycler.acquire();
+        Assertions.assertThat(secondValue).isNotSameAs(firstValue);
+        recycler.release(firstValue);
+        recycler.release(secondValue);
+        Assertions.assertThat(recycler.acquire()).isSameAs(firstValue);
+        Assertions.assertThat(recycler.acquire()).isNotSameAs(secondValue);
     }
 
     @Test
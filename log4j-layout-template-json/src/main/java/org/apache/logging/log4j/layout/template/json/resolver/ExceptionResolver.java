@@ -18,6 +18,7 @@ package org.apache.logging.log4j.layout.template.json.resolver;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.StackTraceDeduplicator;
 import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout;
 import org.apache.logging.log4j.layout.template.json.JsonTemplateLayoutDefaults;
 import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
@@ -48,7 +49,7 @@ import java.util.regex.PatternSyntaxException;
  *                       , [ elementTemplate ]
  *                       )
  *
- * stringified         = "stringified" -> ( boolean | truncation )
+ * stringified         = "stringified" -> ( boolean | truncation | deduplication )
  * truncation          = "truncation" -> (
  *                         [ suffix ]
  *                       , [ pointMatcherStrings ]
@@ -57,6 +58,8 @@ import java.util.regex.PatternSyntaxException;
  * suffix              = "suffix" -> string
  * pointMatcherStrings = "pointMatcherStrings" -> string[]
  * pointMatcherRegexes = "pointMatcherRegexes" -> string[]
+ * deduplication       = "deduplication" -> windowMillis
+ * windowMillis        = "windowMillis" -> number
  *
  * elementTemplate     = "elementTemplate" -> object
  * </pre>
@@ -74,6 +77,11 @@ import java.util.regex.PatternSyntaxException;
  * with <tt>suffix</tt>, which by default is set to the configured
  * <tt>truncatedStringSuffix</tt> in the layout, unless explicitly provided.
  * <p>
+ * <tt>deduplication</tt> writes a stringified stack trace in full, preceded
+ * by a <tt>trace_id=&lt;id&gt;</tt> line, only the first time a throwable of
+ * the same shape is seen within <tt>windowMillis</tt>. Repeats within the
+ * window resolve to <tt>trace_id=&lt;id&gt; repeat=&lt;count&gt;</tt>.
+ * <p>
  * <tt>elementTemplate</tt> is an object describing the template to be used
  * while resolving the {@link StackTraceElement} array. If <tt>stringified</tt>
  * is set to <tt>true</tt>, <tt>elementTemplate</tt> will be discarded. By
@@ -146,6 +154,23 @@ import java.util.regex.PatternSyntaxException;
  * }
  * </pre>
  *
+ * Resolve the stack trace into a string field, writing repeats within a
+ * minute as a reference to the first occurrence:
+ *
+ * <pre>
+ *  {
+ *   "$resolver": "exception",
+ *   "field": "stackTrace",
+ *   "stackTrace": {
+ *     "stringified": {
+ *       "deduplication": {
+ *         "windowMillis": 60000
+ *       }
+ *     }
+ *   }
+ * }
+ * </pre>
+ *
  * Resolve the stack trace into an object described by the provided stack trace
  * element template:
  *
@@ -293,6 +318,22 @@ public class ExceptionResolver implements EventResolver {
                         truncationPointMatcherStrings,
                         truncationPointMatcherRegexes);
 
+        // Create the null-protected resolver deduplicating stack traces, if requested.
+        final Integer deduplicationWindowMillis = config.getInteger(
+                new String[]{"stackTrace", "stringified", "deduplication", "windowMillis"});
+        if (deduplicationWindowMillis != null) {
+            final StackTraceDeduplicator deduplicator =
+                    new StackTraceDeduplicator(deduplicationWindowMillis);
+            return (final LogEvent logEvent, final JsonWriter jsonWriter) -> {
+                final Throwable exception = extractThrowable(logEvent);
+                if (exception == null) {
+                    jsonWriter.writeNull();
+                } else {
+                    resolver.resolve(exception, logEvent.getTimeMillis(), deduplicator, jsonWriter);
+                }
+            };
+        }
+
         // Create the null-protected resolver.
         return (final LogEvent logEvent, final JsonWriter jsonWriter) -> {
             final Throwable exception = extractThrowable(logEvent);
@@ -16,6 +16,8 @@
  */
 package org.apache.logging.log4j.layout.template.json.resolver;
 
+import org.apache.logging.log4j.core.impl.StackTraceDeduplicator;
+import org.apache.logging.log4j.core.impl.ThrowableFingerprint;
 import org.apache.logging.log4j.layout.template.json.util.TruncatingBufferedPrintWriter;
 import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
 import org.apache.logging.log4j.layout.template.json.util.Recycler;
@@ -85,6 +87,36 @@ final class StackTraceStringResolver implements StackTraceResolver {
         }
     }
 
+    /**
+     * Resolves the stack trace unless the deduplicator has seen the same
+     * fingerprint within its window, in which case only a reference to the
+     * first occurrence is written.
+     */
+    void resolve(
+            final Throwable throwable,
+            final long timeMillis,
+            final StackTraceDeduplicator deduplicator,
+            final JsonWriter jsonWriter) {
+        final ThrowableFingerprint fingerprint = ThrowableFingerprint.of(throwable);
+        final int repeats = deduplicator.record(fingerprint, timeMillis);
+        final TruncatingBufferedPrintWriter writer = writerRecycler.acquire();
+        try {
+            writer.print(StackTraceDeduplicator.TRACE_ID);
+            writer.print(fingerprint.getId());
+            if (repeats > 0) {
+                writer.print(StackTraceDeduplicator.REPEAT);
+                writer.print(repeats);
+            } else {
+                writer.println();
+                throwable.printStackTrace(writer);
+                truncate(writer);
+            }
+            jsonWriter.writeString(writer.buffer(), 0, writer.position());
+        } finally {
+            writerRecycler.release(writer);
+        }
+    }
+
     private void truncate(final TruncatingBufferedPrintWriter writer) {
 
         // Short-circuit if truncation is not enabled.
@@ -34,6 +34,8 @@ public final class RecyclerFactories {
 
     private RecyclerFactories() {}
 
+    private static final int DEFAULT_STRIPE_CAPACITY = 4;
+
     private static final String JCTOOLS_QUEUE_CLASS_SUPPLIER_PATH =
             "org.jctools.queues.MpmcArrayQueue.new";
 
@@ -86,6 +88,11 @@ public final class RecyclerFactories {
             return readQueueingRecyclerFactory(recyclerFactorySpec, defaultCapacity);
         }
 
+        // Is a striped factory requested?
+        else if (recyclerFactorySpec.startsWith("striped")) {
+            return readStripedRecyclerFactory(recyclerFactorySpec);
+        }
+
         // Bogus input, bail out.
         else {
             throw new IllegalArgumentException(
@@ -140,6 +147,63 @@ public final class RecyclerFactories {
 
     }
 
+    private static RecyclerFactory readStripedRecyclerFactory(
+            final String recyclerFactorySpec) {
+
+        // Parse the spec.
+        final String stripedFactorySpec = recyclerFactorySpec.substring(
+                "striped".length() +
+                        (recyclerFactorySpec.startsWith("striped:")
+                                ? 1
+                                : 0));
+        final Map<String, StringParameterParser.Value> parsedValues =
+                StringParameterParser.parse(
+                        stripedFactorySpec,
+                        new LinkedHashSet<>(Arrays.asList("stripes", "capacity")));
+
+        // Read the stripe count, which is rounded up to a power of two.
+        final int defaultStripeCount = Runtime.getRuntime().availableProcessors();
+        final int stripeCount = ceilingPowerOfTwo(readPositiveInt(
+                stripedFactorySpec, parsedValues, "stripes", defaultStripeCount));
+
+        // Read the capacity per stripe.
+        final int stripeCapacity = readPositiveInt(
+                stripedFactorySpec, parsedValues, "capacity", DEFAULT_STRIPE_CAPACITY);
+
+        return new StripedRecyclerFactory(stripeCount, stripeCapacity);
+
+    }
+
+    private static int readPositiveInt(
+            final String factorySpec,
+            final Map<String, StringParameterParser.Value> parsedValues,
+            final String key,
+            final int defaultValue) {
+        final StringParameterParser.Value value = parsedValues.get(key);
+        if (value == null || value instanceof StringParameterParser.NullValue) {
+            return defaultValue;
+        }
+        final int parsedValue;
+        try {
+            parsedValue = Integer.parseInt(value.toString());
+        } catch (final NumberFormatException error) {
+            throw new IllegalArgumentException(
+                    "failed reading " + key + " in striped recycler " +
+                            "factory: " + factorySpec, error);
+        }
+        if (parsedValue < 1) {
+            throw new IllegalArgumentException(
+                    "was expecting a positive " + key + " in striped " +
+                            "recycler factory: " + factorySpec);
+        }
+        return parsedValue;
+    }
+
+    private static int ceilingPowerOfTwo(final int value) {
+        final int highestOneBit = Integer.highestOneBit(value);
+        return highestOneBit == value ? value : highestOneBit << 1;
+    }
+
     private static RecyclerFactory createRecyclerFactory(
             final String queueFactorySpec,
             final String supplierPath,
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A lock-free {@link Recycler} spreading its pooled values over a set of
+ * stripes, where the stripe of a thread is determined by a probe derived from
+ * its identifier, similar to cells of a {@link java.util.concurrent.atomic.LongAdder}.
+ * <p>
+ * Threads hashing to different stripes never touch the same slots, hence the
+ * contention of a single shared queue is avoided. Since no state is bound to
+ * the thread itself, this recycler does not leak values on pooled or virtual
+ * threads, unlike {@link ThreadLocalRecycler}. When the stripe of the thread is
+ * empty, the neighbouring stripe is tried before allocating a new value.
+ * Likewise, on release, a value is dropped if neither of these stripes has a
+ * free slot.
+ * </p>
+ */
+public class StripedRecycler<V> implements Recycler<V> {
+
+    /**
+     * Number of reference slots spanning a cache line, used to keep stripes
+     * apart from each other and avoid false sharing.
+     */
+    private static final int CACHE_LINE_SLOT_COUNT = 16;
+
+    private final Supplier<V> supplier;
+
+    private final Consumer<V> cleaner;
+
+    private final int stripeCapacity;
+
+    private final int stripeMask;
+
+    private final int stripeStride;
+
+    private final AtomicReferenceArray<V> slots;
+
+    public StripedRecycler(
+            final Supplier<V> supplier,
+            final Consumer<V> cleaner,
+            final int stripeCount,
+            final int stripeCapacity) {
+        if (stripeCount < 1 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException(
+                    "was expecting a positive power of two stripe count: " +
+                            stripeCount);
+        }
+        if (stripeCapacity < 1) {
+            throw new IllegalArgumentException(
+                    "was expecting a positive stripe capacity: " +
+                            stripeCapacity);
+        }
+        this.supplier = supplier;
+        this.cleaner = cleaner;
+        this.stripeCapacity = stripeCapacity;
+        this.stripeMask = stripeCount - 1;
+        this.stripeStride = Math.max(stripeCapacity, CACHE_LINE_SLOT_COUNT);
+        this.slots = new AtomicReferenceArray<>(stripeCount * stripeStride);
+    }
+
+    // Visible for tests.
+    int getStripeCount() {
+        return stripeMask + 1;
+    }
+
+    // Visible for tests.
+    int getStripeCapacity() {
+        return stripeCapacity;
+    }
+
+    @Override
+    public V acquire() {
+        final int stripeIndex = probe();
+        V value = poll(stripeIndex);
+        if (value == null && stripeMask != 0) {
+            value = poll((stripeIndex + 1) & stripeMask);
+        }
+        if (value == null) {
+            return supplier.get();
+        } else {
+            cleaner.accept(value);
+            return value;
+        }
+    }
+
+    private V poll(final int stripeIndex) {
+        final int offset = stripeIndex * stripeStride;
+        for (int slotIndex = offset; slotIndex < offset + stripeCapacity; slotIndex++) {
+            final V value = slots.get(slotIndex);
+            if (value != null && slots.compareAndSet(slotIndex, value, null)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void release(final V value) {
+        final int stripeIndex = probe();
+        if (!offer(stripeIndex, value) && stripeMask != 0) {
+            offer((stripeIndex + 1) & stripeMask, value);
+        }
+    }
+
+    private boolean offer(final int stripeIndex, final V value) {
+        final int offset = stripeIndex * stripeStride;
+        for (int slotIndex = offset; slotIndex < offset + stripeCapacity; slotIndex++) {
+            if (slots.get(slotIndex) == null && slots.compareAndSet(slotIndex, null, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int probe() {
+        // Spread the thread identifier using the 64-bit golden ratio, so that
+        // sequentially allocated identifiers land on distinct stripes.
+        final long threadId = Thread.currentThread().getId();
+        final long hash = threadId * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & stripeMask;
+    }
+
+}
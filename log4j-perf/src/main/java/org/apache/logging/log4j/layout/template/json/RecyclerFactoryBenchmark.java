@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.layout.template.json;
+
+import org.apache.logging.log4j.layout.template.json.util.Recycler;
+import org.apache.logging.log4j.layout.template.json.util.RecyclerFactories;
+import org.apache.logging.log4j.layout.template.json.util.RecyclerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark suite for {@link RecyclerFactory} implementations under
+ * concurrent load of either platform or virtual threads.
+ * <p>
+ * Each benchmark invocation submits {@code taskCount} tasks, each of which
+ * acquires and releases a {@link StringBuilder} a number of times. Platform
+ * threads are served by a fixed pool of {@code taskCount} threads, whereas
+ * virtual threads are created per task, which is the setting where
+ * {@code ThreadLocal}-based recycling cannot reuse anything. Virtual threads
+ * require Java 21 or later and are accessed reflectively.
+ * </p>
+ * <p>
+ * You can run this test as follows:
+ * <pre>{@code
+ * java \
+ *     -jar log4j-perf/target/benchmarks.jar \
+ *     -f 2 \
+ *     -wi 3 -w 20s \
+ *     -i 5 -r 30s \
+ *     -prof gc \
+ *     -rf json -rff log4j-perf/target/RecyclerFactoryBenchmarkResult.json \
+ *     ".*RecyclerFactoryBenchmark.*"
+ * }</pre>
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class RecyclerFactoryBenchmark {
+
+    private static final int CYCLE_COUNT_PER_TASK = 1_000;
+
+    @Param({"dummy", "threadLocal", "queue", "striped"})
+    public String recyclerFactorySpec;
+
+    @Param({"platform", "virtual"})
+    public String threadKind;
+
+    @Param({"200"})
+    public int taskCount;
+
+    private ExecutorService executorService;
+
+    private List<Callable<Integer>> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final RecyclerFactory recyclerFactory = RecyclerFactories.ofSpec(recyclerFactorySpec);
+        final Recycler<StringBuilder> recycler = recyclerFactory.create(
+                () -> new StringBuilder(512),
+                stringBuilder -> stringBuilder.setLength(0));
+        executorService = createExecutorService(threadKind, taskCount);
+        tasks = new ArrayList<>(taskCount);
+        for (int taskIndex = 0; taskIndex < taskCount; taskIndex++) {
+            tasks.add(() -> {
+                int length = 0;
+                for (int cycleIndex = 0; cycleIndex < CYCLE_COUNT_PER_TASK; cycleIndex++) {
+                    final StringBuilder stringBuilder = recycler.acquire();
+                    try {
+                        stringBuilder.append("cycle-").append(cycleIndex);
+                        length += stringBuilder.length();
+                    } finally {
+                        recycler.release(stringBuilder);
+                    }
+                }
+                return length;
+            });
+        }
+    }
+
+    private static ExecutorService createExecutorService(
+            final String threadKind,
+            final int taskCount) {
+        switch (threadKind) {
+            case "platform":
+                return Executors.newFixedThreadPool(taskCount);
+            case "virtual":
+                try {
+                    final Method executorFactory = Executors.class.getMethod(
+                            "newVirtualThreadPerTaskExecutor");
+                    return (ExecutorService) executorFactory.invoke(null);
+                } catch (final ReflectiveOperationException error) {
+                    throw new IllegalStateException(
+                            "virtual threads are not supported by this JVM", error);
+                }
+            default:
+                throw new IllegalArgumentException("invalid thread kind: " + threadKind);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @Benchmark
+    public int acquireAndRelease() throws Exception {
+        int length = 0;
+        for (final Future<Integer> future : executorService.invokeAll(tasks)) {
+            length += future.get();
+        }
+        return length;
+    }
+
+}
@@ -51,6 +51,13 @@ import org.openjdk.jmh.annotations.TearDown;
 @State(Scope.Thread)
 public class AsyncLoggersLocationBenchmark {
 
+    /**
+     * Location supplied by the caller, so that no stack walk is needed.
+     */
+    private static final StackTraceElement LOCATION = new StackTraceElement(
+            AsyncLoggersLocationBenchmark.class.getName(), "throughputSuppliedLocation",
+            "AsyncLoggersLocationBenchmark.java", 1);
+
     Logger logger;
 
     @Setup(Level.Trial)
@@ -79,4 +86,18 @@ public class AsyncLoggersLocationBenchmark {
         logger.info(BenchmarkMessageParams.TEST);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughputFluent() {
+        logger.atInfo().withLocation().log(BenchmarkMessageParams.TEST);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughputSuppliedLocation() {
+        logger.atInfo().withLocation(LOCATION).log(BenchmarkMessageParams.TEST);
+    }
+
 }
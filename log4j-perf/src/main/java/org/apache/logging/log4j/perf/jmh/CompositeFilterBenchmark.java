@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.LevelMatchFilter;
+import org.apache.logging.log4j.core.filter.LevelRangeFilter;
+import org.apache.logging.log4j.core.filter.MarkerFilter;
+import org.apache.logging.log4j.core.filter.RegexFilter;
+import org.apache.logging.log4j.core.filter.ThresholdFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares a {@link CompositeFilter} of six context-wide filters against evaluating the same filters one by one.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar ".*CompositeFilterBenchmark.*" -f 1 -i 5 -wi 5
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CompositeFilterBenchmark {
+
+    @Param({"TRACE", "INFO"})
+    public String levelName;
+
+    private Level level;
+    private Filter[] filters;
+    private CompositeFilter composite;
+    private final Marker marker = MarkerManager.getMarker("EVENT");
+
+    @Setup
+    public void setUp() throws IllegalAccessException {
+        level = Level.getLevel(levelName);
+        filters = new Filter[] {
+                ThresholdFilter.createFilter(Level.DEBUG, Result.NEUTRAL, Result.DENY),
+                LevelRangeFilter.createFilter(Level.FATAL, Level.ALL, Result.NEUTRAL, Result.DENY),
+                LevelMatchFilter.newBuilder().setLevel(Level.OFF).setOnMatch(Result.DENY).build(),
+                MarkerFilter.createFilter("AUDIT", Result.ACCEPT, Result.NEUTRAL),
+                RegexFilter.createFilter(".*password.*", null, true, Result.DENY, Result.NEUTRAL),
+                ThresholdFilter.createFilter(Level.WARN, Result.ACCEPT, Result.NEUTRAL)
+        };
+        composite = CompositeFilter.createFilters(filters);
+    }
+
+    @Benchmark
+    public Result composite() {
+        return composite.filter(null, level, marker, "User {} logged in", "alice");
+    }
+
+    @Benchmark
+    public Result sequential() {
+        for (final Filter filter : filters) {
+            final Result result = filter.filter(null, level, marker, "User {} logged in", "alice");
+            if (result != Result.NEUTRAL) {
+                return result;
+            }
+        }
+        return Result.NEUTRAL;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.NullConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.csv.layout.CsvLogEventLayout;
+import org.apache.logging.log4j.csv.layout.CsvParameterLayout;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.perf.util.DemoAppender;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the CSV layouts with formatting the same record through Commons CSV and with PatternLayout.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar CsvLayoutBenchmark -f 1 -i 5 -wi 5 -prof gc
+@State(Scope.Thread)
+public class CsvLayoutBenchmark {
+
+    private static final LogEvent EVENT = createLogEvent();
+
+    private static LogEvent createLogEvent() {
+        final SortedArrayStringMap contextData = new SortedArrayStringMap();
+        contextData.putValue("user", "alice");
+        contextData.putValue("request", "4711");
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("com.mycom.myproject.mypackage.MyClass")
+                .setLoggerFqcn("org.apache.logging.log4j.spi.AbstractLogger")
+                .setLevel(Level.INFO)
+                .setMessage(new ParameterizedMessage("Order {} shipped to \"{}\", total {}",
+                        "A-1234", "Main Street 1, Springfield", 42.5))
+                .setContextData(contextData)
+                .setThreadName("main")
+                .setTimeMillis(1_600_000_000_000L)
+                .build();
+    }
+
+    private Appender csvLogEventAppender;
+    private Appender csvParameterAppender;
+    private Appender patternAppender;
+    private CSVFormat format;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("log4j2.enable.direct.encoders", "true");
+
+        format = CSVFormat.DEFAULT;
+        csvLogEventAppender = new DemoAppender(CsvLogEventLayout.createLayout(format));
+        csvParameterAppender = new DemoAppender(CsvParameterLayout.createLayout(format));
+        patternAppender = new DemoAppender(PatternLayout.newBuilder()
+                .setConfiguration(new NullConfiguration())
+                .setPattern("%d{UNIX_MILLIS},%p,%t,%m,%c,%X%n")
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty("log4j2.enable.direct.encoders");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void csvLogEventLayout() {
+        csvLogEventAppender.append(EVENT);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void csvParameterLayout() {
+        csvParameterAppender.append(EVENT);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void patternLayout() {
+        patternAppender.append(EVENT);
+    }
+
+    /**
+     * Formats the record of {@link #csvLogEventLayout()} the way the layout did before it wrote values itself.
+     */
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public byte[] commonsCsvLogEvent() throws IOException {
+        final StringBuilder buffer = new StringBuilder();
+        format.print(EVENT.getNanoTime(), buffer, true);
+        format.print(EVENT.getTimeMillis(), buffer, false);
+        format.print(EVENT.getLevel(), buffer, false);
+        format.print(EVENT.getThreadId(), buffer, false);
+        format.print(EVENT.getThreadName(), buffer, false);
+        format.print(EVENT.getThreadPriority(), buffer, false);
+        format.print(EVENT.getMessage().getFormattedMessage(), buffer, false);
+        format.print(EVENT.getLoggerFqcn(), buffer, false);
+        format.print(EVENT.getLoggerName(), buffer, false);
+        format.print(EVENT.getMarker(), buffer, false);
+        format.print(EVENT.getThrownProxy(), buffer, false);
+        format.print(EVENT.getSource(), buffer, false);
+        format.print(EVENT.getContextData(), buffer, false);
+        format.print(EVENT.getContextStack(), buffer, false);
+        format.println(buffer);
+        return buffer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Formats the record of {@link #csvParameterLayout()} the way the layout did before it wrote values itself.
+     */
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public byte[] commonsCsvParameters() throws IOException {
+        final StringBuilder buffer = new StringBuilder();
+        format.printRecord(buffer, EVENT.getMessage().getParameters());
+        return buffer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
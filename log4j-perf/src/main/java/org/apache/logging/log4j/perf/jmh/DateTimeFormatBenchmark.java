@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.perf.jmh;
 
 import org.apache.logging.log4j.core.time.MutableInstant;
+import org.apache.logging.log4j.core.time.internal.format.CompiledDateFormat;
 import org.apache.logging.log4j.core.time.internal.format.FastDatePrinter;
 import org.apache.logging.log4j.core.time.internal.format.FixedDateFormat;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -31,7 +32,7 @@ import java.util.stream.IntStream;
 
 /**
  * Compares {@link MutableInstant} formatting efficiency of
- * {@link FastDatePrinter}, {@link FixedDateFormat}, and {@link DateTimeFormatter}.
+ * {@link FastDatePrinter}, {@link FixedDateFormat}, {@link CompiledDateFormat}, and {@link DateTimeFormatter}.
  * <p>
  * The major formatting efficiency is mostly provided by caching, i.e.,
  * reusing the earlier formatter output if timestamps match. We deliberately
@@ -49,6 +50,11 @@ public class DateTimeFormatBenchmark {
      */
     private static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS";
 
+    /**
+     * A pattern {@link FixedDateFormat} does not support, with nanosecond precision.
+     */
+    private static final String NANOS_PATTERN = "dd MMM yyyy HH:mm:ss.nnnnnnnnn";
+
     private static final Locale LOCALE = Locale.US;
 
     private static final TimeZone TIME_ZONE = TimeZone.getTimeZone("UTC");
@@ -89,6 +95,19 @@ public class DateTimeFormatBenchmark {
                     .withZone(TIME_ZONE.toZoneId())
                     .withLocale(LOCALE);
 
+    private static final DateTimeFormatter NANOS_DATE_TIME_FORMATTER =
+            DateTimeFormatter
+                    .ofPattern(NANOS_PATTERN.replace('n', 'S'))
+                    .withZone(TIME_ZONE.toZoneId())
+                    .withLocale(LOCALE);
+
+    // not thread-safe, hence instance fields of this thread-scoped state
+    private final CompiledDateFormat compiledDateFormat =
+            CompiledDateFormat.createIfSupported(PATTERN, TIME_ZONE, LOCALE);
+
+    private final CompiledDateFormat compiledNanosDateFormat =
+            CompiledDateFormat.createIfSupported(NANOS_PATTERN, TIME_ZONE, LOCALE);
+
     private final StringBuilder stringBuilder = new StringBuilder(PATTERN.length() * 2);
 
     private final char[] charBuffer = new char[stringBuilder.capacity()];
@@ -110,6 +129,15 @@ public class DateTimeFormatBenchmark {
         }
     }
 
+    @Benchmark
+    public void compiledDateFormat(final Blackhole blackhole) {
+        for (final MutableInstant instant : INSTANTS) {
+            stringBuilder.setLength(0);
+            compiledDateFormat.formatInstant(instant, stringBuilder);
+            blackhole.consume(stringBuilder.length());
+        }
+    }
+
     @Benchmark
     public void dateTimeFormatter(final Blackhole blackhole) {
         for (final MutableInstant instant : INSTANTS) {
@@ -119,4 +147,22 @@ public class DateTimeFormatBenchmark {
         }
     }
 
+    @Benchmark
+    public void compiledDateFormatNanos(final Blackhole blackhole) {
+        for (final MutableInstant instant : INSTANTS) {
+            stringBuilder.setLength(0);
+            compiledNanosDateFormat.formatInstant(instant, stringBuilder);
+            blackhole.consume(stringBuilder.length());
+        }
+    }
+
+    @Benchmark
+    public void dateTimeFormatterNanos(final Blackhole blackhole) {
+        for (final MutableInstant instant : INSTANTS) {
+            stringBuilder.setLength(0);
+            NANOS_DATE_TIME_FORMATTER.formatTo(instant, stringBuilder);
+            blackhole.consume(stringBuilder.length());
+        }
+    }
+
 }
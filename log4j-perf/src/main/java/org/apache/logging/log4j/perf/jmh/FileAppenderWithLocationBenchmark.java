@@ -44,6 +44,9 @@ import org.slf4j.LoggerFactory;
 @State(Scope.Thread)
 public class FileAppenderWithLocationBenchmark {
     public static final String MESSAGE = "This is a debug message";
+    private static final StackTraceElement LOCATION = new StackTraceElement(
+            FileAppenderWithLocationBenchmark.class.getName(), "log4j2SuppliedLocationFile",
+            "FileAppenderWithLocationBenchmark.java", 1);
     private FileHandler julFileHandler;
 
     Logger log4j2Logger;
@@ -106,6 +109,13 @@ public class FileAppenderWithLocationBenchmark {
         log4j2Logger.atDebug().withLocation().log(MESSAGE);
     }
 
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void log4j2SuppliedLocationFile() {
+        log4j2Logger.atDebug().withLocation(LOCATION).log(MESSAGE);
+    }
+
     @BenchmarkMode(Mode.Throughput)
     @OutputTimeUnit(TimeUnit.SECONDS)
     @Benchmark
@@ -35,6 +35,7 @@ import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -79,6 +80,9 @@ public class GelfLayoutBenchmark {
                 .build();
     }
 
+    @Param({"OFF", "GZIP", "ZLIB"})
+    public GelfLayout.CompressionType compressionType;
+
     Appender appender;
     int j;
 
@@ -90,7 +94,7 @@ public class GelfLayoutBenchmark {
                 .setConfiguration(new NullConfiguration())
                 .setHost("host")
                 .setAdditionalFields(ADDITIONAL_FIELDS)
-                .setCompressionType(GelfLayout.CompressionType.OFF)
+                .setCompressionType(compressionType)
                 .setCompressionThreshold(0)
                 .setIncludeStacktrace(true)
                 .setIncludeThreadContext(true)
@@ -31,7 +31,8 @@ import org.slf4j.MarkerFactory;
 
 /**
  * Benchmarks Log4j 2 and Logback using a global MarkerFilter which will not be matched for this test. The Marker
- * provided will have a
+ * provided will have a parent. The deep marker benchmarks use a Marker with a hierarchy of a few hundred ancestors,
+ * none of which matches the filter.
  */
 // HOW TO RUN THIS TEST
 // single thread:
@@ -46,6 +47,8 @@ public class MarkerFilterBenchmark {
     org.slf4j.Marker LOGBACK_ENTRY_MARKER;
     Marker LOG4J_FLOW_MARKER;
     Marker LOG4J_ENTRY_MARKER;
+    Marker LOG4J_DEEP_MARKER;
+    Marker LOG4J_TEST_MARKER;
 
     @Setup
     public void setUp() {
@@ -57,6 +60,13 @@ public class MarkerFilterBenchmark {
         LOG4J_ENTRY_MARKER = MarkerManager.getMarker("ENTRY");
         LOGBACK_ENTRY_MARKER.add(LOGBACK_FLOW_MARKER);
         LOG4J_ENTRY_MARKER.addParents(LOG4J_FLOW_MARKER);
+        // The filter's marker must exist for the hierarchy to be searched.
+        LOG4J_TEST_MARKER = MarkerManager.getMarker("TestMarker");
+        LOG4J_DEEP_MARKER = MarkerManager.getMarker("DEEP0");
+        for (int i = 1; i < 150; i++) {
+            LOG4J_DEEP_MARKER = MarkerManager.getMarker("DEEP" + i)
+                    .setParents(MarkerManager.getMarker("SIBLING" + i), LOG4J_DEEP_MARKER);
+        }
         log4jLogger = LogManager.getLogger(MarkerFilterBenchmark.class);
         slf4jLogger = LoggerFactory.getLogger(MarkerFilterBenchmark.class);
     }
@@ -83,6 +93,16 @@ public class MarkerFilterBenchmark {
         log4jLogger.info(LOG4J_FLOW_MARKER, "This is a test");
     }
 
+    @Benchmark
+    public void log4jDeepMarker() {
+        log4jLogger.info(LOG4J_DEEP_MARKER, "This is a test");
+    }
+
+    @Benchmark
+    public boolean log4jDeepMarkerIsInstanceOf() {
+        return LOG4J_DEEP_MARKER.isInstanceOf(LOG4J_TEST_MARKER);
+    }
+
     @Benchmark
     public void log4jTooFine() {
         log4jLogger.trace("This is not logged");
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.filter.RegexFilter;
+import org.apache.logging.log4j.core.filter.StringMatchFilter;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares matching the text of a reusable message in {@link RegexFilter} and {@link StringMatchFilter} against
+ * matching the String returned by {@link Message#getFormattedMessage()}.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar ".*MessageFilterBenchmark.*" -f 1 -i 5 -wi 5 -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageFilterBenchmark {
+
+    private static final String REGEX = ".*password=.*";
+    private static final String TEXT = "password=";
+
+    private final Pattern pattern = Pattern.compile(REGEX);
+    private RegexFilter regexFilter;
+    private StringMatchFilter stringMatchFilter;
+    private Message message;
+
+    @Setup
+    public void setUp() throws IllegalAccessException {
+        regexFilter = RegexFilter.createFilter(REGEX, null, false, Result.DENY, Result.NEUTRAL);
+        stringMatchFilter = StringMatchFilter.newBuilder().setMatchString(TEXT)
+                .setOnMatch(Result.DENY).setOnMismatch(Result.NEUTRAL).build();
+        message = ReusableMessageFactory.INSTANCE.newMessage("User {} logged in from {} after {} attempts",
+                "alice", "10.0.0.1", 3);
+    }
+
+    @Benchmark
+    public Result regexFilter() {
+        return regexFilter.filter(null, Level.INFO, null, message, null);
+    }
+
+    @Benchmark
+    public boolean regexFormattedString() {
+        return pattern.matcher(message.getFormattedMessage()).matches();
+    }
+
+    @Benchmark
+    public Result stringMatchFilter() {
+        return stringMatchFilter.filter(null, Level.INFO, null, message, null);
+    }
+
+    @Benchmark
+    public boolean stringMatchFormattedString() {
+        return message.getFormattedMessage().contains(TEXT);
+    }
+}
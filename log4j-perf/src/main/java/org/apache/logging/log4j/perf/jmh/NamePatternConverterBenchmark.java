@@ -19,6 +19,7 @@ package org.apache.logging.log4j.perf.jmh;
 import org.apache.logging.log4j.core.AbstractLogEvent;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.pattern.LoggerPatternConverter;
+import org.apache.logging.log4j.core.pattern.NameAbbreviator;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -69,7 +70,10 @@ public class NamePatternConverterBenchmark {
         LogEvent event;
         private final ThreadLocal<StringBuilder> destination = ThreadLocal.withInitial(StringBuilder::new);
 
-        final LoggerPatternConverter converter = LoggerPatternConverter.newInstance(new String[] {"1."});
+        final LoggerPatternConverter converter = LoggerPatternConverter.newInstance(null, new String[] {"1."});
+
+        // abbreviates on every call, without the converter's cache
+        final NameAbbreviator abbreviator = NameAbbreviator.getAbbreviator("1.");
 
         @Setup
         public void setup() {
@@ -90,6 +94,13 @@ public class NamePatternConverterBenchmark {
         plan.converter.format(plan.event, plan.destination());
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void benchNameAbbreviatorUncached(ExecutionPlan plan) {
+        plan.abbreviator.abbreviate(plan.event.getLoggerName(), plan.destination());
+    }
+
     private static class BenchmarkLogEvent extends AbstractLogEvent {
         private final String loggerName;
 
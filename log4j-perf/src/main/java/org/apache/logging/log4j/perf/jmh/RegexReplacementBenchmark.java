@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.core.pattern.RegexReplacement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link RegexReplacement#format(StringBuilder, int)} against {@code Pattern.matcher(...).replaceAll(...)}.
+ * <p>
+ * How to run these benchmarks:
+ * </p>
+ * <pre>java -jar log4j-perf/target/benchmarks.jar ".*RegexReplacementBenchmark.*" -f 1 -wi 5 -i 10</pre>
+ */
+@Fork(1)
+@Threads(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 4, time = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RegexReplacementBenchmark {
+
+    private static final String NO_MATCH = "User alice logged in from 10.0.0.1 using the web client";
+    private static final String MATCH = "User alice logged in with password=hunter2 and token=abc123";
+
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+
+        @Param({"password|secret|token", "pass(word)?|secret|tok[e]n"})
+        String regex;
+
+        @Param({"false", "true"})
+        boolean matching;
+
+        Pattern pattern;
+        RegexReplacement replacement;
+        String message;
+        private final ThreadLocal<StringBuilder> destination = ThreadLocal.withInitial(StringBuilder::new);
+
+        @Setup
+        public void setup() {
+            pattern = Pattern.compile(regex);
+            replacement = RegexReplacement.createRegexReplacement(pattern, "***");
+            message = matching ? MATCH : NO_MATCH;
+        }
+
+        StringBuilder destination() {
+            final StringBuilder result = destination.get();
+            result.setLength(0);
+            return result;
+        }
+    }
+
+    @Benchmark
+    public StringBuilder patternReplaceAll(final ExecutionPlan plan) {
+        return plan.destination().append(plan.pattern.matcher(plan.message).replaceAll("***"));
+    }
+
+    @Benchmark
+    public StringBuilder regexReplacementInPlace(final ExecutionPlan plan) {
+        final StringBuilder buffer = plan.destination().append(plan.message);
+        plan.replacement.format(buffer, 0);
+        return buffer;
+    }
+
+}
@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.perf.jmh;
 
 import org.apache.logging.log4j.perf.util.StackDriver;
+import org.apache.logging.log4j.util.StackLocatorUtil;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
@@ -91,6 +92,11 @@ public class StackWalkBenchmark {
                 .toStackTraceElement());
     }
 
+    @Benchmark
+    public void stackLocatorCalcLocation(Blackhole bh) {
+        stackDriver.deepCall(initialDepth, callDepth, StackLocatorUtil::calcLocation);
+    }
+
     @Benchmark
     public void baseline(Blackhole bh)  {
 
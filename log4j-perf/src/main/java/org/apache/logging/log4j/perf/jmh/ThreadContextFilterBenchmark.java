@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.filter.DynamicThresholdFilter;
+import org.apache.logging.log4j.core.filter.ThreadContextMapFilter;
+import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks ThreadContextMapFilter and DynamicThresholdFilter configured with 500 tenant ids.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar ".*ThreadContextFilterBenchmark.*" -f 1 -i 5 -wi 5
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ThreadContextFilterBenchmark {
+
+    private static final int TENANTS = 500;
+
+    @Param({"tenant-0", "tenant-499", "unknown"})
+    public String tenant;
+
+    private ThreadContextMapFilter mapFilter;
+    private DynamicThresholdFilter thresholdFilter;
+
+    @Setup
+    public void setUp() {
+        final KeyValuePair[] tenants = new KeyValuePair[TENANTS];
+        final KeyValuePair[] thresholds = new KeyValuePair[TENANTS];
+        for (int i = 0; i < TENANTS; i++) {
+            tenants[i] = new KeyValuePair("tenant", "tenant-" + i);
+            thresholds[i] = new KeyValuePair("tenant-" + i, i % 2 == 0 ? "DEBUG" : "WARN");
+        }
+        mapFilter = ThreadContextMapFilter.newBuilder()
+                .setPairs(tenants)
+                .setOperator("or")
+                .setContextDataInjector(ContextDataInjectorFactory.createInjector())
+                .get();
+        thresholdFilter = DynamicThresholdFilter.newBuilder()
+                .setKey("tenant")
+                .setPairs(thresholds)
+                .setDefaultThreshold(Level.ERROR)
+                .setContextDataInjector(ContextDataInjectorFactory.createInjector())
+                .get();
+        ThreadContext.put("tenant", tenant);
+        ThreadContext.put("user", "alice");
+    }
+
+    @TearDown
+    public void tearDown() {
+        ThreadContext.clearMap();
+    }
+
+    @Benchmark
+    public Result threadContextMapFilter() {
+        return mapFilter.filter(null, Level.INFO, null, "message", "p0");
+    }
+
+    @Benchmark
+    public Result dynamicThresholdFilter() {
+        return thresholdFilter.filter(null, Level.INFO, null, "message", "p0");
+    }
+}
@@ -23,6 +23,7 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.logging.log4j.core.time.internal.format.CompiledDateFormat;
 import org.apache.logging.log4j.core.time.internal.format.FixedDateFormat;
 import org.apache.logging.log4j.core.time.internal.format.FastDateFormat;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -65,6 +66,8 @@ public class TimeFormatBenchmark {
         final ByteBuffer buffer = ByteBuffer.allocate(12);
         final StringBuilder stringBuilder = new StringBuilder(12);
         final char[] charArray = new char[12];
+        // not thread-safe, so one instance per thread
+        final CompiledDateFormat compiledDateFormat = CompiledDateFormat.createIfSupported("HH:mm:ss.SSS", null, null);
     }
 
     private long millisSinceMidnight(final long now) {
@@ -146,6 +149,16 @@ public class TimeFormatBenchmark {
         return new String(state.stringBuilder);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String compiledDateFormatReuseStringBuilder(final BufferState state) {
+        state.stringBuilder.setLength(0);
+        final long now = System.currentTimeMillis();
+        state.compiledDateFormat.format(now / 1000, (int) (now % 1000) * 1_000_000, state.stringBuilder);
+        return new String(state.stringBuilder);
+    }
+
     int formatCharArrayBitFiddling(final long time, final char[] buffer, int pos) {
         // Calculate values by getting the ms values first and do then
         // shave off the hour minute and second values with multiplications
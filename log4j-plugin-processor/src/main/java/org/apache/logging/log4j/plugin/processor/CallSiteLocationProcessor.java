@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.plugin.processor;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.SourcePositions;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.Trees;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic.Kind;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Annotation processor that resolves the location of {@code LogBuilder.withLocation} call sites at compile time.
+ * <p>
+ * Locating the caller at run time requires walking the stack on every logging call. A call site can avoid that by
+ * passing its location as a constant:
+ * </p>
+ * <pre>
+ * logger.atInfo().withLocation(new StackTraceElement("com.example.Foo", "bar", "Foo.java", 42)).log("message");
+ * </pre>
+ * <p>
+ * This processor reports, for each {@code withLocation()} call, the constant that would replace the stack walk, and
+ * warns about {@code withLocation(new StackTraceElement(...))} constants that no longer match the line, method or
+ * class they appear in. It is only active when the {@value #OPTION} option is set to {@code true}, for example with
+ * {@code -Alog4j.callSiteLocations=true}.
+ * </p>
+ * <p>
+ * Annotation processors cannot change the code being compiled, so the constants are suggested rather than injected.
+ * </p>
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(CallSiteLocationProcessor.OPTION)
+public class CallSiteLocationProcessor extends AbstractProcessor {
+
+    /**
+     * The processor option that enables call site location processing.
+     */
+    public static final String OPTION = "log4j.callSiteLocations";
+
+    private static final String LOG_BUILDER = "org.apache.logging.log4j.LogBuilder";
+
+    private static final String WITH_LOCATION = "withLocation";
+
+    private Trees trees;
+
+    private TypeMirror logBuilderType;
+
+    public CallSiteLocationProcessor() {
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latest();
+    }
+
+    @Override
+    public synchronized void init(final ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        if (!Boolean.parseBoolean(processingEnv.getOptions().get(OPTION))) {
+            return;
+        }
+        final TypeElement logBuilder = processingEnv.getElementUtils().getTypeElement(LOG_BUILDER);
+        if (logBuilder == null) {
+            return;
+        }
+        try {
+            trees = Trees.instance(processingEnv);
+            logBuilderType = processingEnv.getTypeUtils().erasure(logBuilder.asType());
+            // call sites can only be resolved once types have been attributed
+            JavacTask.instance(processingEnv).addTaskListener(new TaskListener() {
+                @Override
+                public void finished(final TaskEvent event) {
+                    if (event.getKind() == TaskEvent.Kind.ANALYZE && event.getTypeElement() != null) {
+                        final TreePath path = trees.getPath(event.getTypeElement());
+                        if (path != null) {
+                            new CallSiteScanner(path.getCompilationUnit()).scan(path, null);
+                        }
+                    }
+                }
+            });
+        } catch (final IllegalArgumentException e) {
+            // not running in javac
+            processingEnv.getMessager().printMessage(Kind.NOTE,
+                    "Call site locations are not supported by this compiler");
+        }
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        return false;
+    }
+
+    /**
+     * Computes the location a {@code withLocation} call site would report at run time.
+     */
+    private final class CallSiteScanner extends TreePathScanner<Void, Void> {
+
+        private final CompilationUnitTree compilationUnit;
+
+        private final SourcePositions positions;
+
+        private final String fileName;
+
+        private CallSiteScanner(final CompilationUnitTree compilationUnit) {
+            this.compilationUnit = compilationUnit;
+            this.positions = trees.getSourcePositions();
+            final String path = compilationUnit.getSourceFile().getName();
+            this.fileName = path.substring(Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1);
+        }
+
+        @Override
+        public Void visitMethodInvocation(final MethodInvocationTree node, final Void unused) {
+            final ExpressionTree select = node.getMethodSelect();
+            if (select instanceof MemberSelectTree
+                    && ((MemberSelectTree) select).getIdentifier().contentEquals(WITH_LOCATION)
+                    && node.getArguments().size() <= 1 && isLogBuilder((MemberSelectTree) select)) {
+                final StackTraceElement expected = locate(select);
+                if (expected != null) {
+                    check(node, expected);
+                }
+            }
+            return super.visitMethodInvocation(node, unused);
+        }
+
+        private boolean isLogBuilder(final MemberSelectTree select) {
+            final TypeMirror type = trees.getTypeMirror(new TreePath(getCurrentPath(), select.getExpression()));
+            return type != null && processingEnv.getTypeUtils().isAssignable(
+                    processingEnv.getTypeUtils().erasure(type), logBuilderType);
+        }
+
+        private StackTraceElement locate(final ExpressionTree select) {
+            String methodName = null;
+            for (TreePath path = getCurrentPath(); path != null; path = path.getParentPath()) {
+                final Tree leaf = path.getLeaf();
+                if (leaf instanceof LambdaExpressionTree) {
+                    // the name of the synthetic method is chosen by the compiler
+                    return null;
+                }
+                if (methodName == null && leaf instanceof MethodTree) {
+                    methodName = ((MethodTree) leaf).getName().toString();
+                }
+                if (leaf instanceof ClassTree) {
+                    final Element type = trees.getElement(path);
+                    if (!(type instanceof TypeElement) || ((TypeElement) type).getNestingKind() == NestingKind.ANONYMOUS
+                            || ((TypeElement) type).getNestingKind() == NestingKind.LOCAL) {
+                        // anonymous and local classes have compiler generated names
+                        return null;
+                    }
+                    if (methodName == null) {
+                        // field initializer or initializer block
+                        methodName = "<init>";
+                    }
+                    final String className =
+                            processingEnv.getElementUtils().getBinaryName((TypeElement) type).toString();
+                    final long position = positions.getEndPosition(compilationUnit, select);
+                    final int line = (int) compilationUnit.getLineMap().getLineNumber(position);
+                    return new StackTraceElement(className, methodName, fileName, line);
+                }
+            }
+            return null;
+        }
+
+        private void check(final MethodInvocationTree node, final StackTraceElement expected) {
+            final List<? extends ExpressionTree> arguments = node.getArguments();
+            if (arguments.isEmpty()) {
+                trees.printMessage(Kind.NOTE, "Location can be passed as a constant: " + WITH_LOCATION + "("
+                        + toSource(expected) + ")", node, compilationUnit);
+                return;
+            }
+            final StackTraceElement actual = toStackTraceElement(arguments.get(0));
+            if (actual != null && !sameLocation(expected, actual)) {
+                trees.printMessage(Kind.WARNING, "Location constant " + actual + " does not match its call site, use "
+                        + toSource(expected), node, compilationUnit);
+            }
+        }
+
+        private StackTraceElement toStackTraceElement(final ExpressionTree argument) {
+            if (!(argument instanceof NewClassTree)) {
+                return null;
+            }
+            final NewClassTree newClass = (NewClassTree) argument;
+            final List<? extends ExpressionTree> arguments = newClass.getArguments();
+            if (arguments.size() != 4 || !newClass.getIdentifier().toString().endsWith("StackTraceElement")) {
+                return null;
+            }
+            final Object[] values = new Object[4];
+            for (int i = 0; i < values.length; i++) {
+                if (!(arguments.get(i) instanceof LiteralTree)) {
+                    return null;
+                }
+                values[i] = ((LiteralTree) arguments.get(i)).getValue();
+            }
+            if (!(values[0] instanceof String) || !(values[1] instanceof String) || !(values[3] instanceof Integer)) {
+                return null;
+            }
+            return new StackTraceElement((String) values[0], (String) values[1], (String) values[2],
+                    (Integer) values[3]);
+        }
+
+        private boolean sameLocation(final StackTraceElement expected, final StackTraceElement actual) {
+            return expected.getClassName().equals(actual.getClassName())
+                    && expected.getMethodName().equals(actual.getMethodName())
+                    && Objects.equals(expected.getFileName(), actual.getFileName())
+                    && expected.getLineNumber() == actual.getLineNumber();
+        }
+
+        private String toSource(final StackTraceElement element) {
+            return "new StackTraceElement(\"" + element.getClassName() + "\", \"" + element.getMethodName() + "\", \""
+                    + element.getFileName() + "\", " + element.getLineNumber() + ")";
+        }
+    }
+}
@@ -18,9 +18,11 @@ module org.apache.logging.log4j.plugin.processor {
     exports org.apache.logging.log4j.plugin.processor;
 
     requires java.compiler;
+    requires jdk.compiler;
     requires org.apache.logging.log4j;
     requires org.apache.logging.log4j.plugins;
     requires transitive org.osgi.framework;
 
-    provides javax.annotation.processing.Processor with org.apache.logging.log4j.plugin.processor.PluginProcessor;
+    provides javax.annotation.processing.Processor with org.apache.logging.log4j.plugin.processor.PluginProcessor,
+            org.apache.logging.log4j.plugin.processor.CallSiteLocationProcessor;
 }
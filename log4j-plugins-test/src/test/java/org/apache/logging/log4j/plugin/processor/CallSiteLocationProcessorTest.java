@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.plugin.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CallSiteLocationProcessorTest {
+
+    @TempDir
+    File outputDir;
+
+    private static final String SOURCE = String.join("\n",
+            "package example;",
+            "",
+            "import org.apache.logging.log4j.LogManager;",
+            "import org.apache.logging.log4j.Logger;",
+            "",
+            "public class Service {",
+            "    private static final Logger LOGGER = LogManager.getLogger();",
+            "",
+            "    void start() {",
+            "        LOGGER.atInfo().withLocation().log(\"walks the stack\");",
+            "        LOGGER.atInfo().withLocation(new StackTraceElement(\"example.Service\", \"start\", \"Service.java\", 11))",
+            "                .log(\"up to date\");",
+            "        LOGGER.atInfo().withLocation(new StackTraceElement(\"example.Service\", \"start\", \"Service.java\", 7))",
+            "                .log(\"stale\");",
+            "        Runnable task = () -> LOGGER.atInfo().withLocation().log(\"in a lambda\");",
+            "    }",
+            "}",
+            "");
+
+    @Test
+    public void testSuggestsAndChecksLocationConstants() {
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile("-Alog4j.callSiteLocations=true");
+        final List<String> notes = messages(diagnostics, Diagnostic.Kind.NOTE);
+        final List<String> warnings = messages(diagnostics, Diagnostic.Kind.WARNING);
+        assertEquals(1, notes.size(), notes.toString());
+        assertTrue(notes.get(0).contains(
+                "withLocation(new StackTraceElement(\"example.Service\", \"start\", \"Service.java\", 10))"),
+                notes.get(0));
+        assertEquals(1, warnings.size(), warnings.toString());
+        assertTrue(warnings.get(0).contains(
+                "use new StackTraceElement(\"example.Service\", \"start\", \"Service.java\", 13)"), warnings.get(0));
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile();
+        assertTrue(messages(diagnostics, Diagnostic.Kind.NOTE).isEmpty());
+        assertTrue(messages(diagnostics, Diagnostic.Kind.WARNING).isEmpty());
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(final String... options) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final JavaFileObject source = new SimpleJavaFileObject(URI.create("string:///example/Service.java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return SOURCE;
+            }
+        };
+        final List<String> compilerOptions = new ArrayList<>(List.of("-d", outputDir.getPath(), "-processor",
+                CallSiteLocationProcessor.class.getName(), "-classpath", System.getProperty("java.class.path")));
+        compilerOptions.addAll(List.of(options));
+        assertTrue(compiler.getTask(null, null, diagnostics, compilerOptions, null, List.of(source)).call(),
+                diagnostics.getDiagnostics().toString());
+        return diagnostics.getDiagnostics();
+    }
+
+    private static List<String> messages(final List<Diagnostic<? extends JavaFileObject>> diagnostics,
+            final Diagnostic.Kind kind) {
+        return diagnostics.stream()
+                .filter(diagnostic -> diagnostic.getKind() == kind)
+                .map(diagnostic -> diagnostic.getMessage(Locale.ROOT))
+                .collect(Collectors.toList());
+    }
+}
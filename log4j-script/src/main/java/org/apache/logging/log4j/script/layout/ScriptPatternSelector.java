@@ -35,15 +35,26 @@ import org.apache.logging.log4j.script.AbstractScript;
 import org.apache.logging.log4j.script.ScriptManagerImpl;
 import org.apache.logging.log4j.script.ScriptRef;
 import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.Strings;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 /**
  * Selects the pattern to use based on the result of executing a Script. The returned value will be used as the "key"
  * to choose between one of the configured patterns. If no key is returned or there is no match the default
  * pattern will be used.
+ * <p>
+ * If the script only reads some of the event's level, marker and logger name, those inputs can be listed in the
+ * {@code cacheKeys} attribute. The selected pattern is then cached per distinct combination of those inputs and the
+ * script is only executed the first time a combination is seen.
+ * </p>
  */
 @Configurable(elementType = PatternSelector.ELEMENT_TYPE, printObject = true)
 @Plugin
@@ -72,6 +83,9 @@ public class ScriptPatternSelector implements PatternSelector {
         @PluginBuilderAttribute("noConsoleNoAnsi")
         private boolean noConsoleNoAnsi;
 
+        @PluginBuilderAttribute("cacheKeys")
+        private String cacheKeys;
+
         @PluginConfiguration
         private Configuration configuration;
 
@@ -106,8 +120,15 @@ public class ScriptPatternSelector implements PatternSelector {
                 LOGGER.warn("No marker patterns were provided");
                 return null;
             }
+            Function<LogEvent, Object> cacheKeyFunction = null;
+            if (Strings.isNotBlank(cacheKeys)) {
+                cacheKeyFunction = createCacheKeyFunction(cacheKeys);
+                if (cacheKeyFunction == null) {
+                    return null;
+                }
+            }
             return new ScriptPatternSelector(script, properties, defaultPattern, alwaysWriteExceptions, disableAnsi,
-                    noConsoleNoAnsi, configuration);
+                    noConsoleNoAnsi, cacheKeyFunction, configuration);
         }
 
         public Builder setScript(final AbstractScript script) {
@@ -140,12 +161,28 @@ public class ScriptPatternSelector implements PatternSelector {
             return this;
         }
 
+        /**
+         * Sets the event inputs the script reads, as a comma separated list of {@code level}, {@code marker} and
+         * {@code loggerName}. When set, the script result is cached per distinct combination of these inputs.
+         */
+        public Builder setCacheKeys(final String cacheKeys) {
+            this.cacheKeys = cacheKeys;
+            return this;
+        }
+
         public Builder setConfiguration(final Configuration config) {
             this.configuration = config;
             return this;
         }
     }
 
+    /**
+     * The maximum number of cached selections. Once reached, the script is executed for new combinations of inputs.
+     */
+    private static final int MAX_CACHE_SIZE = 1024;
+
+    private static final Object NULL_KEY = new Object();
+
     private final Map<String, PatternFormatter[]> formatterMap = new HashMap<>();
 
     private final Map<String, String> patternMap = new HashMap<>();
@@ -158,12 +195,17 @@ public class ScriptPatternSelector implements PatternSelector {
     private final AbstractScript script;
     private final Configuration configuration;
     private final boolean requiresLocation;
+    private final Function<LogEvent, Object> cacheKeyFunction;
+    private final ConcurrentMap<Object, PatternFormatter[]> cache;
 
     private ScriptPatternSelector(final AbstractScript script, final PatternMatch[] properties, final String defaultPattern,
                                  final boolean alwaysWriteExceptions, final boolean disableAnsi,
-                                 final boolean noConsoleNoAnsi, final Configuration config) {
+                                 final boolean noConsoleNoAnsi, final Function<LogEvent, Object> cacheKeyFunction,
+                                 final Configuration config) {
         this.script = script;
         this.configuration = config;
+        this.cacheKeyFunction = cacheKeyFunction;
+        this.cache = cacheKeyFunction == null ? null : new ConcurrentHashMap<>();
         final PatternParser parser = PatternLayout.createPatternParser(config);
         boolean needsLocation = false;
         for (final PatternMatch property : properties) {
@@ -199,6 +241,21 @@ public class ScriptPatternSelector implements PatternSelector {
 
     @Override
     public PatternFormatter[] getFormatters(final LogEvent event) {
+        if (cacheKeyFunction == null) {
+            return selectFormatters(event);
+        }
+        final Object key = cacheKeyFunction.apply(event);
+        PatternFormatter[] formatters = cache.get(key);
+        if (formatters == null) {
+            formatters = selectFormatters(event);
+            if (cache.size() < MAX_CACHE_SIZE) {
+                cache.putIfAbsent(key, formatters);
+            }
+        }
+        return formatters;
+    }
+
+    private PatternFormatter[] selectFormatters(final LogEvent event) {
         final ScriptBindings bindings = ScriptManagerImpl.createBindings();
         bindings.putAll(configuration.getProperties());
         bindings.put("substitutor", configuration.getStrSubstitutor());
@@ -212,6 +269,42 @@ public class ScriptPatternSelector implements PatternSelector {
         return patternFormatter == null ? defaultFormatters : patternFormatter;
     }
 
+    private static Function<LogEvent, Object> createCacheKeyFunction(final String cacheKeys) {
+        final String[] names = cacheKeys.split("\\s*,\\s*");
+        @SuppressWarnings("unchecked")
+        final Function<LogEvent, Object>[] inputs = new Function[names.length];
+        for (int i = 0; i < names.length; i++) {
+            switch (names[i].trim().toLowerCase(Locale.ROOT)) {
+                case "level":
+                    inputs[i] = LogEvent::getLevel;
+                    break;
+                case "marker":
+                    inputs[i] = LogEvent::getMarker;
+                    break;
+                case "loggername":
+                    inputs[i] = LogEvent::getLoggerName;
+                    break;
+                default:
+                    LOGGER.error("Unsupported cache key '{}', expected one of level, marker or loggerName", names[i]);
+                    return null;
+            }
+        }
+        if (inputs.length == 1) {
+            final Function<LogEvent, Object> input = inputs[0];
+            return event -> {
+                final Object value = input.apply(event);
+                return value == null ? NULL_KEY : value;
+            };
+        }
+        return event -> {
+            final Object[] values = new Object[inputs.length];
+            for (int i = 0; i < inputs.length; i++) {
+                values[i] = inputs[i].apply(event);
+            }
+            return Arrays.asList(values);
+        };
+    }
+
 
     /**
      * Creates a builder for a custom ScriptPatternSelector.
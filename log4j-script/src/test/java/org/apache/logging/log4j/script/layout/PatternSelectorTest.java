@@ -95,4 +95,30 @@ public class PatternSelectorTest {
         assertEquals("[INFO ] JavascriptNoLocation No location information" + Strings.LINE_SEPARATOR, messages.get(2));
         app.clear();
     }
+
+    @Test
+    public void testCachedScriptPatternSelector(@Named("List4") final ListAppender app) {
+        final org.apache.logging.log4j.Logger logger = LogManager.getLogger("CachedPatternSelector");
+        final org.apache.logging.log4j.Logger logger2 = LogManager.getLogger("CachedNoLocation");
+        logger.info("Hello World");
+        System.setProperty("patternSelector.noLocation", "true");
+        try {
+            logger2.info("No location information");
+            // the selection for this logger name was cached before the property was set
+            logger.info("Hello again");
+        } finally {
+            System.clearProperty("patternSelector.noLocation");
+        }
+        logger2.info("Still no location information");
+        final List<String> messages = app.getMessages();
+        assertEquals(4, messages.size(), "Incorrect number of messages: " + messages);
+        assertTrue(messages.get(0).startsWith("[INFO ] CachedPatternSelector o.a.l.l.s.l.PatternSelectorTest."),
+                messages.get(0));
+        assertEquals("[INFO ] CachedNoLocation No location information" + Strings.LINE_SEPARATOR, messages.get(1));
+        assertTrue(messages.get(2).startsWith("[INFO ] CachedPatternSelector o.a.l.l.s.l.PatternSelectorTest."),
+                messages.get(2));
+        assertEquals("[INFO ] CachedNoLocation Still no location information" + Strings.LINE_SEPARATOR,
+                messages.get(3));
+        app.clear();
+    }
 }